@@ -0,0 +1,153 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.dahdev.bloomfilters.BloomFilter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of inserting elements to Bloom Filter.
+ *
+ * Single thread inserts batches of unique keys and Bloom Filter is cleared before batch, which would exceed
+ * expected number of elements, so Bloom Filter never contains more elements than expected.
+ * Clearing is not measured. Many threads insert keys of set as large as expected number of elements
+ * to Bloom Filter, which is cleared before each iteration, so keys inserted again do not fill it more.
+ * Inserting by many threads is measured only for Bloom Filter, which is thread-safe.
+ *
+ * @author Damian Stygar
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @State(Scope.Thread)
+    public static class EmptyFilter {
+
+        @Param({"DOUBLE", "TRIPLE", "ENHANCED_DOUBLE", "BLOCKED", "CONCURRENT", "LARGE",
+                "COUNTING", "CUCKOO", "SCALABLE"})
+        public FilterType filterType;
+
+        @Param({"100000", "10000000"})
+        public int expectedNumberOfElements;
+
+        @Param({"0.01", "0.001"})
+        public double probabilityOfFalsePositives;
+
+        @Param({"LONG", "STRING", "BYTES"})
+        public KeyType keyType;
+
+        BloomFilter<Object> filter;
+        Object[] keys;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            filter = filterType.create(probabilityOfFalsePositives, expectedNumberOfElements);
+            int numberOfKeys = Math.max(BATCH_SIZE, expectedNumberOfElements / BATCH_SIZE * BATCH_SIZE);
+            keys = keyType.createKeys(0, numberOfKeys, new Random(42));
+        }
+
+        @Setup(Level.Invocation)
+        public void clearIfFull() {
+            if (next == keys.length) {
+                filter.clear();
+                next = 0;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class EmptyConcurrentFilter {
+
+        @Param({"100000", "10000000"})
+        public int expectedNumberOfElements;
+
+        @Param({"0.01", "0.001"})
+        public double probabilityOfFalsePositives;
+
+        @Param({"LONG", "STRING", "BYTES"})
+        public KeyType keyType;
+
+        BloomFilter<Object> filter;
+        Object[] keys;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            filter = FilterType.CONCURRENT.create(probabilityOfFalsePositives, expectedNumberOfElements);
+            keys = keyType.createKeys(0, expectedNumberOfElements, new Random(42));
+        }
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            filter.clear();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void add(EmptyFilter state) {
+        Object[] keys = state.keys;
+        BloomFilter<Object> filter = state.filter;
+        int next = state.next;
+        for (int i = next; i < next + BATCH_SIZE; i++) {
+            filter.add(keys[i]);
+        }
+        state.next = next + BATCH_SIZE;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addByManyThreads(EmptyConcurrentFilter state, Cursor cursor) {
+        Object[] keys = state.keys;
+        int next = cursor.next;
+        cursor.next = next + 1 == keys.length ? 0 : next + 1;
+        state.filter.add(keys[next]);
+    }
+}
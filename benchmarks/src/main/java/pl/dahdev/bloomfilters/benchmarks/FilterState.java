@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pl.dahdev.bloomfilters.BloomFilter;
+
+import java.util.Random;
+
+/**
+ * Bloom Filter filled with expected number of elements and keys used to query it.
+ *
+ * Size of Bloom Filter is estimated from expected number of elements and probability of false positives.
+ * Part of queried keys given by hit ratio were inserted to Bloom Filter, the rest of them were not.
+ *
+ * @author Damian Stygar
+ */
+@State(Scope.Benchmark)
+public class FilterState {
+
+    private static final int NUMBER_OF_QUERIES = 1 << 16;
+
+    @Param({"DOUBLE", "TRIPLE", "ENHANCED_DOUBLE", "BLOCKED", "CONCURRENT", "LARGE",
+            "COUNTING", "CUCKOO", "SCALABLE"})
+    public FilterType filterType;
+
+    @Param({"100000", "10000000"})
+    public int expectedNumberOfElements;
+
+    @Param({"0.01", "0.001"})
+    public double probabilityOfFalsePositives;
+
+    @Param({"LONG", "STRING", "BYTES"})
+    public KeyType keyType;
+
+    @Param({"0", "0.5", "1"})
+    public double hitRatio;
+
+    BloomFilter<Object> filter;
+    Object[] insertedKeys;
+    Object[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        filter = filterType.create(probabilityOfFalsePositives, expectedNumberOfElements);
+        insertedKeys = keyType.createKeys(0, expectedNumberOfElements, random);
+        for (Object key : insertedKeys) {
+            filter.add(key);
+        }
+        Object[] missingKeys = keyType.createKeys(expectedNumberOfElements, NUMBER_OF_QUERIES, random);
+        queries = new Object[NUMBER_OF_QUERIES];
+        for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+            queries[i] = random.nextDouble() < hitRatio
+                    ? insertedKeys[random.nextInt(insertedKeys.length)]
+                    : missingKeys[i];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters.benchmarks;
+
+import pl.dahdev.bloomfilters.BlockedBloomFilter;
+import pl.dahdev.bloomfilters.BloomFilter;
+import pl.dahdev.bloomfilters.ConcurrentBloomFilter;
+import pl.dahdev.bloomfilters.CountingBloomFilter;
+import pl.dahdev.bloomfilters.CuckooFilter;
+import pl.dahdev.bloomfilters.DoubleHashBloomFilter;
+import pl.dahdev.bloomfilters.EnhancedDoubleHashBloomFilter;
+import pl.dahdev.bloomfilters.LargeBloomFilter;
+import pl.dahdev.bloomfilters.ScalableBloomFilter;
+import pl.dahdev.bloomfilters.TripleHashBloomFilter;
+
+/**
+ * Variants of Bloom Filter compared by benchmarks.
+ *
+ * Filters, which cannot be created only from probability of false positives and expected number of elements,
+ * are out of scope: Binary Fuse Filter is built once from all elements, Immutable Bloom Filter is view
+ * of other Bloom Filter and Sliding Window Bloom Filter depends on clock and duration of window.
+ *
+ * @author Damian Stygar
+ */
+public enum FilterType {
+
+    DOUBLE {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new DoubleHashBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    TRIPLE {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new TripleHashBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    ENHANCED_DOUBLE {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new EnhancedDoubleHashBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    BLOCKED {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new BlockedBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    CONCURRENT {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new ConcurrentBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    LARGE {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new LargeBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    COUNTING {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new CountingBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    CUCKOO {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new CuckooFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    },
+    SCALABLE {
+        @Override
+        <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+            return new ScalableBloomFilter<E>(probabilityOfFalsePositives, expectedNumberOfElements);
+        }
+    };
+
+    /**
+     * The create method enables you to create empty Bloom Filter of this type.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements.
+     * @param <E>                         the type of elements.
+     * @return Bloom Filter.
+     */
+    abstract <E> BloomFilter<E> create(double probabilityOfFalsePositives, int expectedNumberOfElements);
+}
@@ -0,0 +1,87 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters.benchmarks;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * Types of keys used by benchmarks.
+ *
+ * Keys are created before measurement, so benchmarks do not measure their allocation.
+ *
+ * @author Damian Stygar
+ */
+public enum KeyType {
+
+    LONG {
+        @Override
+        Object create(long value, Random random) {
+            return value;
+        }
+    },
+    STRING {
+        @Override
+        Object create(long value, Random random) {
+            return "key-" + value + "-" + Long.toHexString(random.nextLong());
+        }
+    },
+    BYTES {
+        @Override
+        Object create(long value, Random random) {
+            byte[] bytes = new byte[32];
+            random.nextBytes(bytes);
+            byte[] prefix = Long.toString(value).getBytes(UTF_8);
+            System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+            return bytes;
+        }
+    };
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The create method enables you to create key.
+     *
+     * @param value  unique value of key.
+     * @param random source of random bytes.
+     * @return key.
+     */
+    abstract Object create(long value, Random random);
+
+    /**
+     * The createKeys method enables you to create unique keys.
+     *
+     * @param first  unique value of the first key.
+     * @param number number of keys.
+     * @param random source of random bytes.
+     * @return keys.
+     */
+    Object[] createKeys(long first, int number, Random random) {
+        Object[] keys = new Object[number];
+        for (int i = 0; i < number; i++) {
+            keys[i] = create(first + i, random);
+        }
+        return keys;
+    }
+}
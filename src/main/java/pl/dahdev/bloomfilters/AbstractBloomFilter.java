@@ -24,10 +24,22 @@
 package pl.dahdev.bloomfilters;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.OptionalDataException;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.math.BigInteger;
-import java.security.MessageDigest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Abstract Class of Bloom Filter contains implemented all basic methods.
@@ -43,12 +55,21 @@ import java.util.Collection;
  */
 public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
 
+    private static final int BATCH_SIZE = 64;
+
     final int size;
     final int expectedNumberOfElements;
-    BitSet bitSet;
+    BitArray bitArray;
     int numberOfHash;
     int numberOfElements;
+    long numberOfSetBits;
     double bitsPerElement;
+    IndexMapping indexMapping = IndexMapping.MULTIPLY_SHIFT;
+    boolean partitioned;
+    boolean pairedHashValues = true;
+    long seed;
+    Funnel<? super E> funnel = Funnels.defaultFunnel();
+    transient BloomFilterMetrics metrics;
 
     /**
      * Bloom filter constructor.
@@ -75,12 +96,35 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
         }
         this.expectedNumberOfElements = expectedNumberOfElements;
         this.size = size;
-        this.numberOfHash = (int) Math.ceil((this.size / this.expectedNumberOfElements) * Math.log(2));
+        this.numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(size, expectedNumberOfElements);
         this.bitsPerElement = (double) size / (double) expectedNumberOfElements;
-        this.bitSet = new BitSet(size);
+        this.bitArray = new LongArrayBitArray(size);
         this.numberOfElements = 0;
     }
 
+    /**
+     * Bloom filter constructor.
+     *
+     * Size and number of hash functions are taken from parameters of Bloom Filter,
+     * e.g. chosen for target probability of false positives or cost of lookup.
+     *
+     * @param spec parameters of Bloom Filter.
+     */
+    public AbstractBloomFilter(BloomFilterSpec spec) {
+        this((int) checkSpec(spec).getSize(), (int) spec.getExpectedNumberOfElements());
+        this.numberOfHash = spec.getNumberOfHash();
+    }
+
+    private static BloomFilterSpec checkSpec(BloomFilterSpec spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("Parameters of Bloom Filter cannot be null!");
+        }
+        if (spec.getSize() > Integer.MAX_VALUE || spec.getExpectedNumberOfElements() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Parameters of Bloom Filter are too large, use LargeBloomFilter!");
+        }
+        return spec;
+    }
+
     /**
      * Bloom filter constructor.
      *
@@ -112,10 +156,14 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
     /**
      * The add method enables you to insert element to Bloom Filter.
      *
+     * Element is written as bytes by funnel of Bloom Filter, see {@link #setFunnel(Funnel)}.
+     *
      * @param item an element to be inserted to Bloom Filter.
      */
     public void add(E item) {
-        add(item.toString().getBytes());
+        ByteSink sink = ByteSink.threadSink();
+        funnel.funnel(item, sink);
+        add(sink.getBuffer(), 0, sink.size());
     }
 
     /**
@@ -124,11 +172,79 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
      * @param bytes the bytes array of element to be inserted to Bloom Filter.
      */
     public void add(byte[] bytes) {
-        int[] hashes = createHashes(bytes, numberOfHash);
-        for (int hash : hashes) {
-            bitSet.set(hash, true);
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        BloomFilterMetrics metrics = this.metrics;
+        long start = metrics != null ? metrics.startHashing() : 0;
+        int[] hashes = ByteSink.threadHashes(numberOfHash);
+        createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+        if (metrics != null) {
+            metrics.stopHashing(start, 1);
+        }
+        for (int i = 0; i < numberOfHash; i++) {
+            if (bitArray.set(hashes[i])) {
+                numberOfSetBits++;
+            }
         }
         numberOfElements++;
+        if (metrics != null) {
+            metrics.recordAdds(1, numberOfSetBits);
+        }
+    }
+
+    /**
+     * The add method enables you to insert remaining bytes of buffer to Bloom Filter.
+     *
+     * The position of buffer is not changed.
+     *
+     * @param buffer the buffer contains element to be inserted to Bloom Filter.
+     */
+    public void add(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            add(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            ByteSink sink = ByteSink.threadSink().putBytes(buffer);
+            add(sink.getBuffer(), 0, sink.size());
+        }
+    }
+
+    /**
+     * The add method enables you to insert characters to Bloom Filter as UTF-8 bytes.
+     *
+     * @param characters the characters to be inserted to Bloom Filter.
+     */
+    public void add(CharSequence characters) {
+        ByteSink sink = ByteSink.threadSink().putString(characters);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert long value to Bloom Filter as 8 bytes (little-endian).
+     *
+     * @param value the value to be inserted to Bloom Filter.
+     */
+    public void add(long value) {
+        ByteSink sink = ByteSink.threadSink().putLong(value);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert int value to Bloom Filter as 4 bytes (little-endian).
+     *
+     * @param value the value to be inserted to Bloom Filter.
+     */
+    public void add(int value) {
+        ByteSink sink = ByteSink.threadSink().putInt(value);
+        add(sink.getBuffer(), 0, sink.size());
     }
 
     /**
@@ -139,26 +255,108 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
      * False if Bloom Filter cannot contains element.
      */
     public boolean mightContains(E element) {
-        return contains(element.toString().getBytes());
+        ByteSink sink = ByteSink.threadSink();
+        funnel.funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
     }
 
     /**
-     * The contains method enables you to check if Bloom Filter may contains element.
+     * The mightContains method enables you to check if Bloom Filter may contains element.
      *
      * @param bytes the bytes array of element to be checked.
      * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
      * False if at least one bit is not set.
      */
-    private boolean contains(byte[] bytes) {
-        int[] hashes = createHashes(bytes, numberOfHash);
-        for (int hash : hashes) {
-            if (!bitSet.get(hash)) {
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        BloomFilterMetrics metrics = this.metrics;
+        int[] hashes = ByteSink.threadHashes(numberOfHash);
+        if (metrics == null) {
+            createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+            return mightContainsHashes(hashes);
+        }
+        long start = metrics.startHashing();
+        createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+        metrics.stopHashing(start, 1);
+        boolean result = mightContainsHashes(hashes);
+        metrics.recordQueries(1, result ? 1 : 0);
+        return result;
+    }
+
+    private boolean mightContainsHashes(int[] hashes) {
+        for (int i = 0; i < numberOfHash; i++) {
+            if (!bitArray.get(hashes[i])) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains remaining bytes of buffer.
+     *
+     * The position of buffer is not changed.
+     *
+     * @param buffer the buffer contains element to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return mightContains(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        ByteSink sink = ByteSink.threadSink().putBytes(buffer);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains characters.
+     *
+     * @param characters the characters to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(CharSequence characters) {
+        ByteSink sink = ByteSink.threadSink().putString(characters);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains long value.
+     *
+     * @param value the value to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(long value) {
+        ByteSink sink = ByteSink.threadSink().putLong(value);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains int value.
+     *
+     * @param value the value to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(int value) {
+        ByteSink sink = ByteSink.threadSink().putInt(value);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
     /**
      * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
      *
@@ -173,14 +371,230 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
         return true;
     }
 
+    /**
+     * The addBatch method enables you to insert many long values to Bloom Filter as 8 bytes (little-endian).
+     *
+     * Values are processed in batches: hash functions of whole batch are created first and bits are set after that,
+     * so reading of memory for different values can overlap.
+     *
+     * @param values the values to be inserted to Bloom Filter.
+     */
+    public void addBatch(long[] values) {
+        BloomFilterMetrics metrics = this.metrics;
+        int[] positions = new int[Math.min(values.length, BATCH_SIZE) * numberOfHash];
+        ByteSink sink = ByteSink.threadSink();
+        for (int start = 0; start < values.length; start += BATCH_SIZE) {
+            int end = Math.min(values.length, start + BATCH_SIZE);
+            long hashingStart = metrics != null ? metrics.startHashing() : 0;
+            for (int i = start; i < end; i++) {
+                sink.reset().putLong(values[i]);
+                createHashes(sink.getBuffer(), 0, sink.size(), numberOfHash, positions, (i - start) * numberOfHash);
+            }
+            if (metrics != null) {
+                metrics.stopHashing(hashingStart, end - start);
+            }
+            setBits(positions, (end - start) * numberOfHash);
+            numberOfElements += end - start;
+            if (metrics != null) {
+                metrics.recordAdds(end - start, numberOfSetBits);
+            }
+        }
+    }
+
+    /**
+     * The addBatch method enables you to insert many elements to Bloom Filter.
+     *
+     * Elements are processed in batches: hash functions of whole batch are created first and bits are set after that,
+     * so reading of memory for different elements can overlap.
+     *
+     * @param elements the bytes arrays of elements to be inserted to Bloom Filter.
+     */
+    public void addBatch(byte[][] elements) {
+        BloomFilterMetrics metrics = this.metrics;
+        int[] positions = new int[Math.min(elements.length, BATCH_SIZE) * numberOfHash];
+        for (int start = 0; start < elements.length; start += BATCH_SIZE) {
+            int end = Math.min(elements.length, start + BATCH_SIZE);
+            long hashingStart = metrics != null ? metrics.startHashing() : 0;
+            for (int i = start; i < end; i++) {
+                createHashes(elements[i], 0, elements[i].length, numberOfHash, positions, (i - start) * numberOfHash);
+            }
+            if (metrics != null) {
+                metrics.stopHashing(hashingStart, end - start);
+            }
+            setBits(positions, (end - start) * numberOfHash);
+            numberOfElements += end - start;
+            if (metrics != null) {
+                metrics.recordAdds(end - start, numberOfSetBits);
+            }
+        }
+    }
+
+    /**
+     * The mightContainsBatch method enables you to check many long values at once.
+     *
+     * Values are processed in batches: hash functions of whole batch are created first and all bits are read after that,
+     * so reading of memory for different values can overlap.
+     *
+     * @param values  the values to be checked.
+     * @param results array for results, i-th result is True if Bloom Filter can contains i-th value.
+     */
+    public void mightContainsBatch(long[] values, boolean[] results) {
+        if (results.length < values.length) {
+            throw new IllegalArgumentException("Array of results is smaller than array of values!");
+        }
+        BloomFilterMetrics metrics = this.metrics;
+        int[] positions = new int[Math.min(values.length, BATCH_SIZE) * numberOfHash];
+        ByteSink sink = ByteSink.threadSink();
+        for (int start = 0; start < values.length; start += BATCH_SIZE) {
+            int end = Math.min(values.length, start + BATCH_SIZE);
+            long hashingStart = metrics != null ? metrics.startHashing() : 0;
+            for (int i = start; i < end; i++) {
+                sink.reset().putLong(values[i]);
+                createHashes(sink.getBuffer(), 0, sink.size(), numberOfHash, positions, (i - start) * numberOfHash);
+            }
+            if (metrics != null) {
+                metrics.stopHashing(hashingStart, end - start);
+            }
+            int numberOfPositives = getBits(positions, end - start, results, start);
+            if (metrics != null) {
+                metrics.recordQueries(end - start, numberOfPositives);
+            }
+        }
+    }
+
+    /**
+     * The mightContainsBatch method enables you to check many elements at once.
+     *
+     * Elements are processed in batches: hash functions of whole batch are created first and all bits are read after that,
+     * so reading of memory for different elements can overlap.
+     *
+     * @param elements the bytes arrays of elements to be checked.
+     * @param results  array for results, i-th result is True if Bloom Filter can contains i-th element.
+     */
+    public void mightContainsBatch(byte[][] elements, boolean[] results) {
+        if (results.length < elements.length) {
+            throw new IllegalArgumentException("Array of results is smaller than array of elements!");
+        }
+        BloomFilterMetrics metrics = this.metrics;
+        int[] positions = new int[Math.min(elements.length, BATCH_SIZE) * numberOfHash];
+        for (int start = 0; start < elements.length; start += BATCH_SIZE) {
+            int end = Math.min(elements.length, start + BATCH_SIZE);
+            long hashingStart = metrics != null ? metrics.startHashing() : 0;
+            for (int i = start; i < end; i++) {
+                createHashes(elements[i], 0, elements[i].length, numberOfHash, positions, (i - start) * numberOfHash);
+            }
+            if (metrics != null) {
+                metrics.stopHashing(hashingStart, end - start);
+            }
+            int numberOfPositives = getBits(positions, end - start, results, start);
+            if (metrics != null) {
+                metrics.recordQueries(end - start, numberOfPositives);
+            }
+        }
+    }
+
+    /**
+     * The mightContainsBatch method enables you to check many long values at once.
+     *
+     * @param values the values to be checked.
+     * @return set with i-th bit set if Bloom Filter can contains i-th value.
+     */
+    public BitSet mightContainsBatch(long[] values) {
+        boolean[] results = new boolean[values.length];
+        mightContainsBatch(values, results);
+        return toBitSet(results);
+    }
+
+    /**
+     * The mightContainsBatch method enables you to check many elements at once.
+     *
+     * @param elements the bytes arrays of elements to be checked.
+     * @return set with i-th bit set if Bloom Filter can contains i-th element.
+     */
+    public BitSet mightContainsBatch(byte[][] elements) {
+        boolean[] results = new boolean[elements.length];
+        mightContainsBatch(elements, results);
+        return toBitSet(results);
+    }
+
+    private void setBits(int[] positions, int numberOfPositions) {
+        for (int i = 0; i < numberOfPositions; i++) {
+            if (bitArray.set(positions[i])) {
+                numberOfSetBits++;
+            }
+        }
+    }
+
+    private int getBits(int[] positions, int numberOfElements, boolean[] results, int resultsOffset) {
+        int position = 0;
+        int numberOfPositives = 0;
+        for (int i = 0; i < numberOfElements; i++) {
+            boolean result = true;
+            for (int j = 0; j < numberOfHash; j++) {
+                result &= bitArray.get(positions[position++]);
+            }
+            results[resultsOffset + i] = result;
+            if (result) {
+                numberOfPositives++;
+            }
+        }
+        return numberOfPositives;
+    }
+
+    private static BitSet toBitSet(boolean[] results) {
+        BitSet bitSet = new BitSet(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    /**
+     * The createHashes method enables you to create hash functions.
+     *
+     * @param bytes        the byte array contains data.
+     * @param numberOfHash number of hash function.
+     * @return int array with result hashes.
+     */
+    int[] createHashes(byte[] bytes, int numberOfHash) {
+        return createHashes(bytes, 0, bytes.length, numberOfHash);
+    }
+
     /**
      * The createHashes method enables you to create hash functions.
      *
      * @param bytes        the byte array contains data.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
      * @param numberOfHash number of hash function.
      * @return int array with result hashes.
      */
-    abstract int[] createHashes(byte[] bytes, int numberOfHash);
+    int[] createHashes(byte[] bytes, int offset, int length, int numberOfHash) {
+        int[] hashes = new int[numberOfHash];
+        createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+        return hashes;
+    }
+
+    /**
+     * The createHashes method enables you to create hash functions and write them to existing array.
+     *
+     * @param bytes        the byte array contains data.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
+     * @param numberOfHash number of hash function.
+     * @param hashes       array for result hashes.
+     * @param hashesOffset the offset of the first result hash in array.
+     */
+    abstract void createHashes(byte[] bytes, int offset, int length, int numberOfHash, int[] hashes, int hashesOffset);
+
+    /**
+     * The getHashStrategies method enables you to get hash strategies used by Bloom Filter.
+     *
+     * @return hash strategies, single one if every hash function is computed by the same strategy.
+     */
+    abstract HashStrategy[] getHashStrategies();
 
     /**
      * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
@@ -207,6 +621,9 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
      * @return probability of false positives based on parameter.
      */
     public double getProbabilityOfFalsePositives(int numberOfElements) {
+        if (partitioned) {
+            return Math.pow(-Math.expm1(numberOfElements * Math.log1p(-1.0 / getHashRange())), numberOfHash);
+        }
         return Math.pow((1 - Math.exp(-numberOfHash * numberOfElements / (double) size)), numberOfHash);
     }
 
@@ -224,7 +641,53 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
      */
     public void clear() {
         numberOfElements = 0;
-        bitSet.clear();
+        numberOfSetBits = 0;
+        bitArray.clear();
+        BloomFilterMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordClear();
+        }
+    }
+
+    /**
+     * The enableMetrics method enables you to collect metrics of Bloom Filter
+     * with default saturation threshold {@link BloomFilterMetrics#DEFAULT_SATURATION_THRESHOLD}.
+     *
+     * @return new metrics of Bloom Filter.
+     */
+    public BloomFilterMetrics enableMetrics() {
+        return enableMetrics(BloomFilterMetrics.DEFAULT_SATURATION_THRESHOLD);
+    }
+
+    /**
+     * The enableMetrics method enables you to collect metrics of Bloom Filter.
+     *
+     * Metrics are not collected by default and Bloom Filter without metrics checks only, that metrics are disabled.
+     * Previous metrics are replaced.
+     *
+     * @param saturationThreshold ratio of set bits, which raises saturation alarm.
+     * @return new metrics of Bloom Filter.
+     */
+    public BloomFilterMetrics enableMetrics(double saturationThreshold) {
+        BloomFilterMetrics metrics = new BloomFilterMetrics(this, saturationThreshold);
+        this.metrics = metrics;
+        return metrics;
+    }
+
+    /**
+     * The disableMetrics method enables you to stop collecting metrics of Bloom Filter.
+     */
+    public void disableMetrics() {
+        this.metrics = null;
+    }
+
+    /**
+     * The getMetrics method enables you to get metrics of Bloom Filter.
+     *
+     * @return metrics of Bloom Filter or null, if metrics are disabled.
+     */
+    public BloomFilterMetrics getMetrics() {
+        return this.metrics;
     }
 
     /**
@@ -274,7 +737,7 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
         if (numberOfElements <= 0) {
             throw new Exception("Bloom Filter is empty!");
         }
-        return this.size / numberOfElements;
+        return this.size / (double) numberOfElements;
     }
 
     /**
@@ -286,18 +749,643 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
         return this.numberOfHash;
     }
 
+    /**
+     * The getIndexMapping method enables you to get method of mapping hash values to positions of bits.
+     *
+     * @return method of mapping hash values to positions of bits.
+     */
+    public IndexMapping getIndexMapping() {
+        return this.indexMapping;
+    }
+
+    /**
+     * The setIndexMapping method enables you to change method of mapping hash values to positions of bits.
+     *
+     * Mapping can be changed only when Bloom Filter is empty.
+     * Use {@link IndexMapping#LEGACY_MODULO} to read filters created with the previous mapping.
+     *
+     * @param indexMapping method of mapping hash values to positions of bits.
+     */
+    public void setIndexMapping(IndexMapping indexMapping) {
+        if (indexMapping == null) {
+            throw new IllegalArgumentException("Index mapping cannot be null!");
+        }
+        if (indexMapping == IndexMapping.MASK && Integer.bitCount(getHashRange()) != 1) {
+            throw new IllegalArgumentException(partitioned ? "Size of partition should be a power of two!"
+                    : "Size of Bloom Filter should be a power of two!");
+        }
+        if (hasSetBits()) {
+            throw new IllegalStateException("Index mapping cannot be changed when Bloom Filter is not empty!");
+        }
+        this.indexMapping = indexMapping;
+    }
+
+    /**
+     * The isPartitioned method enables you to check if bit array is divided into partitions.
+     *
+     * @return True if each hash function sets bits in its own partition.
+     * False if all hash functions share the whole bit array.
+     */
+    public boolean isPartitioned() {
+        return this.partitioned;
+    }
+
+    /**
+     * The setPartitioned method enables you to divide bit array into partitions.
+     *
+     * Partitioned bit array is divided into k equal partitions of floor(m/k) bits
+     * (the last m mod k bits are not used) and i-th hash function sets bits in i-th partition only.
+     * Each element sets exactly k different bits then, and partitions can be read and changed independently.
+     * Positions inside partition are generated by the same hashing method as in the whole bit array.
+     *
+     * Layout can be changed only when Bloom Filter is empty.
+     *
+     * @param partitioned true if bit array should be divided into partitions.
+     */
+    public void setPartitioned(boolean partitioned) {
+        if (partitioned && size / numberOfHash == 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should not be less than number of hash functions!");
+        }
+        if (partitioned && indexMapping == IndexMapping.MASK && Integer.bitCount(size / numberOfHash) != 1) {
+            throw new IllegalArgumentException("Size of partition should be a power of two!");
+        }
+        if (hasSetBits()) {
+            throw new IllegalStateException("Layout cannot be changed when Bloom Filter is not empty!");
+        }
+        this.partitioned = partitioned;
+    }
+
+    /**
+     * The getHashRange method enables you to get number of positions available for single hash function.
+     *
+     * @return size of partition if Bloom Filter is partitioned, size of Bloom Filter otherwise.
+     */
+    int getHashRange() {
+        return partitioned ? size / numberOfHash : size;
+    }
+
+    /**
+     * The createHashes method enables you to create positions of bits by hashing method,
+     * moving i-th position to i-th partition if Bloom Filter is partitioned.
+     *
+     * @param hashingMethod method of generating positions of bits.
+     * @param valueA        first hash value, less than {@link #getHashRange()}.
+     * @param valueB        second hash value, less than {@link #getHashRange()}.
+     * @param valueC        third hash value, less than {@link #getHashRange()}, used by triple hashing only.
+     * @param numberOfHash  number of hash function.
+     * @param hashes        array for result hashes.
+     * @param hashesOffset  the offset of the first result hash in array.
+     */
+    void createHashes(HashingMethod hashingMethod, int valueA, int valueB, int valueC, int numberOfHash,
+                      int[] hashes, int hashesOffset) {
+        int range = getHashRange();
+        hashingMethod.createHashes(valueA, valueB, valueC, range, numberOfHash, hashes, hashesOffset);
+        if (partitioned) {
+            for (int i = 0; i < numberOfHash; i++) {
+                hashes[hashesOffset + i] += i * range;
+            }
+        }
+    }
+
+    /**
+     * The getSeed method enables you to get seed of hash functions.
+     *
+     * @return seed of hash functions.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * The setSeed method enables you to change seed of hash functions.
+     *
+     * Seed can be changed only when Bloom Filter is empty.
+     *
+     * @param seed seed of hash functions.
+     */
+    public void setSeed(long seed) {
+        if (hasSetBits()) {
+            throw new IllegalStateException("Seed cannot be changed when Bloom Filter is not empty!");
+        }
+        this.seed = seed;
+    }
+
+    /**
+     * The getBitArray method enables you to get storage of bits.
+     *
+     * @return storage of bits.
+     */
+    public BitArray getBitArray() {
+        return this.bitArray;
+    }
+
+    /**
+     * The setBitArray method enables you to change storage of bits, e.g. to keep bits outside of Java heap
+     * or in memory-mapped file.
+     *
+     * Storage can be changed only when Bloom Filter is empty. Bits already set in new storage are kept,
+     * so filter saved in file can be opened without inserting elements again.
+     * Number of elements is estimated from number of set bits,
+     * use {@link #setBitArray(BitArray, int)} if it is known.
+     *
+     * @param bitArray storage of bits with the same number of words as Bloom Filter.
+     */
+    public void setBitArray(BitArray bitArray) {
+        checkBitArray(bitArray);
+        this.bitArray = bitArray;
+        this.numberOfSetBits = bitArray.cardinality();
+        this.numberOfElements = numberOfSetBits == 0 ? 0
+                : (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(getEstimatedNumberOfElements())));
+    }
+
+    /**
+     * The setBitArray method enables you to change storage of bits, which already contains elements.
+     *
+     * Storage can be changed only when Bloom Filter is empty. Bits already set in new storage are kept.
+     *
+     * @param bitArray         storage of bits with the same number of words as Bloom Filter.
+     * @param numberOfElements number of elements inserted to storage.
+     */
+    public void setBitArray(BitArray bitArray, int numberOfElements) {
+        if (numberOfElements < 0) {
+            throw new IllegalArgumentException("Number of elements cannot be negative!");
+        }
+        checkBitArray(bitArray);
+        this.bitArray = bitArray;
+        this.numberOfSetBits = bitArray.cardinality();
+        this.numberOfElements = numberOfElements;
+    }
+
+    private void checkBitArray(BitArray bitArray) {
+        if (bitArray == null) {
+            throw new IllegalArgumentException("Bit array cannot be null!");
+        }
+        if (bitArray.size() < size) {
+            throw new IllegalArgumentException("Bit array is smaller than Bloom Filter!");
+        }
+        if (bitArray.getNumberOfWords() != (size + 63L) >>> 6) {
+            throw new IllegalArgumentException("Bit array should have the same number of words as Bloom Filter!");
+        }
+        if (hasSetBits()) {
+            throw new IllegalStateException("Bit array cannot be changed when Bloom Filter is not empty!");
+        }
+    }
+
+    /**
+     * The hasSetBits method enables you to check if any bit is set, so hash functions and storage cannot be changed.
+     *
+     * @return True if at least one bit is set.
+     */
+    private boolean hasSetBits() {
+        return numberOfSetBits != 0 || numberOfElements != 0;
+    }
+
+    /**
+     * The getFunnel method enables you to get funnel, which writes elements as bytes.
+     *
+     * @return funnel of elements.
+     */
+    public Funnel<? super E> getFunnel() {
+        return this.funnel;
+    }
+
+    /**
+     * The setFunnel method enables you to change funnel, which writes elements as bytes.
+     *
+     * Funnel can be changed only when Bloom Filter is empty. The writeTo method saves only, if default funnel,
+     * string funnel or own funnel is used, so own funnel should be passed to readFrom method.
+     * Use {@link Funnels#stringFunnel()} for filters, which were created when elements were always hashed as strings.
+     *
+     * @param funnel funnel of elements.
+     */
+    public void setFunnel(Funnel<? super E> funnel) {
+        if (funnel == null) {
+            throw new IllegalArgumentException("Funnel cannot be null!");
+        }
+        if (hasSetBits()) {
+            throw new IllegalStateException("Funnel cannot be changed when Bloom Filter is not empty!");
+        }
+        this.funnel = funnel;
+    }
+
     /**
      * The getValueFromGeneratedHash method enables you to get int value from created hash.
      *
      * @param data         data to hash.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
      * @param hashFunction hash function.
+     * @param seedOffset   offset added to seed of Bloom Filter, different for each hash function.
      * @return int value from hash.
      */
-    int getValueFromGeneratedHash(byte[] data, MessageDigest hashFunction) {
-        byte[] resultHashFunction;
-        hashFunction.update(data);
-        resultHashFunction = hashFunction.digest();
-        return Math.abs(new BigInteger(resultHashFunction).mod(BigInteger.valueOf(size)).intValue());
+    int getValueFromGeneratedHash(byte[] data, int offset, int length, HashStrategy hashFunction, int seedOffset) {
+        if (indexMapping == IndexMapping.LEGACY_MODULO && hashFunction instanceof MessageDigestHashStrategy) {
+            byte[] resultHashFunction = ((MessageDigestHashStrategy) hashFunction).digest(data, offset, length);
+            return Math.abs(new BigInteger(resultHashFunction).mod(BigInteger.valueOf(getHashRange())).intValue());
+        }
+        return indexMapping.map(hashFunction.hash(data, offset, length, seed + seedOffset), getHashRange());
+    }
+
+    /**
+     * The getValuesFromGeneratedHash method enables you to get the first two int values from single hash strategy.
+     *
+     * Both values are taken from one call of {@link HashStrategy#hashPair}, so strategy computing 128-bit hash
+     * hashes data once. Bloom Filters read from older binary format compute each value separately.
+     *
+     * @param data         data to hash.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
+     * @param hashFunction hash function.
+     * @return the first value in upper 32 bits and the second value in lower 32 bits.
+     */
+    long getValuesFromGeneratedHash(byte[] data, int offset, int length, HashStrategy hashFunction) {
+        int valueA, valueB;
+        if (!pairedHashValues || indexMapping == IndexMapping.LEGACY_MODULO) {
+            valueA = getValueFromGeneratedHash(data, offset, length, hashFunction, 0);
+            valueB = getValueFromGeneratedHash(data, offset, length, hashFunction, 1);
+        } else {
+            long[] hashPair = ByteSink.threadHashPair();
+            hashFunction.hashPair(data, offset, length, seed, hashPair);
+            valueA = indexMapping.map(hashPair[0], getHashRange());
+            valueB = indexMapping.map(hashPair[1], getHashRange());
+        }
+        return ((long) valueA << 32) | (valueB & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The isCompatible method enables you to check if Bloom Filters can be combined.
+     *
+     * Bloom Filters are compatible, if they are of the same type, have the same size, number of hash functions,
+     * index mapping, seed, hash strategies and funnel, so each element sets the same bits in both of them.
+     *
+     * @param other Bloom Filter to be checked.
+     * @return True if Bloom Filters are compatible.
+     * False otherwise.
+     */
+    public boolean isCompatible(AbstractBloomFilter<?> other) {
+        return other != null
+                && getClass() == other.getClass()
+                && size == other.size
+                && numberOfHash == other.numberOfHash
+                && indexMapping == other.indexMapping
+                && partitioned == other.partitioned
+                && pairedHashValues == other.pairedHashValues
+                && seed == other.seed
+                && funnel.equals(other.funnel)
+                && Arrays.equals(getHashStrategies(), other.getHashStrategies())
+                && bitArray.getNumberOfWords() == other.bitArray.getNumberOfWords();
+    }
+
+    private void checkCompatible(AbstractBloomFilter<?> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Bloom Filter cannot be null!");
+        }
+        if (!isCompatible(other)) {
+            throw new IllegalArgumentException("Bloom Filters are not compatible!");
+        }
+    }
+
+    /**
+     * The mergeFrom method enables you to insert all elements of other Bloom Filter to this Bloom Filter.
+     *
+     * Number of elements is estimated from number of set bits after merging, see {@link #union(AbstractBloomFilter)}.
+     *
+     * @param other compatible Bloom Filter.
+     */
+    public void mergeFrom(AbstractBloomFilter<E> other) {
+        checkCompatible(other);
+        BitArrays.or(bitArray, other.bitArray);
+        updateFromBits();
+    }
+
+    /**
+     * The union method enables you to create Bloom Filter, which contains elements of both Bloom Filters.
+     *
+     * Result is the same as Bloom Filter with all elements inserted. Number of elements of result
+     * is estimated from number of set bits:
+     * n = -(m/k)ln(1-X/m),
+     * where m is size of Bloom Filter, k is number of hash functions, X is number of set bits.
+     *
+     * @param other compatible Bloom Filter.
+     * @return new Bloom Filter.
+     * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+     */
+    public AbstractBloomFilter<E> union(AbstractBloomFilter<E> other) {
+        checkCompatible(other);
+        AbstractBloomFilter<E> result = BloomFilterFormat.createEmptyCopy(this);
+        BitArrays.or(result.bitArray, bitArray, other.bitArray);
+        result.updateFromBits();
+        return result;
+    }
+
+    /**
+     * The intersect method enables you to create Bloom Filter, which contains common elements of both Bloom Filters.
+     *
+     * Result may have more bits set than Bloom Filter with only common elements inserted,
+     * so its probability of false positives is not smaller than probability of each Bloom Filter.
+     * Number of elements of result is estimated from number of set bits, see {@link #union(AbstractBloomFilter)}.
+     *
+     * @param other compatible Bloom Filter.
+     * @return new Bloom Filter.
+     * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+     */
+    public AbstractBloomFilter<E> intersect(AbstractBloomFilter<E> other) {
+        checkCompatible(other);
+        AbstractBloomFilter<E> result = BloomFilterFormat.createEmptyCopy(this);
+        BitArrays.or(result.bitArray, bitArray);
+        BitArrays.and(result.bitArray, other.bitArray);
+        result.updateFromBits();
+        return result;
+    }
+
+    /**
+     * The merge method enables you to create Bloom Filter, which contains elements of all Bloom Filters.
+     *
+     * @param filters compatible Bloom Filters, at least one.
+     * @param <E>     the type of elements in Bloom Filters.
+     * @return new Bloom Filter.
+     * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+     */
+    public static <E> AbstractBloomFilter<E> merge(Collection<? extends AbstractBloomFilter<E>> filters) {
+        if (filters == null || filters.isEmpty()) {
+            throw new IllegalArgumentException("Collection of Bloom Filters cannot be empty!");
+        }
+        AbstractBloomFilter<E> first = filters.iterator().next();
+        BitArray[] bitArrays = new BitArray[filters.size()];
+        int i = 0;
+        for (AbstractBloomFilter<E> filter : filters) {
+            first.checkCompatible(filter);
+            bitArrays[i++] = filter.bitArray;
+        }
+        AbstractBloomFilter<E> result = BloomFilterFormat.createEmptyCopy(first);
+        BitArrays.or(result.bitArray, bitArrays);
+        result.updateFromBits();
+        return result;
+    }
+
+    /**
+     * The merge method enables you to create Bloom Filter, which contains elements of all Bloom Filters.
+     *
+     * @param filters compatible Bloom Filters, at least one.
+     * @param <E>     the type of elements in Bloom Filters.
+     * @return new Bloom Filter.
+     */
+    @SafeVarargs
+    public static <E> AbstractBloomFilter<E> merge(AbstractBloomFilter<E>... filters) {
+        List<AbstractBloomFilter<E>> list = new ArrayList<AbstractBloomFilter<E>>();
+        if (filters != null) {
+            for (AbstractBloomFilter<E> filter : filters) {
+                list.add(filter);
+            }
+        }
+        return merge(list);
+    }
+
+    private void updateFromBits() {
+        numberOfSetBits = bitArray.cardinality();
+        numberOfElements = (int) Math.min(Integer.MAX_VALUE, Math.round(getEstimatedNumberOfElements()));
+        BloomFilterMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordAdds(0, numberOfSetBits);
+        }
+    }
+
+    /**
+     * The getNumberOfSetBits method enables you to get number of set bits.
+     *
+     * Number of set bits is updated when elements are inserted, so this method does not scan bits.
+     *
+     * @return number of set bits.
+     */
+    public long getNumberOfSetBits() {
+        return this.numberOfSetBits;
+    }
+
+    /**
+     * The getEstimatedNumberOfElements method enables you to estimate number of distinct inserted elements
+     * from number of set bits (Swamidass-Baldi formula):
+     * n = -(m/k)ln(1-X/m),
+     * where m is size of Bloom Filter, k is number of hash functions, X is number of set bits.
+     *
+     * Unlike {@link #getNumberOfElements()}, elements inserted many times are counted once.
+     *
+     * @return estimated number of distinct elements, infinity if all bits are set.
+     */
+    public double getEstimatedNumberOfElements() {
+        return estimateNumberOfElements(numberOfSetBits, size, numberOfHash);
+    }
+
+    /**
+     * The getEstimatedProbabilityOfFalsePositives method enables you to get probability of false positives
+     * from number of set bits:
+     * p = (X/m)^k,
+     * where m is size of Bloom Filter, k is number of hash functions, X is number of set bits.
+     *
+     * Unlike {@link #getCurrentProbabilityOfFalsePositives()}, it is not changed by inserting the same element again.
+     *
+     * @return estimated probability of false positives.
+     */
+    public double getEstimatedProbabilityOfFalsePositives() {
+        return Math.pow((double) numberOfSetBits / size, numberOfHash);
+    }
+
+    /**
+     * The getEstimatedNumberOfElementsOfUnion method enables you to estimate number of distinct elements
+     * inserted to any of Bloom Filters, from number of bits set in any of them.
+     *
+     * @param other compatible Bloom Filter.
+     * @return estimated number of elements of union.
+     */
+    public double getEstimatedNumberOfElementsOfUnion(AbstractBloomFilter<E> other) {
+        checkCompatible(other);
+        long numberOfSetBitsOfUnion = 0;
+        for (long i = 0; i < bitArray.getNumberOfWords(); i++) {
+            numberOfSetBitsOfUnion += Long.bitCount(bitArray.getWord(i) | other.bitArray.getWord(i));
+        }
+        return estimateNumberOfElements(numberOfSetBitsOfUnion, size, numberOfHash);
+    }
+
+    /**
+     * The getEstimatedNumberOfElementsOfIntersection method enables you to estimate number of distinct elements
+     * inserted to both Bloom Filters:
+     * n(A and B) = n(A) + n(B) - n(A or B).
+     *
+     * @param other compatible Bloom Filter.
+     * @return estimated number of elements of intersection.
+     */
+    public double getEstimatedNumberOfElementsOfIntersection(AbstractBloomFilter<E> other) {
+        double union = getEstimatedNumberOfElementsOfUnion(other);
+        return Math.max(0, getEstimatedNumberOfElements() + other.getEstimatedNumberOfElements() - union);
+    }
+
+    /**
+     * The estimateNumberOfElements method enables you to estimate number of distinct elements from number of set bits:
+     * n = -(m/k)ln(1-X/m),
+     * where m is size of Bloom Filter, k is number of hash functions, X is number of set bits.
+     *
+     * @param numberOfSetBits number of set bits.
+     * @param size            size of Bloom Filter.
+     * @param numberOfHash    number of hash functions.
+     * @return estimated number of elements, infinity if all bits are set.
+     */
+    static double estimateNumberOfElements(long numberOfSetBits, long size, int numberOfHash) {
+        return -((double) size / numberOfHash) * Math.log1p(-(double) numberOfSetBits / size);
+    }
+
+    /**
+     * The getSerializedSize method enables you to get number of bytes written by writeTo method.
+     *
+     * @return number of bytes.
+     */
+    public long getSerializedSize() {
+        return BloomFilterFormat.getSerializedSize(this);
+    }
+
+    /**
+     * The writeTo method enables you to write Bloom Filter to stream in compact binary format.
+     *
+     * The format contains header with parameters of Bloom Filter followed by raw 64-bit words of bits,
+     * see {@link BloomFilterFormat}.
+     *
+     * @param outputStream output stream.
+     * @throws IOException when Bloom Filter cannot be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        BloomFilterFormat.writeTo(this, outputStream);
+    }
+
+    /**
+     * The writeTo method enables you to write Bloom Filter to buffer in compact binary format.
+     *
+     * @param buffer buffer with at least {@link #getSerializedSize()} bytes remaining.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        BloomFilterFormat.writeTo(this, buffer);
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter written by writeTo method.
+     *
+     * @param inputStream input stream.
+     * @param <E>         the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when Bloom Filter cannot be read.
+     */
+    public static <E> AbstractBloomFilter<E> readFrom(InputStream inputStream) throws IOException {
+        return BloomFilterFormat.readFrom(inputStream, false);
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter written by writeTo method.
+     *
+     * @param buffer buffer with Bloom Filter, its position is moved after the filter.
+     * @param <E>    the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when buffer does not contain valid Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> readFrom(ByteBuffer buffer) throws IOException {
+        return BloomFilterFormat.readFrom(buffer, false);
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter written by writeTo method with own funnel.
+     *
+     * @param inputStream input stream.
+     * @param funnel      funnel of elements, which was used to create Bloom Filter.
+     * @param <E>         the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when Bloom Filter cannot be read.
+     */
+    public static <E> AbstractBloomFilter<E> readFrom(InputStream inputStream, Funnel<? super E> funnel) throws IOException {
+        if (funnel == null) {
+            throw new IllegalArgumentException("Funnel cannot be null!");
+        }
+        AbstractBloomFilter<E> filter = BloomFilterFormat.readFrom(inputStream, true);
+        filter.funnel = funnel;
+        return filter;
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter written by writeTo method with own funnel.
+     *
+     * @param buffer buffer with Bloom Filter, its position is moved after the filter.
+     * @param funnel funnel of elements, which was used to create Bloom Filter.
+     * @param <E>    the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when buffer does not contain valid Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> readFrom(ByteBuffer buffer, Funnel<? super E> funnel) throws IOException {
+        if (funnel == null) {
+            throw new IllegalArgumentException("Funnel cannot be null!");
+        }
+        AbstractBloomFilter<E> filter = BloomFilterFormat.readFrom(buffer, true);
+        filter.funnel = funnel;
+        return filter;
+    }
+
+    /**
+     * The freeze method enables you to create immutable copy of Bloom Filter, which can be checked by many threads.
+     *
+     * Bits are copied, so Bloom Filter can be still changed and frozen again as the next version.
+     *
+     * @return immutable Bloom Filter with the same elements.
+     * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+     */
+    public ImmutableBloomFilter<E> freeze() {
+        AbstractBloomFilter<E> copy = BloomFilterFormat.createEmptyCopy(this);
+        long numberOfWords = copy.bitArray.getNumberOfWords();
+        for (long i = 0; i < numberOfWords; i++) {
+            copy.bitArray.setWord(i, bitArray.getWord(i));
+        }
+        copy.numberOfElements = numberOfElements;
+        copy.numberOfSetBits = numberOfSetBits;
+        return new ImmutableBloomFilter<E>(copy, ((LongArrayBitArray) copy.bitArray).getWords());
+    }
+
+    Object writeReplace() throws ObjectStreamException {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream inputStream) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialization proxy is required!");
+    }
+
+    /**
+     * Serialized form of Bloom Filter, which writes it in compact binary format followed by its funnel.
+     */
+    private static final class SerializationProxy implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient AbstractBloomFilter<?> filter;
+
+        private SerializationProxy(AbstractBloomFilter<?> filter) {
+            this.filter = filter;
+        }
+
+        private void writeObject(ObjectOutputStream outputStream) throws IOException {
+            outputStream.defaultWriteObject();
+            filter.writeTo(outputStream);
+            outputStream.writeObject(filter.funnel);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+            inputStream.defaultReadObject();
+            AbstractBloomFilter<Object> readFilter = BloomFilterFormat.readFrom(inputStream, true);
+            try {
+                readFilter.funnel = (Funnel<Object>) inputStream.readObject();
+            } catch (OptionalDataException error) {
+                if (!error.eof) {
+                    throw error;
+                }
+            }
+            filter = readFilter;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return filter;
+        }
     }
 
     @Override
@@ -312,7 +1400,13 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
         if (numberOfElements != that.numberOfElements) return false;
         if (size != that.size) return false;
         if (Double.compare(that.bitsPerElement, bitsPerElement) != 0) return false;
-        return bitSet != null ? bitSet.equals(that.bitSet) : that.bitSet == null;
+        if (indexMapping != that.indexMapping) return false;
+        if (partitioned != that.partitioned) return false;
+        if (bitArray.getNumberOfWords() != that.bitArray.getNumberOfWords()) return false;
+        for (long i = 0; i < bitArray.getNumberOfWords(); i++) {
+            if (bitArray.getWord(i) != that.bitArray.getWord(i)) return false;
+        }
+        return true;
 
     }
 
@@ -320,13 +1414,19 @@ public abstract class AbstractBloomFilter<E> implements BloomFilter<E> {
     public int hashCode() {
         int result;
         long temp;
-        result = bitSet != null ? bitSet.hashCode() : 0;
+        result = 0;
+        for (long i = 0; i < bitArray.getNumberOfWords(); i++) {
+            temp = bitArray.getWord(i);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+        }
         result = 31 * result + numberOfHash;
         result = 31 * result + expectedNumberOfElements;
         result = 31 * result + numberOfElements;
         result = 31 * result + size;
         temp = Double.doubleToLongBits(bitsPerElement);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + indexMapping.hashCode();
+        result = 31 * result + (partitioned ? 1 : 0);
         return result;
     }
 
@@ -0,0 +1,515 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writer, which inserts elements to Bloom Filter asynchronously.
+ *
+ * Producers put elements into bounded lock-free ring buffer and single background thread inserts them in batches,
+ * so producers pay only for putting element into ring buffer. When it is full, {@link BackpressurePolicy} is applied.
+ * Elements are visible in Bloom Filter after {@link #flush()}.
+ * Exception thrown by Bloom Filter in background thread is reported by the next {@link #flush()} or {@link #close()}.
+ * Error thrown by Bloom Filter stops background thread, so waiting elements are dropped and writer rejects
+ * new elements.
+ *
+ * Bloom Filter should be changed and checked only by writer, because writer guards it by its own lock.
+ *
+ * @param <E> - the type of elements in Bloom Filter.
+ *
+ * @author Damian Stygar
+ */
+public final class AsyncBloomFilterWriter<E> implements Closeable {
+
+    /**
+     * Default number of elements inserted by single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FLUSH_CHECK_MILLIS = 10;
+
+    private final BloomFilter<E> filter;
+    private final RingBuffer queue;
+    private final int batchSize;
+    private final BackpressurePolicy backpressurePolicy;
+
+    private final Object lock = new Object();
+    private final LongAdder numberOfDropped = new LongAdder();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+    private final Thread drainer;
+    private volatile boolean closed;
+    private volatile boolean drainerWaiting;
+    private volatile Throwable stopCause;
+
+    /**
+     * Writer constructor, which blocks producers when queue is full.
+     *
+     * @param filter   Bloom Filter to be changed.
+     * @param capacity maximum number of elements waiting for insertion.
+     */
+    public AsyncBloomFilterWriter(BloomFilter<E> filter, int capacity) {
+        this(filter, capacity, DEFAULT_BATCH_SIZE, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * Writer constructor.
+     *
+     * @param filter             Bloom Filter to be changed.
+     * @param capacity           maximum number of elements waiting for insertion.
+     * @param batchSize          maximum number of elements inserted by single batch.
+     * @param backpressurePolicy policy applied when queue is full.
+     */
+    public AsyncBloomFilterWriter(BloomFilter<E> filter, int capacity, int batchSize,
+                                  BackpressurePolicy backpressurePolicy) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Bloom Filter cannot be null!");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be greater than 0!");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be greater than 0!");
+        }
+        if (backpressurePolicy == null) {
+            throw new IllegalArgumentException("Backpressure policy cannot be null!");
+        }
+        this.filter = filter;
+        this.queue = new RingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.backpressurePolicy = backpressurePolicy;
+        this.drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "bloom-filter-writer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * The add method enables you to put element into queue of elements to be inserted.
+     *
+     * Producers do not take any lock. Producer, which puts element while writer is being closed,
+     * inserts remaining elements itself, so every accepted element is inserted.
+     *
+     * @param element an element to be inserted.
+     * @return True if element was accepted.
+     * False if element was dropped, because queue is full.
+     */
+    public boolean add(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null!");
+        }
+        checkState();
+        if (!queue.offer(element)) {
+            switch (backpressurePolicy) {
+                case DROP:
+                    numberOfDropped.increment();
+                    return false;
+                case CALLER_RUNS:
+                    synchronized (lock) {
+                        filter.add(element);
+                    }
+                    return true;
+                default:
+                    put(element);
+            }
+        }
+        afterPut();
+        return true;
+    }
+
+    /**
+     * The flush method enables you to wait until all elements accepted before are inserted to Bloom Filter.
+     *
+     * Exception thrown by Bloom Filter since the last flush is reported once and cleared.
+     */
+    public void flush() {
+        checkState();
+        FlushBarrier barrier = new FlushBarrier();
+        put(barrier);
+        afterPut();
+        try {
+            while (!barrier.latch.await(FLUSH_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkStopped();
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for flush!", error);
+        }
+        checkStopped();
+        reportFailure();
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * Elements waiting in queue are not checked, call {@link #flush()} before to see own changes.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    public boolean mightContains(E element) {
+        synchronized (lock) {
+            return filter.mightContains(element);
+        }
+    }
+
+    /**
+     * The getNumberOfPending method enables you to get number of elements waiting for insertion.
+     *
+     * @return number of elements in queue.
+     */
+    public int getNumberOfPending() {
+        return queue.size();
+    }
+
+    /**
+     * The getNumberOfDropped method enables you to get number of elements dropped, because queue was full
+     * or background thread was stopped by error.
+     *
+     * @return number of dropped elements.
+     */
+    public long getNumberOfDropped() {
+        return numberOfDropped.sum();
+    }
+
+    /**
+     * The getBloomFilter method enables you to get Bloom Filter changed by writer.
+     *
+     * @return Bloom Filter.
+     */
+    public BloomFilter<E> getBloomFilter() {
+        return filter;
+    }
+
+    /**
+     * The close method enables you to insert all accepted elements and stop background thread.
+     *
+     * New elements are rejected at once. Elements put by producers, which were adding them during closing,
+     * are inserted by these producers.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(drainer);
+        awaitDrainer();
+        drainRemaining();
+        checkStopped();
+        reportFailure();
+    }
+
+    private void checkState() {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed!");
+        }
+        checkStopped();
+    }
+
+    private void checkStopped() {
+        Throwable stopCause = this.stopCause;
+        if (stopCause != null) {
+            throw new IllegalStateException("Writer was stopped by error of Bloom Filter!", stopCause);
+        }
+    }
+
+    private void reportFailure() {
+        RuntimeException failure = this.failure.getAndSet(null);
+        if (failure != null) {
+            throw new IllegalStateException("Cannot insert elements to Bloom Filter!", failure);
+        }
+    }
+
+    private void put(Object element) {
+        while (!queue.offer(element)) {
+            checkStopped();
+            LockSupport.parkNanos(this, PARK_NANOS);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for space in queue!");
+            }
+        }
+    }
+
+    /**
+     * The afterPut method enables you to wake up background thread and to insert remaining elements
+     * if writer was closed while element was put, so background thread could miss it.
+     */
+    private void afterPut() {
+        if (drainerWaiting) {
+            LockSupport.unpark(drainer);
+        }
+        if (closed) {
+            awaitDrainer();
+            drainRemaining();
+        }
+    }
+
+    private void awaitDrainer() {
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException error) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The drainRemaining method enables you to insert elements left in queue after background thread has finished.
+     * Lock makes the caller the only consumer of queue.
+     */
+    private void drainRemaining() {
+        List<Object> batch = new ArrayList<Object>(batchSize);
+        synchronized (lock) {
+            while (queue.drainTo(batch, batchSize) > 0) {
+                if (stopCause != null) {
+                    dropBatch(batch);
+                } else {
+                    insertBatch(batch);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<Object>(batchSize);
+        try {
+            while (true) {
+                if (queue.drainTo(batch, batchSize) > 0) {
+                    insertBatch(batch);
+                    batch.clear();
+                } else if (closed) {
+                    return;
+                } else {
+                    drainerWaiting = true;
+                    if (queue.isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    drainerWaiting = false;
+                }
+            }
+        } catch (Throwable error) {
+            stopCause = error;
+            batch.clear();
+            while (queue.drainTo(batch, batchSize) > 0) {
+                dropBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void dropBatch(List<Object> batch) {
+        for (Object item : batch) {
+            if (item instanceof FlushBarrier) {
+                ((FlushBarrier) item).latch.countDown();
+            } else {
+                numberOfDropped.increment();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void insertBatch(List<Object> batch) {
+        List<E> elements = new ArrayList<E>(batch.size());
+        for (Object item : batch) {
+            if (item instanceof FlushBarrier) {
+                insert(elements);
+                elements.clear();
+                ((FlushBarrier) item).latch.countDown();
+            } else {
+                elements.add((E) item);
+            }
+        }
+        insert(elements);
+    }
+
+    private void insert(List<E> elements) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (lock) {
+                if (filter instanceof AbstractBloomFilter) {
+                    addBatch((AbstractBloomFilter<E>) filter, elements);
+                } else {
+                    filter.addAll(elements);
+                }
+            }
+        } catch (RuntimeException error) {
+            failure.compareAndSet(null, error);
+        }
+    }
+
+    private static <E> void addBatch(AbstractBloomFilter<E> filter, List<E> elements) {
+        byte[][] bytes = new byte[elements.size()][];
+        for (int i = 0; i < bytes.length; i++) {
+            ByteSink sink = ByteSink.threadSink();
+            filter.funnel.funnel(elements.get(i), sink);
+            bytes[i] = Arrays.copyOf(sink.getBuffer(), sink.size());
+        }
+        filter.addBatch(bytes);
+    }
+
+    /**
+     * Policy applied when queue of elements is full.
+     */
+    public enum BackpressurePolicy {
+
+        /**
+         * Producer waits until there is space in queue.
+         */
+        BLOCK,
+
+        /**
+         * Element is dropped and counted.
+         */
+        DROP,
+
+        /**
+         * Producer inserts element to Bloom Filter itself.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Marker put into queue by flush, released when all elements before it are inserted.
+     */
+    private static final class FlushBarrier {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+    }
+
+    /**
+     * Bounded lock-free queue for many producers and single consumer.
+     *
+     * Each slot has sequence number, which tells if slot is free for producer of given position
+     * or filled for consumer of given position (D. Vyukov's bounded queue). Producers claim positions
+     * by compare-and-set of tail, consumer moves head without atomic update.
+     */
+    private static final class RingBuffer {
+
+        private final int capacity;
+        private final int length;
+        private final AtomicReferenceArray<Object> items;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        /**
+         * Ring buffer constructor.
+         *
+         * Sequence of filled slot cannot be equal to sequence of free slot, so there are at least two slots.
+         *
+         * @param capacity maximum number of items in ring buffer.
+         */
+        private RingBuffer(int capacity) {
+            this.capacity = capacity;
+            this.length = Math.max(2, capacity);
+            this.items = new AtomicReferenceArray<Object>(length);
+            this.sequences = new AtomicLongArray(length);
+            for (int i = 0; i < length; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        private boolean offer(Object item) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position % length);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (capacity < length && position - head >= capacity) {
+                        return false;
+                    }
+                    if (tail.compareAndSet(position, position + 1)) {
+                        items.lazySet(index, item);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                } else if (difference < 0) {
+                    return false;
+                }
+                position = tail.get();
+            }
+        }
+
+        /**
+         * The drainTo method enables consumer to move filled items to list.
+         *
+         * @param batch       list for items.
+         * @param maxElements maximum number of moved items.
+         * @return number of moved items.
+         */
+        private int drainTo(List<Object> batch, int maxElements) {
+            long position = head;
+            int count = 0;
+            while (count < maxElements) {
+                int index = (int) (position % length);
+                if (sequences.get(index) != position + 1) {
+                    break;
+                }
+                batch.add(items.get(index));
+                items.lazySet(index, null);
+                sequences.set(index, position + length);
+                position++;
+                count++;
+            }
+            head = position;
+            return count;
+        }
+
+        private boolean isEmpty() {
+            long position = head;
+            return sequences.get((int) (position % length)) != position + 1;
+        }
+
+        private int size() {
+            return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+        }
+    }
+}
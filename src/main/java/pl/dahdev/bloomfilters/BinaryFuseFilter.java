@@ -0,0 +1,664 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Implementation of binary fuse filter, which is immutable alternative to Bloom Filter for known set of elements.
+ *
+ * Each element is mapped to 3 positions in 3 consecutive segments of array of fingerprints.
+ * Fingerprints are chosen during building, so xor of fingerprints at 3 positions of element is equal to
+ * fingerprint of element. Element is checked with 3 memory accesses.
+ *
+ * Probability of false positives is:
+ * p = 2^(-f),
+ * where f is number of bits of fingerprint (8 or 16). Filter takes about 1.13f bits per element
+ * for large sets, which is about 30% less than Bloom Filter with the same probability of false positives.
+ *
+ * Filter is built by {@link Builder} and elements cannot be inserted or removed later.
+ * Algorithm is described in "Binary Fuse Filters: Fast and Smaller Than Xor Filters"
+ * by Thomas Mueller Graf and Daniel Lemire.
+ *
+ * @param <E> - the type of elements in this filter.
+ * @author Damian Stygar
+ */
+public final class BinaryFuseFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of attempts of building filter with different seeds.
+     */
+    public static final int MAX_ITERATIONS = 100;
+
+    private static final int ARITY = 3;
+    private static final int MAX_SEGMENT_LENGTH = 1 << 18;
+    private static final int KEYS_PER_TASK = 1 << 14;
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final HashStrategy hashStrategy;
+    private final Funnel<? super E> funnel;
+    private final int fingerprintBits;
+    private final int fingerprintMask;
+    private final int numberOfElements;
+    private final int segmentLength;
+    private final int segmentLengthMask;
+    private final int segmentCount;
+    private final int segmentCountLength;
+    private final byte[] fingerprints;
+    private final long seed;
+
+    private BinaryFuseFilter(long[] keys, int fingerprintBits, HashStrategy hashStrategy, Funnel<? super E> funnel) {
+        int size = keys.length;
+        this.hashStrategy = hashStrategy;
+        this.funnel = funnel;
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.numberOfElements = size;
+        this.segmentLength = size == 0 ? 4 : Math.min(MAX_SEGMENT_LENGTH,
+                1 << (int) Math.floor(Math.log(size) / Math.log(3.33) + 2.25));
+        this.segmentLengthMask = segmentLength - 1;
+        double sizeFactor = size <= 1 ? 0 : Math.max(1.125, 0.875 + 0.25 * Math.log(1000000) / Math.log(size));
+        long capacity = Math.round(size * sizeFactor);
+        long initSegmentCount = (capacity + segmentLength - 1) / segmentLength - (ARITY - 1);
+        long arrayLength = (initSegmentCount + ARITY - 1) * segmentLength;
+        long count = (arrayLength + segmentLength - 1) / segmentLength;
+        this.segmentCount = count <= ARITY - 1 ? 1 : (int) (count - (ARITY - 1));
+        this.segmentCountLength = segmentCount * segmentLength;
+        arrayLength = (long) (segmentCount + ARITY - 1) * segmentLength;
+        this.fingerprints = new byte[(int) (arrayLength * (fingerprintBits / 8))];
+        this.seed = populate(keys, (int) arrayLength);
+    }
+
+    /**
+     * The builder method enables you to create builder of binary fuse filter.
+     *
+     * @param <E> - the type of elements in filter.
+     * @return builder of binary fuse filter.
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<E>();
+    }
+
+    private long populate(long[] keys, int capacity) {
+        int size = keys.length;
+        int[] alone = new int[capacity];
+        byte[] t2count = new byte[capacity];
+        long[] t2hash = new long[capacity];
+        byte[] reverseH = new byte[size];
+        long[] reverseOrder = new long[size + 1];
+        reverseOrder[size] = 1;
+        int[] positions = new int[5];
+        int blockBits = 1;
+        while ((1 << blockBits) < segmentCount) {
+            blockBits++;
+        }
+        int blockMask = (1 << blockBits) - 1;
+        long rngCounter = 1;
+        for (int iteration = 0; ; iteration++) {
+            if (iteration >= MAX_ITERATIONS) {
+                throw new IllegalStateException("Binary fuse filter cannot be built!");
+            }
+            rngCounter += 0x9E3779B97F4A7C15L;
+            long currentSeed = splitMix(rngCounter);
+
+            int[] startPositions = new int[1 << blockBits];
+            for (int i = 0; i < startPositions.length; i++) {
+                startPositions[i] = (int) (((long) i * size) >>> blockBits);
+            }
+            for (long key : keys) {
+                long hash = mix(key + currentSeed);
+                int segmentIndex = (int) (hash >>> (64 - blockBits));
+                while (reverseOrder[startPositions[segmentIndex]] != 0) {
+                    segmentIndex = (segmentIndex + 1) & blockMask;
+                }
+                reverseOrder[startPositions[segmentIndex]] = hash;
+                startPositions[segmentIndex]++;
+            }
+
+            boolean error = false;
+            for (int i = 0; i < size && !error; i++) {
+                long hash = reverseOrder[i];
+                setPositions(hash, positions);
+                int h0 = positions[0], h1 = positions[1], h2 = positions[2];
+                t2count[h0] += 4;
+                t2hash[h0] ^= hash;
+                t2count[h1] += 4;
+                t2count[h1] ^= 1;
+                t2hash[h1] ^= hash;
+                t2count[h2] += 4;
+                t2count[h2] ^= 2;
+                t2hash[h2] ^= hash;
+                if ((t2hash[h0] & t2hash[h1] & t2hash[h2]) == 0
+                        && ((t2hash[h0] == 0 && t2count[h0] == 8) || (t2hash[h1] == 0 && t2count[h1] == 8)
+                        || (t2hash[h2] == 0 && t2count[h2] == 8))) {
+                    error = true;
+                }
+                if ((t2count[h0] & 0xFF) < 4 || (t2count[h1] & 0xFF) < 4 || (t2count[h2] & 0xFF) < 4) {
+                    error = true;
+                }
+            }
+
+            if (!error) {
+                int queueSize = 0;
+                for (int i = 0; i < capacity; i++) {
+                    alone[queueSize] = i;
+                    if (((t2count[i] & 0xFF) >> 2) == 1) {
+                        queueSize++;
+                    }
+                }
+                int stackSize = 0;
+                while (queueSize > 0) {
+                    int index = alone[--queueSize];
+                    if (((t2count[index] & 0xFF) >> 2) != 1) {
+                        continue;
+                    }
+                    long hash = t2hash[index];
+                    int found = t2count[index] & 3;
+                    reverseH[stackSize] = (byte) found;
+                    reverseOrder[stackSize] = hash;
+                    stackSize++;
+                    setPositions(hash, positions);
+                    for (int j = 1; j < ARITY; j++) {
+                        int otherIndex = positions[found + j];
+                        alone[queueSize] = otherIndex;
+                        if (((t2count[otherIndex] & 0xFF) >> 2) == 2) {
+                            queueSize++;
+                        }
+                        t2count[otherIndex] -= 4;
+                        t2count[otherIndex] ^= mod3(found + j);
+                        t2hash[otherIndex] ^= hash;
+                    }
+                }
+                if (stackSize == size) {
+                    for (int i = size - 1; i >= 0; i--) {
+                        long hash = reverseOrder[i];
+                        setPositions(hash, positions);
+                        int found = reverseH[i];
+                        setFingerprint(positions[found], fingerprint(hash)
+                                ^ getFingerprint(positions[found + 1]) ^ getFingerprint(positions[found + 2]));
+                    }
+                    return currentSeed;
+                }
+            }
+            Arrays.fill(reverseOrder, 0, size, 0L);
+            Arrays.fill(t2count, (byte) 0);
+            Arrays.fill(t2hash, 0L);
+        }
+    }
+
+    private static int mod3(int value) {
+        return value > 2 ? value - 3 : value;
+    }
+
+    private static long splitMix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private int fingerprint(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & fingerprintMask;
+    }
+
+    private int getFirstPosition(long hash) {
+        long length = segmentCountLength;
+        return (int) (((hash >>> 32) * length + (((hash & 0xFFFFFFFFL) * length) >>> 32)) >>> 32);
+    }
+
+    private void setPositions(long hash, int[] positions) {
+        int h0 = getFirstPosition(hash);
+        int h1 = h0 + segmentLength;
+        int h2 = h1 + segmentLength;
+        positions[0] = h0;
+        positions[1] = h1 ^ ((int) (hash >>> 18) & segmentLengthMask);
+        positions[2] = h2 ^ ((int) hash & segmentLengthMask);
+        positions[3] = positions[0];
+        positions[4] = positions[1];
+    }
+
+    private int getFingerprint(int position) {
+        if (fingerprintBits == 8) {
+            return fingerprints[position] & 0xFF;
+        }
+        return (fingerprints[2 * position] & 0xFF) | ((fingerprints[2 * position + 1] & 0xFF) << 8);
+    }
+
+    private void setFingerprint(int position, int fingerprint) {
+        if (fingerprintBits == 8) {
+            fingerprints[position] = (byte) fingerprint;
+        } else {
+            fingerprints[2 * position] = (byte) fingerprint;
+            fingerprints[2 * position + 1] = (byte) (fingerprint >>> 8);
+        }
+    }
+
+    private boolean containsKey(long key) {
+        if (numberOfElements == 0) {
+            return false;
+        }
+        long hash = mix(key + seed);
+        int h0 = getFirstPosition(hash);
+        int h1 = (h0 + segmentLength) ^ ((int) (hash >>> 18) & segmentLengthMask);
+        int h2 = (h0 + 2 * segmentLength) ^ ((int) hash & segmentLengthMask);
+        return fingerprint(hash) == (getFingerprint(h0) ^ getFingerprint(h1) ^ getFingerprint(h2));
+    }
+
+    /**
+     * The add method is not supported, because binary fuse filter is immutable.
+     *
+     * @param element an element to be inserted.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(E element) {
+        throw new UnsupportedOperationException("Binary fuse filter is immutable!");
+    }
+
+    /**
+     * The addAll method is not supported, because binary fuse filter is immutable.
+     *
+     * @param collection a collection with elements to be inserted.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        throw new UnsupportedOperationException("Binary fuse filter is immutable!");
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if filter can contains element (Remember that can be false positive result).
+     * False if filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        funnel.funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains key.
+     * Key is written as 8 bytes (little-endian), the same as by {@link Builder#build(long[])}.
+     *
+     * @param key a key to be checked.
+     * @return True if filter can contains key (Remember that can be false positive result).
+     * False if filter cannot contains key.
+     */
+    public boolean mightContains(long key) {
+        ByteSink sink = ByteSink.threadSink().putLong(key);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if filter can contains element (Remember that can be false positive result).
+     * False if filter cannot contains element.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if filter can contains element (Remember that can be false positive result).
+     * False if filter cannot contains element.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        return containsKey(hashStrategy.hash(bytes, offset, length, 0));
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if filter can contains each element (Remember that can be false positive result).
+     * False if filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The getFingerprintBits method enables you to get number of bits of fingerprint.
+     *
+     * @return number of bits of fingerprint.
+     */
+    public int getFingerprintBits() {
+        return this.fingerprintBits;
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives.
+     * It depends on number of bits of fingerprint only.
+     *
+     * @param numberOfElements a number of elements in filter.
+     * @return probability of false positives.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return numberOfElements == 0 ? 0 : 1.0 / (1 << fingerprintBits);
+    }
+
+    /**
+     * The getSize method enables you to get size of filter.
+     *
+     * @return size of filter in bits, at most {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(Integer.MAX_VALUE, 8L * fingerprints.length);
+    }
+
+    /**
+     * The clear method is not supported, because binary fuse filter is immutable.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Binary fuse filter is immutable!");
+    }
+
+    /**
+     * The isEmpty method enables you to check if filter is empty.
+     *
+     * @return True, if filter is empty.
+     * False, if filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfElements == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of distinct elements in filter.
+     *
+     * @return number of distinct elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get number of distinct elements in filter.
+     *
+     * @return number of distinct elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get bits per element.
+     *
+     * @return bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return numberOfElements == 0 ? 0 : 8.0 * fingerprints.length / numberOfElements;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get bits per element.
+     *
+     * @return bits per element.
+     * @throws Exception when filter is empty.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return 8.0 * fingerprints.length / numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of positions checked for element.
+     *
+     * @return number of positions checked for element.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return ARITY;
+    }
+
+    /**
+     * Builder of binary fuse filter.
+     *
+     * Elements are hashed (in parallel by common fork-join pool for large sets, unless disabled),
+     * then duplicates are removed by sorting hash values.
+     *
+     * @param <E> - the type of elements in filter.
+     */
+    public static final class Builder<E> {
+
+        private int fingerprintBits = 8;
+        private HashStrategy hashStrategy = DEFAULT_HASH_STRATEGY;
+        private Funnel<? super E> funnel = Funnels.defaultFunnel();
+        private boolean parallel = true;
+
+        private Builder() {
+        }
+
+        /**
+         * The fingerprintBits method enables you to set number of bits of fingerprint.
+         *
+         * @param fingerprintBits number of bits of fingerprint, 8 (default) or 16.
+         * @return this builder.
+         */
+        public Builder<E> fingerprintBits(int fingerprintBits) {
+            if (fingerprintBits != 8 && fingerprintBits != 16) {
+                throw new IllegalArgumentException("Number of bits of fingerprint should be 8 or 16!");
+            }
+            this.fingerprintBits = fingerprintBits;
+            return this;
+        }
+
+        /**
+         * The hashStrategy method enables you to set hash strategy.
+         *
+         * @param hashStrategy hash strategy, which can be used by many threads.
+         * @return this builder.
+         */
+        public Builder<E> hashStrategy(HashStrategy hashStrategy) {
+            if (hashStrategy == null) {
+                throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+            }
+            this.hashStrategy = hashStrategy;
+            return this;
+        }
+
+        /**
+         * The funnel method enables you to set funnel, which writes elements as bytes.
+         *
+         * @param funnel funnel, which can be used by many threads.
+         * @return this builder.
+         */
+        public Builder<E> funnel(Funnel<? super E> funnel) {
+            if (funnel == null) {
+                throw new IllegalArgumentException("Funnel cannot be null!");
+            }
+            this.funnel = funnel;
+            return this;
+        }
+
+        /**
+         * The parallel method enables you to choose if elements should be hashed in parallel.
+         *
+         * @param parallel true (default) if elements should be hashed in parallel.
+         * @return this builder.
+         */
+        public Builder<E> parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * The build method enables you to build filter with elements from collection.
+         *
+         * @param elements a collection with elements.
+         * @return binary fuse filter.
+         * @throws IllegalStateException when filter cannot be built.
+         */
+        public BinaryFuseFilter<E> build(Collection<? extends E> elements) {
+            if (elements == null) {
+                throw new IllegalArgumentException("Collection of elements cannot be null!");
+            }
+            Object[] array = elements.toArray();
+            return build(new HashTask<E>(array, null, funnel, hashStrategy, new long[array.length], 0, array.length));
+        }
+
+        /**
+         * The build method enables you to build filter with keys.
+         * Each key is written as 8 bytes (little-endian), the same as Long by default funnel.
+         *
+         * @param keys an array with keys.
+         * @return binary fuse filter.
+         * @throws IllegalStateException when filter cannot be built.
+         */
+        public BinaryFuseFilter<E> build(long[] keys) {
+            if (keys == null) {
+                throw new IllegalArgumentException("Array of keys cannot be null!");
+            }
+            return build(new HashTask<E>(null, keys, funnel, hashStrategy, new long[keys.length], 0, keys.length));
+        }
+
+        private BinaryFuseFilter<E> build(HashTask<E> task) {
+            long[] hashes = task.hashes;
+            if (parallel && hashes.length > KEYS_PER_TASK) {
+                ForkJoinPool.commonPool().invoke(task);
+                Arrays.parallelSort(hashes);
+            } else {
+                task.hashRange();
+                Arrays.sort(hashes);
+            }
+            int distinct = 0;
+            for (int i = 0; i < hashes.length; i++) {
+                if (i == 0 || hashes[i] != hashes[i - 1]) {
+                    hashes[distinct++] = hashes[i];
+                }
+            }
+            if (distinct < hashes.length) {
+                hashes = Arrays.copyOf(hashes, distinct);
+            }
+            return new BinaryFuseFilter<E>(hashes, fingerprintBits, hashStrategy, funnel);
+        }
+    }
+
+    private static final class HashTask<E> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] elements;
+        private final long[] keys;
+        private final Funnel<? super E> funnel;
+        private final HashStrategy hashStrategy;
+        private final long[] hashes;
+        private final int from;
+        private final int to;
+
+        private HashTask(Object[] elements, long[] keys, Funnel<? super E> funnel, HashStrategy hashStrategy,
+                         long[] hashes, int from, int to) {
+            this.elements = elements;
+            this.keys = keys;
+            this.funnel = funnel;
+            this.hashStrategy = hashStrategy;
+            this.hashes = hashes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > KEYS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new HashTask<E>(elements, keys, funnel, hashStrategy, hashes, from, middle),
+                        new HashTask<E>(elements, keys, funnel, hashStrategy, hashes, middle, to));
+                return;
+            }
+            hashRange();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void hashRange() {
+            for (int i = from; i < to; i++) {
+                ByteSink sink = ByteSink.threadSink();
+                if (elements != null) {
+                    funnel.funnel((E) elements[i], sink);
+                } else {
+                    sink.putLong(keys[i]);
+                }
+                hashes[i] = hashStrategy.hash(sink.getBuffer(), 0, sink.size(), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Interface of storage of bits used by Bloom Filter.
+ *
+ * Bits are grouped into 64-bit words, bit with index i is stored in word i / 64 at position i % 64.
+ *
+ * @author Damian Stygar
+ */
+public interface BitArray {
+
+    /**
+     * The size method enables you to get number of bits in storage.
+     *
+     * @return number of bits.
+     */
+    long size();
+
+    /**
+     * The get method enables you to check if bit is set.
+     *
+     * @param index index of bit.
+     * @return True if bit is set.
+     * False if bit is not set.
+     */
+    boolean get(long index);
+
+    /**
+     * The set method enables you to set bit.
+     *
+     * @param index index of bit.
+     * @return True if bit was changed.
+     * False if bit was already set.
+     */
+    boolean set(long index);
+
+    /**
+     * The getNumberOfWords method enables you to get number of 64-bit words in storage.
+     *
+     * @return number of words.
+     */
+    long getNumberOfWords();
+
+    /**
+     * The getWord method enables you to get 64-bit word.
+     *
+     * @param wordIndex index of word.
+     * @return word.
+     */
+    long getWord(long wordIndex);
+
+    /**
+     * The setWord method enables you to replace 64-bit word.
+     *
+     * @param wordIndex index of word.
+     * @param word      new value of word.
+     */
+    void setWord(long wordIndex, long word);
+
+    /**
+     * The cardinality method enables you to get number of set bits.
+     *
+     * @return number of set bits.
+     */
+    long cardinality();
+
+    /**
+     * The clear method enables you to unset all bits.
+     */
+    void clear();
+
+}
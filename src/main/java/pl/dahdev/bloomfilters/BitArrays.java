@@ -0,0 +1,110 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Helper methods to combine bit arrays word by word.
+ *
+ * Large arrays are divided into ranges of words, which are combined in parallel by common fork-join pool.
+ *
+ * @author Damian Stygar
+ */
+final class BitArrays {
+
+    /**
+     * Number of words, which are combined by single task.
+     */
+    static final int WORDS_PER_TASK = 1 << 14;
+
+    private BitArrays() {
+    }
+
+    /**
+     * The or method enables you to set bits of target array, which are set in any of source arrays.
+     *
+     * @param target  array to be changed.
+     * @param sources arrays with the same number of words as target array.
+     */
+    static void or(BitArray target, BitArray... sources) {
+        combine(target, sources, false);
+    }
+
+    /**
+     * The and method enables you to clear bits of target array, which are not set in all of source arrays.
+     *
+     * @param target  array to be changed.
+     * @param sources arrays with the same number of words as target array.
+     */
+    static void and(BitArray target, BitArray... sources) {
+        combine(target, sources, true);
+    }
+
+    private static void combine(BitArray target, BitArray[] sources, boolean and) {
+        CombineTask task = new CombineTask(target, sources, and, 0, target.getNumberOfWords());
+        if (target.getNumberOfWords() <= WORDS_PER_TASK) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    private static final class CombineTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BitArray target;
+        private final BitArray[] sources;
+        private final boolean and;
+        private final long from;
+        private final long to;
+
+        private CombineTask(BitArray target, BitArray[] sources, boolean and, long from, long to) {
+            this.target = target;
+            this.sources = sources;
+            this.and = and;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > WORDS_PER_TASK) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new CombineTask(target, sources, and, from, middle),
+                        new CombineTask(target, sources, and, middle, to));
+                return;
+            }
+            for (long i = from; i < to; i++) {
+                long word = target.getWord(i);
+                for (BitArray source : sources) {
+                    word = and ? word & source.getWord(i) : word | source.getWord(i);
+                }
+                target.setWord(i, word);
+            }
+        }
+    }
+}
@@ -0,0 +1,464 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Implementation of blocked Bloom Filter.
+ *
+ * Bits are divided into blocks of 512 bits (8 longs, the size of typical cache line).
+ * All bits of element are set in one block chosen by the first hash value,
+ * positions of bits inside the block are generated with Double Hashing,
+ * so checking element needs one access to memory instead of one access per hash function.
+ *
+ * Elements are not distributed evenly between blocks, so blocked Bloom Filter has a bit higher
+ * probability of false positives than standard one of the same size. Probability is computed from:
+ * p = sum(i>=0) Poisson(i, n*B/m) * (1-(1-1/B)^(k*i))^k,
+ * where B is number of bits in block, m is size of Bloom Filter, n is number of elements,
+ * k is number of hash functions.
+ *
+ * A Bloom filter is a space-efficient probabilistic data structure
+ * that is used to test whether an element is a member of a set.
+ * A query returns either "possibly in set" or "definitely not in set".
+ * Elements can be added to the set, but not removed.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class BlockedBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of bits in one block.
+     */
+    public static final int BLOCK_SIZE = 512;
+
+    private static final int WORDS_PER_BLOCK = BLOCK_SIZE / 64;
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final int size;
+    private final int numberOfBlocks;
+    private final int expectedNumberOfElements;
+    private final int numberOfHash;
+    private final double bitsPerElement;
+    private final HashStrategy hashStrategy;
+    private final long[] words;
+    private int numberOfElements;
+
+    /**
+     * Blocked Bloom filter constructor.
+     *
+     * Size of Bloom Filter is the smallest size, for which blocked probability of false positives
+     * is not greater than expected one. It starts from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     */
+    public BlockedBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Blocked Bloom filter constructor.
+     *
+     * Size of Bloom Filter is the smallest size, for which blocked probability of false positives
+     * is not greater than expected one. It starts from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy                hash strategy.
+     */
+    public BlockedBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                              HashStrategy hashStrategy) {
+        this(estimateSize(probabilityOfFalsePositives, expectedNumberOfElements), expectedNumberOfElements, hashStrategy);
+    }
+
+    /**
+     * Blocked Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * @param size                     size of Bloom Filter, rounded up to multiple of block size.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     */
+    public BlockedBloomFilter(int size, int expectedNumberOfElements) {
+        this(size, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Blocked Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Size of Bloom Filter and number of expected elements should be greater than 0.
+     *
+     * @param size                     size of Bloom Filter, rounded up to multiple of block size.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy             hash strategy.
+     */
+    public BlockedBloomFilter(int size, int expectedNumberOfElements, HashStrategy hashStrategy) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        long blocks = (size + (long) BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (blocks * BLOCK_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size of Bloom Filter is too large!");
+        }
+        this.numberOfBlocks = (int) blocks;
+        this.size = numberOfBlocks * BLOCK_SIZE;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(this.size, expectedNumberOfElements);
+        this.bitsPerElement = this.size / (double) expectedNumberOfElements;
+        this.hashStrategy = hashStrategy;
+        this.words = new long[numberOfBlocks * WORDS_PER_BLOCK];
+        this.numberOfElements = 0;
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        long hashA = hashStrategy.hash(bytes, offset, length, 0);
+        long hashB = hashStrategy.hash(bytes, offset, length, 1);
+        int firstWord = IndexMapping.MULTIPLY_SHIFT.map(hashA, numberOfBlocks) * WORDS_PER_BLOCK;
+        for (int i = 0; i < numberOfHash; i++) {
+            int bit = getBitInBlock(hashA, hashB, i);
+            words[firstWord + (bit >>> 6)] |= 1L << bit;
+        }
+        numberOfElements++;
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        long hashA = hashStrategy.hash(bytes, offset, length, 0);
+        long hashB = hashStrategy.hash(bytes, offset, length, 1);
+        int firstWord = IndexMapping.MULTIPLY_SHIFT.map(hashA, numberOfBlocks) * WORDS_PER_BLOCK;
+        for (int i = 0; i < numberOfHash; i++) {
+            int bit = getBitInBlock(hashA, hashB, i);
+            if ((words[firstWord + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The getBitInBlock method enables you to get position of bit in block for i-th hash function.
+     *
+     * Block is chosen by upper bits of the first hash value, so Double Hashing uses its lower bits
+     * (rotated to the top) and the second hash value. Otherwise elements of the same block would
+     * get similar steps and set overlapping bits. Position is taken from the upper 9 bits of the result.
+     *
+     * @param hashA the first hash value.
+     * @param hashB the second hash value.
+     * @param i     number of hash function.
+     * @return position of bit in block.
+     */
+    private static int getBitInBlock(long hashA, long hashB, int i) {
+        return (int) ((hashB + i * Long.rotateLeft(hashA, 32)) >>> 55);
+    }
+
+    /**
+     * The estimateSize method enables you to get the smallest size of blocked Bloom Filter,
+     * for which probability of false positives is not greater than expected one.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements.
+     * @return size of Bloom Filter.
+     */
+    static int estimateSize(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (probabilityOfFalsePositives <= 0 || probabilityOfFalsePositives >= 1) {
+            throw new IllegalArgumentException("Probability of false positives should be between 0 and 1!");
+        }
+        long size = (long) Math.ceil((-expectedNumberOfElements * Math.log(probabilityOfFalsePositives)) / Math.pow(Math.log(2), 2));
+        size = Math.max(BLOCK_SIZE, (size + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE);
+        while (size + BLOCK_SIZE <= Integer.MAX_VALUE
+                && getProbabilityOfFalsePositives(size / BLOCK_SIZE,
+                BloomFilterSpec.getOptimalNumberOfHash(size, expectedNumberOfElements),
+                expectedNumberOfElements) > probabilityOfFalsePositives) {
+            size += Math.max(BLOCK_SIZE, size / 100 / BLOCK_SIZE * BLOCK_SIZE);
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE / BLOCK_SIZE * BLOCK_SIZE);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives
+     * of blocked Bloom Filter.
+     *
+     * Number of elements in block has Poisson distribution, so probability is weighted sum of probabilities
+     * of standard Bloom Filter of block size for each number of elements in block.
+     *
+     * @param numberOfBlocks   number of blocks.
+     * @param numberOfHash     number of hash functions.
+     * @param numberOfElements number of elements.
+     * @return probability of false positives.
+     */
+    static double getProbabilityOfFalsePositives(long numberOfBlocks, int numberOfHash, long numberOfElements) {
+        if (numberOfElements <= 0) {
+            return 0;
+        }
+        double lambda = numberOfElements / (double) numberOfBlocks;
+        double logLambda = Math.log(lambda);
+        double logOneMinusBit = Math.log1p(-1.0 / BLOCK_SIZE);
+        int last = (int) Math.ceil(lambda + 12 * Math.sqrt(lambda) + 20);
+        double logPoisson = -lambda;
+        double result = 0;
+        for (int i = 1; i <= last; i++) {
+            logPoisson += logLambda - Math.log(i);
+            double inBlock = Math.pow(-Math.expm1(numberOfHash * i * logOneMinusBit), numberOfHash);
+            result += Math.exp(logPoisson) * inBlock;
+        }
+        return Math.min(1, result);
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(expectedNumberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return getProbabilityOfFalsePositives(numberOfBlocks, numberOfHash, numberOfElements);
+    }
+
+    /**
+     * The getSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter.
+     */
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * The getNumberOfBlocks method enables you to get number of blocks.
+     *
+     * @return number of blocks.
+     */
+    public int getNumberOfBlocks() {
+        return this.numberOfBlocks;
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        numberOfElements = 0;
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if Bloom Filter is empty.
+     * False, if Bloom Filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfElements == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return this.bitsPerElement;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return this.size / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return this.numberOfHash;
+    }
+
+}
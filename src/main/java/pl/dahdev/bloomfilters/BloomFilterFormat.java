@@ -0,0 +1,484 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Binary format of Bloom Filter.
+ *
+ * All values are stored in little-endian byte order:
+ * <pre>
+ * int    magic number "BLMF"
+ * byte   version of format
+ * int    length of header in bytes, including magic number, version and length
+ * byte   type of filter (1 - Double Hashing, 2 - Triple Hashing, 3 - Enhanced Double Hashing)
+ * byte   index mapping (0 - legacy modulo, 1 - multiply-shift, 2 - mask),
+ *        highest bit is set if bit array is partitioned,
+ *        next bit is set if the first two hash values are computed at once (since version 3)
+ * int    size of Bloom Filter
+ * int    expected number of elements
+ * int    number of hash functions
+ * int    number of inserted elements
+ * long   seed of hash functions
+ * byte   number of hash strategies, followed by each name: short length and UTF-8 bytes
+ * byte   encoding of elements (0 - own funnel, 1 - default funnel, 2 - string funnel), since version 2
+ * long[] (size + 63) / 64 words of bits
+ * </pre>
+ * Subclasses of Bloom Filters are not supported, because they may compute different positions of bits.
+ * Words are written in the same order as {@link ByteBufferBitArray} keeps them,
+ * so part of file after header can be mapped directly.
+ *
+ * Positions of bits of element do not depend on JVM and can be computed in other languages:
+ * <ol>
+ * <li>element is written as bytes by funnel, default funnel is described by {@link Funnels#defaultFunnel()},</li>
+ * <li>i-th hash value is computed by i-th hash strategy (or the only one) with seed + i,
+ * e.g. murmur3_x64_128 returns the first 64 bits of 128-bit result and uses lower 32 bits of seed;
+ * if the first two hash values are computed at once by the only hash strategy, they are computed with seed,
+ * e.g. murmur3_x64_128 returns both halves of 128-bit result, other strategies use seed and seed + 1,</li>
+ * <li>hash values are mapped to range r (size, or size / number of hash functions for partitioned bit array)
+ * by index mapping, e.g. multiply-shift: ((h &gt;&gt;&gt; 32) * r) &gt;&gt;&gt; 32,</li>
+ * <li>positions are generated from mapped values a, b, c by type of filter, for j = 0 .. k - 1:
+ * Double Hashing: a = (a + b) mod r,
+ * Triple Hashing: a = (a + b) mod r, b = (b + c) mod r,
+ * Enhanced Double Hashing: a = (a + b) mod r, b = (b + j) mod r,
+ * j-th position is a after j-th step (plus j * r for partitioned bit array).</li>
+ * </ol>
+ *
+ * @author Damian Stygar
+ */
+final class BloomFilterFormat {
+
+    static final int MAGIC_NUMBER = 0x464D4C42;
+    static final byte VERSION = 3;
+
+    private static final int PREFIX_LENGTH = 9;
+    private static final int MIN_HEADER_LENGTH = PREFIX_LENGTH + 2 + 4 * 4 + 8 + 1;
+    private static final int MAX_NUMBER_OF_HASH_STRATEGIES = 3;
+    private static final int MAX_HEADER_LENGTH = MIN_HEADER_LENGTH + MAX_NUMBER_OF_HASH_STRATEGIES * (2 + 0xFFFF) + 1;
+    private static final int MAX_NUMBER_OF_HASH = 1 << 12;
+    private static final int WORDS_PER_CHUNK = 8192;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte DOUBLE_HASHING = 1;
+    private static final byte TRIPLE_HASHING = 2;
+    private static final byte ENHANCED_DOUBLE_HASHING = 3;
+
+    private static final int PARTITIONED_FLAG = 0x80;
+    private static final int PAIRED_HASH_VALUES_FLAG = 0x40;
+
+    private static final byte OWN_ENCODING = 0;
+    private static final byte DEFAULT_ENCODING = 1;
+    private static final byte STRING_ENCODING = 2;
+
+    private static final String MURMUR3 = "murmur3_x64_128";
+    private static final String XXHASH64 = "xxhash64";
+    private static final String CITYHASH64 = "cityhash64";
+    private static final String MESSAGE_DIGEST_PREFIX = "digest:";
+    private static final String CLASS_PREFIX = "class:";
+
+    private BloomFilterFormat() {
+    }
+
+    /**
+     * The getSerializedSize method enables you to get number of bytes written by Bloom Filter.
+     *
+     * @param filter Bloom Filter.
+     * @return number of bytes.
+     */
+    static long getSerializedSize(AbstractBloomFilter<?> filter) {
+        return createHeader(filter).length + filter.bitArray.getNumberOfWords() * 8;
+    }
+
+    /**
+     * The writeTo method enables you to write Bloom Filter to stream.
+     *
+     * @param filter       Bloom Filter.
+     * @param outputStream output stream.
+     * @throws IOException when filter cannot be written.
+     */
+    static void writeTo(AbstractBloomFilter<?> filter, OutputStream outputStream) throws IOException {
+        outputStream.write(createHeader(filter));
+        BitArray bitArray = filter.bitArray;
+        long numberOfWords = bitArray.getNumberOfWords();
+        byte[] chunk = new byte[(int) Math.min(numberOfWords, WORDS_PER_CHUNK) * 8];
+        ByteBuffer chunkBuffer = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+        long wordIndex = 0;
+        while (wordIndex < numberOfWords) {
+            chunkBuffer.clear();
+            int wordsInChunk = (int) Math.min(numberOfWords - wordIndex, WORDS_PER_CHUNK);
+            for (int i = 0; i < wordsInChunk; i++) {
+                chunkBuffer.putLong(bitArray.getWord(wordIndex++));
+            }
+            outputStream.write(chunk, 0, wordsInChunk * 8);
+        }
+    }
+
+    /**
+     * The writeTo method enables you to write Bloom Filter to buffer.
+     *
+     * @param filter Bloom Filter.
+     * @param buffer buffer with at least {@link #getSerializedSize(AbstractBloomFilter)} bytes remaining.
+     */
+    static void writeTo(AbstractBloomFilter<?> filter, ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            buffer.put(createHeader(filter));
+            BitArray bitArray = filter.bitArray;
+            for (long i = 0; i < bitArray.getNumberOfWords(); i++) {
+                buffer.putLong(bitArray.getWord(i));
+            }
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter from stream.
+     *
+     * @param inputStream input stream.
+     * @param ownFunnel   true if caller sets own funnel after reading.
+     * @param <E>         the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when filter cannot be read.
+     */
+    static <E> AbstractBloomFilter<E> readFrom(InputStream inputStream, boolean ownFunnel) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+        byte[] prefix = new byte[PREFIX_LENGTH];
+        dataInputStream.readFully(prefix);
+        int headerLength = readPrefix(ByteBuffer.wrap(prefix).order(ByteOrder.LITTLE_ENDIAN));
+        byte[] header = new byte[headerLength - PREFIX_LENGTH];
+        dataInputStream.readFully(header);
+        AbstractBloomFilter<E> filter = readHeader(ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN),
+                prefix[4], Long.MAX_VALUE, ownFunnel);
+
+        BitArray bitArray = filter.bitArray;
+        long numberOfWords = bitArray.getNumberOfWords();
+        byte[] chunk = new byte[(int) Math.min(numberOfWords, WORDS_PER_CHUNK) * 8];
+        ByteBuffer chunkBuffer = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+        long wordIndex = 0;
+        while (wordIndex < numberOfWords) {
+            int wordsInChunk = (int) Math.min(numberOfWords - wordIndex, WORDS_PER_CHUNK);
+            dataInputStream.readFully(chunk, 0, wordsInChunk * 8);
+            chunkBuffer.clear();
+            for (int i = 0; i < wordsInChunk; i++) {
+                bitArray.setWord(wordIndex++, chunkBuffer.getLong());
+            }
+        }
+        filter.numberOfSetBits = bitArray.cardinality();
+        return filter;
+    }
+
+    /**
+     * The readFrom method enables you to read Bloom Filter from buffer.
+     *
+     * @param buffer    buffer with Bloom Filter, its position is moved after the filter.
+     * @param ownFunnel true if caller sets own funnel after reading.
+     * @param <E>       the type of elements in Bloom Filter.
+     * @return Bloom Filter.
+     * @throws IOException when buffer does not contain valid Bloom Filter.
+     */
+    static <E> AbstractBloomFilter<E> readFrom(ByteBuffer buffer, boolean ownFunnel) throws IOException {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int start = buffer.position();
+            if (buffer.remaining() < PREFIX_LENGTH) {
+                throw new IOException("Data does not contain Bloom Filter!");
+            }
+            int headerLength = readPrefix(buffer);
+            if (headerLength > buffer.remaining() + PREFIX_LENGTH) {
+                throw new IOException("Header of Bloom Filter is corrupted!");
+            }
+            ByteBuffer header = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            header.limit(start + headerLength);
+            AbstractBloomFilter<E> filter = readHeader(header, buffer.get(start + 4),
+                    buffer.limit() - start - headerLength, ownFunnel);
+            buffer.position(start + headerLength);
+            BitArray bitArray = filter.bitArray;
+            for (long i = 0; i < bitArray.getNumberOfWords(); i++) {
+                bitArray.setWord(i, buffer.getLong());
+            }
+            filter.numberOfSetBits = bitArray.cardinality();
+            return filter;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * The createEmptyCopy method enables you to create empty Bloom Filter with the same parameters.
+     *
+     * @param filter Bloom Filter to be copied.
+     * @param <E>    the type of elements in Bloom Filter.
+     * @return empty Bloom Filter.
+     * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+     */
+    static <E> AbstractBloomFilter<E> createEmptyCopy(AbstractBloomFilter<E> filter) {
+        if (filter.getClass() != DoubleHashBloomFilter.class && filter.getClass() != TripleHashBloomFilter.class
+                && filter.getClass() != EnhancedDoubleHashBloomFilter.class) {
+            throw new UnsupportedOperationException("Copy of Bloom Filter is not supported for "
+                    + filter.getClass().getName() + "!");
+        }
+        AbstractBloomFilter<E> copy;
+        try {
+            copy = createFilter(getFilterType(filter), filter.size, filter.expectedNumberOfElements,
+                    filter.getHashStrategies());
+        } catch (IOException error) {
+            throw new IllegalStateException("Cannot create copy of Bloom Filter!", error);
+        }
+        copy.indexMapping = filter.indexMapping;
+        copy.partitioned = filter.partitioned;
+        copy.pairedHashValues = filter.pairedHashValues;
+        copy.numberOfHash = filter.numberOfHash;
+        copy.seed = filter.seed;
+        copy.funnel = filter.funnel;
+        return copy;
+    }
+
+    private static byte[] createHeader(AbstractBloomFilter<?> filter) {
+        HashStrategy[] hashStrategies = filter.getHashStrategies();
+        byte[][] names = new byte[hashStrategies.length][];
+        int headerLength = MIN_HEADER_LENGTH + 1;
+        for (int i = 0; i < hashStrategies.length; i++) {
+            names[i] = getHashStrategyName(hashStrategies[i]).getBytes(UTF_8);
+            headerLength += 2 + names[i].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC_NUMBER);
+        header.put(VERSION);
+        header.putInt(headerLength);
+        header.put(getFilterType(filter));
+        header.put((byte) (filter.indexMapping.ordinal() | (filter.partitioned ? PARTITIONED_FLAG : 0)
+                | (filter.pairedHashValues ? PAIRED_HASH_VALUES_FLAG : 0)));
+        header.putInt(filter.size);
+        header.putInt(filter.expectedNumberOfElements);
+        header.putInt(filter.numberOfHash);
+        header.putInt(filter.numberOfElements);
+        header.putLong(filter.seed);
+        header.put((byte) names.length);
+        for (byte[] name : names) {
+            header.putShort((short) name.length);
+            header.put(name);
+        }
+        header.put(getEncoding(filter.funnel));
+        return header.array();
+    }
+
+    private static int readPrefix(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC_NUMBER) {
+            throw new IOException("Data does not contain Bloom Filter!");
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported version of Bloom Filter format: " + version + "!");
+        }
+        int headerLength = buffer.getInt();
+        if (headerLength < MIN_HEADER_LENGTH || headerLength > MAX_HEADER_LENGTH) {
+            throw new IOException("Header of Bloom Filter is corrupted!");
+        }
+        return headerLength;
+    }
+
+    private static <E> AbstractBloomFilter<E> readHeader(ByteBuffer buffer, byte version, long maxDataLength,
+                                                         boolean ownFunnel) throws IOException {
+        try {
+            return readHeaderFields(buffer, version, maxDataLength, ownFunnel);
+        } catch (BufferUnderflowException error) {
+            throw new IOException("Header of Bloom Filter is corrupted!", error);
+        }
+    }
+
+    private static <E> AbstractBloomFilter<E> readHeaderFields(ByteBuffer buffer, byte version, long maxDataLength,
+                                                               boolean ownFunnel) throws IOException {
+        byte filterType = buffer.get();
+        int layout = buffer.get() & 0xFF;
+        int indexMapping = layout & ~(PARTITIONED_FLAG | (version >= 3 ? PAIRED_HASH_VALUES_FLAG : 0));
+        int size = buffer.getInt();
+        int expectedNumberOfElements = buffer.getInt();
+        int numberOfHash = buffer.getInt();
+        int numberOfElements = buffer.getInt();
+        long seed = buffer.getLong();
+        if (size <= 0 || expectedNumberOfElements <= 0 || numberOfHash <= 0 || numberOfHash > MAX_NUMBER_OF_HASH
+                || numberOfElements < 0 || ((size + 63L) >>> 6) * 8 > maxDataLength) {
+            throw new IOException("Header of Bloom Filter is corrupted!");
+        }
+        int numberOfHashStrategies = buffer.get() & 0xFF;
+        if (numberOfHashStrategies == 0 || numberOfHashStrategies > MAX_NUMBER_OF_HASH_STRATEGIES) {
+            throw new IOException("Header of Bloom Filter is corrupted!");
+        }
+        HashStrategy[] hashStrategies = new HashStrategy[numberOfHashStrategies];
+        for (int i = 0; i < hashStrategies.length; i++) {
+            int nameLength = buffer.getShort() & 0xFFFF;
+            if (nameLength > buffer.remaining()) {
+                throw new IOException("Header of Bloom Filter is corrupted!");
+            }
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            hashStrategies[i] = createHashStrategy(new String(name, UTF_8));
+        }
+        byte encoding = version >= 2 ? buffer.get() : DEFAULT_ENCODING;
+        if (encoding == OWN_ENCODING && !ownFunnel) {
+            throw new IOException("Bloom Filter was created with own funnel, which should be passed to readFrom!");
+        }
+        if (indexMapping < 0 || indexMapping >= IndexMapping.values().length) {
+            throw new IOException("Unknown index mapping of Bloom Filter!");
+        }
+        boolean partitioned = (layout & PARTITIONED_FLAG) != 0;
+        int hashRange = partitioned ? size / numberOfHash : size;
+        if (hashRange == 0 || (IndexMapping.values()[indexMapping] == IndexMapping.MASK
+                && Integer.bitCount(hashRange) != 1)) {
+            throw new IOException("Header of Bloom Filter is corrupted!");
+        }
+
+        AbstractBloomFilter<E> filter;
+        try {
+            filter = createFilter(filterType, size, expectedNumberOfElements, hashStrategies);
+        } catch (IllegalArgumentException error) {
+            throw new IOException("Header of Bloom Filter is corrupted!", error);
+        }
+        filter.indexMapping = IndexMapping.values()[indexMapping];
+        filter.partitioned = partitioned;
+        filter.pairedHashValues = (layout & PAIRED_HASH_VALUES_FLAG) != 0 && version >= 3;
+        filter.numberOfHash = numberOfHash;
+        filter.numberOfElements = numberOfElements;
+        filter.seed = seed;
+        if (encoding == STRING_ENCODING) {
+            filter.funnel = Funnels.stringFunnel();
+        }
+        return filter;
+    }
+
+    private static byte getEncoding(Funnel<?> funnel) {
+        if (funnel == Funnels.defaultFunnel()) {
+            return DEFAULT_ENCODING;
+        } else if (funnel == Funnels.stringFunnel()) {
+            return STRING_ENCODING;
+        }
+        return OWN_ENCODING;
+    }
+
+    private static byte getFilterType(AbstractBloomFilter<?> filter) {
+        if (filter.getClass() == DoubleHashBloomFilter.class) {
+            return DOUBLE_HASHING;
+        } else if (filter.getClass() == TripleHashBloomFilter.class) {
+            return TRIPLE_HASHING;
+        } else if (filter.getClass() == EnhancedDoubleHashBloomFilter.class) {
+            return ENHANCED_DOUBLE_HASHING;
+        }
+        throw new IllegalArgumentException("Unsupported type of Bloom Filter: " + filter.getClass().getName() + "!");
+    }
+
+    private static <E> AbstractBloomFilter<E> createFilter(byte filterType, int size, int expectedNumberOfElements,
+                                                         HashStrategy[] hashStrategies) throws IOException {
+        int expectedNumberOfHashStrategies = filterType == TRIPLE_HASHING ? 3 : 2;
+        if (hashStrategies.length == 1) {
+            switch (filterType) {
+                case DOUBLE_HASHING:
+                    return new DoubleHashBloomFilter<E>(size, expectedNumberOfElements, hashStrategies[0]);
+                case TRIPLE_HASHING:
+                    return new TripleHashBloomFilter<E>(size, expectedNumberOfElements, hashStrategies[0]);
+                case ENHANCED_DOUBLE_HASHING:
+                    return new EnhancedDoubleHashBloomFilter<E>(size, expectedNumberOfElements, hashStrategies[0]);
+                default:
+                    throw new IOException("Unknown type of Bloom Filter: " + filterType + "!");
+            }
+        }
+        if (hashStrategies.length != expectedNumberOfHashStrategies) {
+            throw new IOException("Unexpected number of hash strategies: " + hashStrategies.length + "!");
+        }
+        MessageDigest[] messageDigests = new MessageDigest[hashStrategies.length];
+        for (int i = 0; i < hashStrategies.length; i++) {
+            if (!(hashStrategies[i] instanceof MessageDigestHashStrategy)) {
+                throw new IOException("Different hash strategies are supported only for message digests!");
+            }
+            messageDigests[i] = ((MessageDigestHashStrategy) hashStrategies[i]).getMessageDigest();
+        }
+        switch (filterType) {
+            case DOUBLE_HASHING:
+                return new DoubleHashBloomFilter<E>(size, expectedNumberOfElements,
+                        messageDigests[0], messageDigests[1]);
+            case TRIPLE_HASHING:
+                return new TripleHashBloomFilter<E>(size, expectedNumberOfElements,
+                        messageDigests[0], messageDigests[1], messageDigests[2]);
+            case ENHANCED_DOUBLE_HASHING:
+                return new EnhancedDoubleHashBloomFilter<E>(size, expectedNumberOfElements,
+                        messageDigests[0], messageDigests[1]);
+            default:
+                throw new IOException("Unknown type of Bloom Filter: " + filterType + "!");
+        }
+    }
+
+    private static String getHashStrategyName(HashStrategy hashStrategy) {
+        if (hashStrategy instanceof Murmur3HashStrategy) {
+            return MURMUR3;
+        } else if (hashStrategy instanceof XxHash64HashStrategy) {
+            return XXHASH64;
+        } else if (hashStrategy instanceof CityHashStrategy) {
+            return CITYHASH64;
+        } else if (hashStrategy instanceof MessageDigestHashStrategy) {
+            return MESSAGE_DIGEST_PREFIX
+                    + ((MessageDigestHashStrategy) hashStrategy).getMessageDigest().getAlgorithm();
+        }
+        return CLASS_PREFIX + hashStrategy.getClass().getName();
+    }
+
+    private static HashStrategy createHashStrategy(String name) throws IOException {
+        if (MURMUR3.equals(name)) {
+            return new Murmur3HashStrategy();
+        } else if (XXHASH64.equals(name)) {
+            return new XxHash64HashStrategy();
+        } else if (CITYHASH64.equals(name)) {
+            return new CityHashStrategy();
+        }
+        try {
+            if (name.startsWith(MESSAGE_DIGEST_PREFIX)) {
+                return new MessageDigestHashStrategy(
+                        MessageDigest.getInstance(name.substring(MESSAGE_DIGEST_PREFIX.length())));
+            } else if (name.startsWith(CLASS_PREFIX)) {
+                Class<?> hashStrategyClass = Class.forName(name.substring(CLASS_PREFIX.length()), false,
+                        BloomFilterFormat.class.getClassLoader());
+                if (!HashStrategy.class.isAssignableFrom(hashStrategyClass)) {
+                    throw new IOException("Class " + hashStrategyClass.getName() + " is not hash strategy!");
+                }
+                return hashStrategyClass.asSubclass(HashStrategy.class).getDeclaredConstructor().newInstance();
+            }
+        } catch (NoSuchAlgorithmException error) {
+            throw new IOException("Cannot get instance of hash function " + name + "!", error);
+        } catch (ReflectiveOperationException error) {
+            throw new IOException("Cannot create hash strategy " + name + "!", error);
+        }
+        throw new IOException("Unknown hash strategy " + name + "!");
+    }
+}
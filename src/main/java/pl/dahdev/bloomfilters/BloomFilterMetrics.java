@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime metrics of Bloom Filter, enabled by {@link AbstractBloomFilter#enableMetrics()}.
+ *
+ * Counters are striped ({@link LongAdder}), so they can be updated by many threads with low overhead.
+ * Time of creating positions is measured for 1 of {@link #HASH_TIME_SAMPLING} operations only.
+ * Bloom Filter without metrics checks single field, which is null.
+ *
+ * Saturation alarm is raised once, when ratio of set bits passes threshold, and listeners are notified.
+ * Bloom Filter with optimal number of hash functions has half of bits set, when expected number of elements
+ * is inserted, so default threshold is 0.5.
+ *
+ * Metrics can be read by {@link #snapshot()} or by JMX after {@link #register(String)}.
+ *
+ * @author Damian Stygar
+ */
+public final class BloomFilterMetrics implements BloomFilterMetricsMXBean {
+
+    /**
+     * Default ratio of set bits, which raises saturation alarm.
+     */
+    public static final double DEFAULT_SATURATION_THRESHOLD = 0.5;
+
+    /**
+     * Time of creating positions is measured for 1 of this number of operations.
+     */
+    public static final int HASH_TIME_SAMPLING = 64;
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final AbstractBloomFilter<?> filter;
+    private final double saturationThreshold;
+    private final long saturationNumberOfSetBits;
+    private final LongAdder numberOfAdds = new LongAdder();
+    private final LongAdder numberOfQueries = new LongAdder();
+    private final LongAdder numberOfPositives = new LongAdder();
+    private final LongAdder numberOfFalsePositives = new LongAdder();
+    private final LongAdder numberOfHashSamples = new LongAdder();
+    private final LongAdder hashTimeNanos = new LongAdder();
+    private final List<SaturationListener> saturationListeners = new CopyOnWriteArrayList<SaturationListener>();
+    private volatile boolean saturated;
+    private volatile ObjectName objectName;
+
+    BloomFilterMetrics(AbstractBloomFilter<?> filter, double saturationThreshold) {
+        if (saturationThreshold <= 0 || saturationThreshold > 1) {
+            throw new IllegalArgumentException("Saturation threshold should be between 0 and 1!");
+        }
+        this.filter = filter;
+        this.saturationThreshold = saturationThreshold;
+        this.saturationNumberOfSetBits = (long) Math.ceil(saturationThreshold * filter.getSize());
+    }
+
+    /**
+     * The startHashing method enables you to start measuring time of creating positions.
+     *
+     * @return start time, if operation is sampled.
+     */
+    long startHashing() {
+        return ThreadLocalRandom.current().nextInt(HASH_TIME_SAMPLING) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * The stopHashing method enables you to finish measuring time of creating positions.
+     *
+     * @param start            value returned by {@link #startHashing()}.
+     * @param numberOfElements number of hashed elements.
+     */
+    void stopHashing(long start, int numberOfElements) {
+        if (start != NOT_SAMPLED) {
+            hashTimeNanos.add(System.nanoTime() - start);
+            numberOfHashSamples.add(numberOfElements);
+        }
+    }
+
+    /**
+     * The recordAdds method enables you to count inserted elements and check saturation.
+     *
+     * @param numberOfElements number of inserted elements.
+     * @param numberOfSetBits  number of set bits after insertion.
+     */
+    void recordAdds(int numberOfElements, long numberOfSetBits) {
+        numberOfAdds.add(numberOfElements);
+        if (!saturated && numberOfSetBits >= saturationNumberOfSetBits) {
+            saturated = true;
+            if (!saturationListeners.isEmpty()) {
+                Snapshot snapshot = snapshot();
+                for (SaturationListener listener : saturationListeners) {
+                    listener.saturated(snapshot);
+                }
+            }
+        }
+    }
+
+    /**
+     * The recordQueries method enables you to count checked elements.
+     *
+     * @param numberOfElements  number of checked elements.
+     * @param numberOfPositives number of checks, which returned True.
+     */
+    void recordQueries(int numberOfElements, int numberOfPositives) {
+        numberOfQueries.add(numberOfElements);
+        if (numberOfPositives > 0) {
+            this.numberOfPositives.add(numberOfPositives);
+        }
+    }
+
+    /**
+     * The recordClear method enables you to reset saturation alarm after Bloom Filter is cleared.
+     */
+    void recordClear() {
+        saturated = false;
+    }
+
+    /**
+     * The reportFalsePositive method enables you to report, that positive answer was false,
+     * e.g. when element was not found in underlying storage.
+     */
+    public void reportFalsePositive() {
+        numberOfFalsePositives.increment();
+    }
+
+    /**
+     * The addSaturationListener method enables you to be notified, when Bloom Filter becomes saturated.
+     * Listener is called by thread, which inserted element.
+     *
+     * @param listener listener to be notified.
+     */
+    public void addSaturationListener(SaturationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null!");
+        }
+        saturationListeners.add(listener);
+    }
+
+    /**
+     * The removeSaturationListener method enables you to stop notifying listener.
+     *
+     * @param listener listener to be removed.
+     */
+    public void removeSaturationListener(SaturationListener listener) {
+        saturationListeners.remove(listener);
+    }
+
+    /**
+     * The register method enables you to register metrics in platform MBean server
+     * as "pl.dahdev.bloomfilters:type=BloomFilter,name=&lt;name&gt;".
+     *
+     * @param name name of Bloom Filter.
+     * @return name of registered MBean.
+     * @throws JMException when metrics cannot be registered.
+     */
+    public ObjectName register(String name) throws JMException {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null!");
+        }
+        ObjectName objectName = new ObjectName("pl.dahdev.bloomfilters:type=BloomFilter,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * The unregister method enables you to remove metrics from platform MBean server.
+     *
+     * @throws JMException when metrics cannot be unregistered.
+     */
+    public void unregister() throws JMException {
+        ObjectName objectName = this.objectName;
+        if (objectName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            this.objectName = null;
+        }
+    }
+
+    /**
+     * The snapshot method enables you to get current values of all metrics.
+     *
+     * @return values of metrics.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    @Override
+    public long getNumberOfAdds() {
+        return numberOfAdds.sum();
+    }
+
+    @Override
+    public long getNumberOfQueries() {
+        return numberOfQueries.sum();
+    }
+
+    @Override
+    public long getNumberOfPositives() {
+        return numberOfPositives.sum();
+    }
+
+    @Override
+    public long getNumberOfFalsePositives() {
+        return numberOfFalsePositives.sum();
+    }
+
+    @Override
+    public double getObservedProbabilityOfFalsePositives() {
+        long falsePositives = getNumberOfFalsePositives();
+        long negatives = getNumberOfQueries() - getNumberOfPositives() + falsePositives;
+        return negatives <= 0 ? 0 : falsePositives / (double) negatives;
+    }
+
+    @Override
+    public double getEstimatedProbabilityOfFalsePositives() {
+        return Math.pow(getFillRatio(), filter.getNumberOfHash());
+    }
+
+    @Override
+    public double getFillRatio() {
+        return filter.getNumberOfSetBits() / (double) filter.getSize();
+    }
+
+    @Override
+    public double getAverageHashTimeNanos() {
+        long samples = numberOfHashSamples.sum();
+        return samples == 0 ? 0 : hashTimeNanos.sum() / (double) samples;
+    }
+
+    @Override
+    public double getSaturationThreshold() {
+        return this.saturationThreshold;
+    }
+
+    @Override
+    public boolean isSaturated() {
+        return this.saturated;
+    }
+
+    /**
+     * Listener notified, when Bloom Filter becomes saturated.
+     */
+    public interface SaturationListener {
+
+        /**
+         * The saturated method is called once, when ratio of set bits passes saturation threshold.
+         *
+         * @param snapshot values of metrics at the moment of saturation.
+         */
+        void saturated(Snapshot snapshot);
+
+    }
+
+    /**
+     * Values of metrics at single moment.
+     */
+    public static final class Snapshot {
+
+        private final long numberOfAdds;
+        private final long numberOfQueries;
+        private final long numberOfPositives;
+        private final long numberOfFalsePositives;
+        private final double observedProbabilityOfFalsePositives;
+        private final double estimatedProbabilityOfFalsePositives;
+        private final double fillRatio;
+        private final double averageHashTimeNanos;
+        private final boolean saturated;
+
+        private Snapshot(BloomFilterMetrics metrics) {
+            this.numberOfAdds = metrics.getNumberOfAdds();
+            this.numberOfQueries = metrics.getNumberOfQueries();
+            this.numberOfPositives = metrics.getNumberOfPositives();
+            this.numberOfFalsePositives = metrics.getNumberOfFalsePositives();
+            this.observedProbabilityOfFalsePositives = metrics.getObservedProbabilityOfFalsePositives();
+            this.estimatedProbabilityOfFalsePositives = metrics.getEstimatedProbabilityOfFalsePositives();
+            this.fillRatio = metrics.getFillRatio();
+            this.averageHashTimeNanos = metrics.getAverageHashTimeNanos();
+            this.saturated = metrics.isSaturated();
+        }
+
+        public long getNumberOfAdds() {
+            return numberOfAdds;
+        }
+
+        public long getNumberOfQueries() {
+            return numberOfQueries;
+        }
+
+        public long getNumberOfPositives() {
+            return numberOfPositives;
+        }
+
+        public long getNumberOfFalsePositives() {
+            return numberOfFalsePositives;
+        }
+
+        public double getObservedProbabilityOfFalsePositives() {
+            return observedProbabilityOfFalsePositives;
+        }
+
+        public double getEstimatedProbabilityOfFalsePositives() {
+            return estimatedProbabilityOfFalsePositives;
+        }
+
+        public double getFillRatio() {
+            return fillRatio;
+        }
+
+        public double getAverageHashTimeNanos() {
+            return averageHashTimeNanos;
+        }
+
+        public boolean isSaturated() {
+            return saturated;
+        }
+
+        @Override
+        public String toString() {
+            return "BloomFilterMetrics{adds=" + numberOfAdds + ", queries=" + numberOfQueries
+                    + ", positives=" + numberOfPositives + ", falsePositives=" + numberOfFalsePositives
+                    + ", observedProbabilityOfFalsePositives=" + observedProbabilityOfFalsePositives
+                    + ", estimatedProbabilityOfFalsePositives=" + estimatedProbabilityOfFalsePositives
+                    + ", fillRatio=" + fillRatio + ", averageHashTimeNanos=" + averageHashTimeNanos
+                    + ", saturated=" + saturated + "}";
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Management interface of metrics of Bloom Filter, available by JMX.
+ *
+ * @author Damian Stygar
+ */
+public interface BloomFilterMetricsMXBean {
+
+    /**
+     * The getNumberOfAdds method enables you to get number of inserted elements since metrics were enabled.
+     *
+     * @return number of inserted elements.
+     */
+    long getNumberOfAdds();
+
+    /**
+     * The getNumberOfQueries method enables you to get number of checked elements since metrics were enabled.
+     *
+     * @return number of checked elements.
+     */
+    long getNumberOfQueries();
+
+    /**
+     * The getNumberOfPositives method enables you to get number of checks, which returned True.
+     *
+     * @return number of positive answers.
+     */
+    long getNumberOfPositives();
+
+    /**
+     * The getNumberOfFalsePositives method enables you to get number of false positives reported by caller.
+     *
+     * @return number of reported false positives.
+     */
+    long getNumberOfFalsePositives();
+
+    /**
+     * The getObservedProbabilityOfFalsePositives method enables you to get ratio of reported false positives
+     * to all checks of elements, which were not inserted.
+     *
+     * @return observed probability of false positives.
+     */
+    double getObservedProbabilityOfFalsePositives();
+
+    /**
+     * The getEstimatedProbabilityOfFalsePositives method enables you to get probability of false positives
+     * estimated from ratio of set bits.
+     *
+     * @return estimated probability of false positives.
+     */
+    double getEstimatedProbabilityOfFalsePositives();
+
+    /**
+     * The getFillRatio method enables you to get ratio of set bits.
+     *
+     * @return ratio of set bits.
+     */
+    double getFillRatio();
+
+    /**
+     * The getAverageHashTimeNanos method enables you to get average time of creating positions of element.
+     *
+     * @return average time in nanoseconds, measured for sample of operations.
+     */
+    double getAverageHashTimeNanos();
+
+    /**
+     * The getSaturationThreshold method enables you to get ratio of set bits, which raises saturation alarm.
+     *
+     * @return saturation threshold.
+     */
+    double getSaturationThreshold();
+
+    /**
+     * The isSaturated method enables you to check if ratio of set bits passed saturation threshold.
+     *
+     * @return True if Bloom Filter is saturated.
+     * False otherwise.
+     */
+    boolean isSaturated();
+
+}
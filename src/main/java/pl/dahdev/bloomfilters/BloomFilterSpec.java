@@ -0,0 +1,309 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Parameters of Bloom Filter: size and number of hash functions chosen for expected number of elements.
+ *
+ * Probability of false positives is computed from:
+ * p = (1-e^(-kn/m))^k,
+ * where m is size of Bloom Filter, n is number of expected elements, k is number of hash functions.
+ *
+ * Number of hash functions is an integer, so the best of floor and ceiling of (m/n)ln(2) is chosen.
+ * Size for target probability is the smallest one, for which any allowed number of hash functions
+ * gives the target probability:
+ * m = -kn/ln(1-p^(1/k)).
+ *
+ * Fewer hash functions than optimal can be chosen to reduce cost of lookup at slightly more memory.
+ *
+ * @author Damian Stygar
+ */
+public final class BloomFilterSpec {
+
+    /**
+     * Maximum number of hash functions considered by optimizer.
+     */
+    public static final int MAX_NUMBER_OF_HASH = 64;
+
+    private final long size;
+    private final long expectedNumberOfElements;
+    private final int numberOfHash;
+
+    private BloomFilterSpec(long size, long expectedNumberOfElements, int numberOfHash) {
+        this.size = size;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.numberOfHash = numberOfHash;
+    }
+
+    /**
+     * The forProbability method enables you to get the smallest Bloom Filter with target probability of false positives.
+     *
+     * @param probabilityOfFalsePositives target probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @return parameters of Bloom Filter.
+     */
+    public static BloomFilterSpec forProbability(double probabilityOfFalsePositives, long expectedNumberOfElements) {
+        return forProbability(probabilityOfFalsePositives, expectedNumberOfElements, MAX_NUMBER_OF_HASH);
+    }
+
+    /**
+     * The forProbability method enables you to get the smallest Bloom Filter with target probability of false positives,
+     * which uses at most given number of hash functions. Fewer hash functions mean cheaper lookups and more memory.
+     *
+     * @param probabilityOfFalsePositives target probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param maxNumberOfHash             maximum number of hash functions.
+     * @return parameters of Bloom Filter.
+     */
+    public static BloomFilterSpec forProbability(double probabilityOfFalsePositives, long expectedNumberOfElements,
+                                                 int maxNumberOfHash) {
+        if (probabilityOfFalsePositives <= 0 || probabilityOfFalsePositives >= 1) {
+            throw new IllegalArgumentException("Probability of false positives should be between 0 and 1!");
+        }
+        checkExpectedNumberOfElements(expectedNumberOfElements);
+        if (maxNumberOfHash <= 0) {
+            throw new IllegalArgumentException("Maximum number of hash functions should be greater than 0!");
+        }
+        long bestSize = Long.MAX_VALUE;
+        int bestNumberOfHash = 0;
+        for (int k = 1; k <= Math.min(maxNumberOfHash, MAX_NUMBER_OF_HASH); k++) {
+            long size = getSizeForProbability(probabilityOfFalsePositives, expectedNumberOfElements, k);
+            if (size > 0 && size < bestSize) {
+                bestSize = size;
+                bestNumberOfHash = k;
+            }
+        }
+        if (bestNumberOfHash == 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter for probability of false positives is too large!");
+        }
+        return new BloomFilterSpec(bestSize, expectedNumberOfElements, bestNumberOfHash);
+    }
+
+    /**
+     * The getSizeForProbability method enables you to get the smallest size of Bloom Filter with given number
+     * of hash functions, for which probability of false positives is not greater than target one.
+     *
+     * Size is estimated from m = -kn/ln(1-p^(1/k)) and corrected against rounding errors
+     * with exponential and binary search, so correction takes at most about 128 steps.
+     *
+     * @param probabilityOfFalsePositives target probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param numberOfHash                number of hash functions.
+     * @return size of Bloom Filter or -1 if it is greater than {@link Long#MAX_VALUE}.
+     */
+    private static long getSizeForProbability(double probabilityOfFalsePositives, long expectedNumberOfElements,
+                                              int numberOfHash) {
+        double fillRatio = Math.exp(Math.log(probabilityOfFalsePositives) / numberOfHash);
+        double estimate = Math.ceil(-numberOfHash * (double) expectedNumberOfElements / Math.log1p(-fillRatio));
+        if (!(estimate < Long.MAX_VALUE)) {
+            return -1;
+        }
+        long low = Math.max(1, (long) estimate);
+        if (getProbabilityOfFalsePositives(low, expectedNumberOfElements, numberOfHash) <= probabilityOfFalsePositives) {
+            return low;
+        }
+        long step = 1;
+        long high;
+        while (true) {
+            if (low > Long.MAX_VALUE - step) {
+                return -1;
+            }
+            high = low + step;
+            if (getProbabilityOfFalsePositives(high, expectedNumberOfElements, numberOfHash) <= probabilityOfFalsePositives) {
+                break;
+            }
+            low = high;
+            step = step > Long.MAX_VALUE / 2 ? Long.MAX_VALUE : step * 2;
+        }
+        while (high - low > 1) {
+            long middle = low + (high - low) / 2;
+            if (getProbabilityOfFalsePositives(middle, expectedNumberOfElements, numberOfHash) <= probabilityOfFalsePositives) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * The forSize method enables you to get Bloom Filter with the lowest probability of false positives,
+     * which fits in memory budget.
+     *
+     * @param size                     size of Bloom Filter in bits.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @return parameters of Bloom Filter.
+     */
+    public static BloomFilterSpec forSize(long size, long expectedNumberOfElements) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        checkExpectedNumberOfElements(expectedNumberOfElements);
+        return new BloomFilterSpec(size, expectedNumberOfElements, getOptimalNumberOfHash(size, expectedNumberOfElements));
+    }
+
+    /**
+     * The of method enables you to get Bloom Filter with chosen size and number of hash functions.
+     *
+     * @param size                     size of Bloom Filter in bits.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param numberOfHash             number of hash functions.
+     * @return parameters of Bloom Filter.
+     */
+    public static BloomFilterSpec of(long size, long expectedNumberOfElements, int numberOfHash) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        checkExpectedNumberOfElements(expectedNumberOfElements);
+        if (numberOfHash <= 0) {
+            throw new IllegalArgumentException("Number of hash functions should be greater than 0!");
+        }
+        return new BloomFilterSpec(size, expectedNumberOfElements, numberOfHash);
+    }
+
+    private static void checkExpectedNumberOfElements(long expectedNumberOfElements) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+    }
+
+    /**
+     * The getOptimalNumberOfHash method enables you to get number of hash functions,
+     * which gives the lowest probability of false positives.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @return number of hash functions, at least 1.
+     */
+    static int getOptimalNumberOfHash(double size, double expectedNumberOfElements) {
+        double optimal = (size / expectedNumberOfElements) * Math.log(2);
+        int lower = (int) Math.max(1, Math.min(MAX_NUMBER_OF_HASH, Math.floor(optimal)));
+        int upper = (int) Math.max(1, Math.min(MAX_NUMBER_OF_HASH, Math.ceil(optimal)));
+        return getProbabilityOfFalsePositives(size, expectedNumberOfElements, upper)
+                <= getProbabilityOfFalsePositives(size, expectedNumberOfElements, lower) ? upper : lower;
+    }
+
+    /**
+     * The getOptimalSize method enables you to get size of Bloom Filter with optimal number of hash functions
+     * for target probability of false positives:
+     * m = (-n*ln(p))/(ln(2))^2.
+     *
+     * @param probabilityOfFalsePositives target probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @return size of Bloom Filter.
+     */
+    static long getOptimalSize(double probabilityOfFalsePositives, long expectedNumberOfElements) {
+        return (long) Math.ceil((-expectedNumberOfElements * Math.log(probabilityOfFalsePositives)) / Math.pow(Math.log(2), 2));
+    }
+
+    private static double getProbabilityOfFalsePositives(double size, double numberOfElements, int numberOfHash) {
+        return Math.pow(-Math.expm1(-numberOfHash * numberOfElements / size), numberOfHash);
+    }
+
+    /**
+     * The getSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter in bits.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    public long getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions.
+     *
+     * @return number of hash functions.
+     */
+    public int getNumberOfHash() {
+        return this.numberOfHash;
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives
+     * for expected number of elements.
+     *
+     * @return probability of false positives.
+     */
+    public double getProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(size, expectedNumberOfElements, numberOfHash);
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get bits per expected element.
+     *
+     * @return bits per element.
+     */
+    public double getBitsPerElement() {
+        return size / (double) expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfProbes method enables you to get expected number of bits checked by lookup
+     * of element, which was not inserted. Lookup stops at the first bit, which is not set:
+     * e = (1-q^k)/(1-q),
+     * where q = 1-e^(-kn/m) is ratio of set bits.
+     * Lookup of inserted element always checks k bits.
+     *
+     * @return expected number of bits checked by negative lookup.
+     */
+    public double getExpectedNumberOfProbes() {
+        double fillRatio = -Math.expm1(-numberOfHash * (double) expectedNumberOfElements / size);
+        if (fillRatio >= 1) {
+            return numberOfHash;
+        }
+        return (1 - Math.pow(fillRatio, numberOfHash)) / (1 - fillRatio);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BloomFilterSpec that = (BloomFilterSpec) o;
+        return size == that.size && expectedNumberOfElements == that.expectedNumberOfElements
+                && numberOfHash == that.numberOfHash;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (size ^ (size >>> 32));
+        result = 31 * result + (int) (expectedNumberOfElements ^ (expectedNumberOfElements >>> 32));
+        return 31 * result + numberOfHash;
+    }
+
+    @Override
+    public String toString() {
+        return "BloomFilterSpec{size=" + size + ", expectedNumberOfElements=" + expectedNumberOfElements
+                + ", numberOfHash=" + numberOfHash + ", probabilityOfFalsePositives=" + getProbabilityOfFalsePositives()
+                + "}";
+    }
+}
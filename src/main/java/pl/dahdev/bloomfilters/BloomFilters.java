@@ -0,0 +1,197 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Helper methods to build Bloom Filters from large sets of elements.
+ *
+ * Elements are divided by spliterator into parts, which are inserted in parallel by common fork-join pool.
+ * All tasks set bits in shared array of words with atomic OR, which is combined with Bloom Filter at the end.
+ *
+ * @author Damian Stygar
+ */
+public final class BloomFilters {
+
+    /**
+     * Number of elements, which are inserted by single task.
+     */
+    static final int ELEMENTS_PER_TASK = 1 << 12;
+
+    private BloomFilters() {
+    }
+
+    /**
+     * The buildParallel method enables you to create Bloom Filter with Double Hashing from stream of elements.
+     *
+     * @param elements elements to be inserted.
+     * @param spec     parameters of Bloom Filter.
+     * @param <E>      the type of elements in Bloom Filter.
+     * @return new Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> buildParallel(Stream<? extends E> elements, BloomFilterSpec spec) {
+        if (elements == null) {
+            throw new IllegalArgumentException("Stream of elements cannot be null!");
+        }
+        return buildParallel(elements.spliterator(), spec);
+    }
+
+    /**
+     * The buildParallel method enables you to create Bloom Filter with Double Hashing from elements of spliterator.
+     *
+     * @param elements elements to be inserted.
+     * @param spec     parameters of Bloom Filter.
+     * @param <E>      the type of elements in Bloom Filter.
+     * @return new Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> buildParallel(Spliterator<? extends E> elements, BloomFilterSpec spec) {
+        return buildParallel(elements, new DoubleHashBloomFilter<E>(spec));
+    }
+
+    /**
+     * The buildParallel method enables you to insert stream of elements to existing Bloom Filter.
+     *
+     * @param elements elements to be inserted.
+     * @param filter   Bloom Filter, which should not be changed by other threads during insertion.
+     * @param <E>      the type of elements in Bloom Filter.
+     * @return the given Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> buildParallel(Stream<? extends E> elements, AbstractBloomFilter<E> filter) {
+        if (elements == null) {
+            throw new IllegalArgumentException("Stream of elements cannot be null!");
+        }
+        return buildParallel(elements.spliterator(), filter);
+    }
+
+    /**
+     * The buildParallel method enables you to insert elements of spliterator to existing Bloom Filter.
+     *
+     * Spliterator should support splitting, otherwise elements are inserted by single thread.
+     *
+     * @param elements elements to be inserted.
+     * @param filter   Bloom Filter, which should not be changed by other threads during insertion.
+     * @param <E>      the type of elements in Bloom Filter.
+     * @return the given Bloom Filter.
+     */
+    public static <E> AbstractBloomFilter<E> buildParallel(Spliterator<? extends E> elements, AbstractBloomFilter<E> filter) {
+        if (elements == null) {
+            throw new IllegalArgumentException("Spliterator of elements cannot be null!");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Bloom Filter cannot be null!");
+        }
+        int numberOfWords = (int) (((long) filter.size + 63) >>> 6);
+        AtomicLongArray words = new AtomicLongArray(numberOfWords);
+        LongAdder numberOfElements = new LongAdder();
+        ForkJoinPool.commonPool().invoke(new InsertTask<E>(elements, filter, words, numberOfElements));
+
+        for (int i = 0; i < numberOfWords; i++) {
+            long word = words.get(i);
+            if (word != 0) {
+                filter.bitArray.setWord(i, filter.bitArray.getWord(i) | word);
+            }
+        }
+        long inserted = numberOfElements.sum();
+        filter.numberOfElements = (int) Math.min(Integer.MAX_VALUE, filter.numberOfElements + inserted);
+        filter.numberOfSetBits = filter.bitArray.cardinality();
+        BloomFilterMetrics metrics = filter.metrics;
+        if (metrics != null) {
+            metrics.recordAdds((int) Math.min(Integer.MAX_VALUE, inserted), filter.numberOfSetBits);
+        }
+        return filter;
+    }
+
+    private static final class InsertTask<E> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<? extends E> elements;
+        private final AbstractBloomFilter<E> filter;
+        private final AtomicLongArray words;
+        private final LongAdder numberOfElements;
+
+        private InsertTask(Spliterator<? extends E> elements, AbstractBloomFilter<E> filter, AtomicLongArray words,
+                           LongAdder numberOfElements) {
+            this.elements = elements;
+            this.filter = filter;
+            this.words = words;
+            this.numberOfElements = numberOfElements;
+        }
+
+        @Override
+        protected void compute() {
+            List<InsertTask<E>> forked = new ArrayList<InsertTask<E>>();
+            while (elements.estimateSize() > ELEMENTS_PER_TASK) {
+                Spliterator<? extends E> prefix = elements.trySplit();
+                if (prefix == null) {
+                    break;
+                }
+                InsertTask<E> task = new InsertTask<E>(prefix, filter, words, numberOfElements);
+                task.fork();
+                forked.add(task);
+            }
+            insertRemaining();
+            for (InsertTask<E> task : forked) {
+                task.join();
+            }
+        }
+
+        private void insertRemaining() {
+            final int numberOfHash = filter.numberOfHash;
+            final int[] hashes = new int[numberOfHash];
+            final long[] count = new long[1];
+            elements.forEachRemaining(new Consumer<E>() {
+                @Override
+                public void accept(E element) {
+                    ByteSink sink = ByteSink.threadSink();
+                    filter.funnel.funnel(element, sink);
+                    filter.createHashes(sink.getBuffer(), 0, sink.size(), numberOfHash, hashes, 0);
+                    for (int hash : hashes) {
+                        set(hash);
+                    }
+                    count[0]++;
+                }
+            });
+            numberOfElements.add(count[0]);
+        }
+
+        private void set(int index) {
+            int wordIndex = index >>> 6;
+            long mask = 1L << index;
+            long word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Implementation of bit storage backed by byte buffers.
+ *
+ * Storage can be kept outside of Java heap in direct buffers, or in memory-mapped file,
+ * so big Bloom Filters do not increase garbage collection pauses,
+ * and filter saved in file can be opened without inserting elements again.
+ * Words are stored in little-endian byte order, every buffer keeps at most 2^27 words (1 GB).
+ *
+ * @author Damian Stygar
+ */
+public class ByteBufferBitArray implements BitArray {
+
+    private static final int SEGMENT_SHIFT = 27;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final long size;
+    private final long numberOfWords;
+    private final ByteBuffer[] segments;
+
+    private ByteBufferBitArray(long size, ByteBuffer[] segments) {
+        this.size = size;
+        this.numberOfWords = (size + 63) >>> 6;
+        this.segments = segments;
+    }
+
+    /**
+     * The allocateDirect method enables you to create storage outside of Java heap.
+     *
+     * @param size number of bits.
+     * @return storage with all bits unset.
+     */
+    public static ByteBufferBitArray allocateDirect(long size) {
+        long numberOfWords = getNumberOfWords(size);
+        ByteBuffer[] segments = new ByteBuffer[getNumberOfSegments(numberOfWords)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(getSegmentLength(numberOfWords, i))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new ByteBufferBitArray(size, segments);
+    }
+
+    /**
+     * The map method enables you to create storage in memory-mapped file.
+     *
+     * If file does not exist, or it is too short, it is extended with unset bits.
+     * Changes are visible for every process which maps the same file.
+     *
+     * @param file file with bits.
+     * @param size number of bits.
+     * @return storage backed by file.
+     * @throws IOException when file cannot be mapped.
+     */
+    public static ByteBufferBitArray map(File file, long size) throws IOException {
+        return map(file, 0, size);
+    }
+
+    /**
+     * The map method enables you to create storage in memory-mapped file.
+     *
+     * If file does not exist, or it is too short, it is extended with unset bits.
+     * Changes are visible for every process which maps the same file.
+     *
+     * @param file     file with bits.
+     * @param position position of first word in file.
+     * @param size     number of bits.
+     * @return storage backed by file.
+     * @throws IOException when file cannot be mapped.
+     */
+    public static ByteBufferBitArray map(File file, long position, long size) throws IOException {
+        long numberOfWords = getNumberOfWords(size);
+        ByteBuffer[] segments = new ByteBuffer[getNumberOfSegments(numberOfWords)];
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            long length = position + numberOfWords * 8;
+            if (randomAccessFile.length() < length) {
+                randomAccessFile.setLength(length);
+            }
+            FileChannel channel = randomAccessFile.getChannel();
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        position + ((long) i << (SEGMENT_SHIFT + 3)), getSegmentLength(numberOfWords, i))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+        return new ByteBufferBitArray(size, segments);
+    }
+
+    /**
+     * The wrap method enables you to create storage backed by existing buffer.
+     *
+     * Words are read from current position of buffer, the position of buffer is not changed.
+     *
+     * @param buffer buffer with words.
+     * @param size   number of bits.
+     * @return storage backed by buffer.
+     */
+    public static ByteBufferBitArray wrap(ByteBuffer buffer, long size) {
+        long numberOfWords = getNumberOfWords(size);
+        if (buffer.remaining() < numberOfWords * 8) {
+            throw new IllegalArgumentException("Buffer is too small!");
+        }
+        ByteBuffer[] segments = new ByteBuffer[getNumberOfSegments(numberOfWords)];
+        for (int i = 0; i < segments.length; i++) {
+            ByteBuffer segment = buffer.duplicate();
+            int start = buffer.position() + (i << (SEGMENT_SHIFT + 3));
+            segment.position(start);
+            segment.limit(start + getSegmentLength(numberOfWords, i));
+            segments[i] = segment.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new ByteBufferBitArray(size, segments);
+    }
+
+    private static long getNumberOfWords(long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of bit array should be greater than 0!");
+        }
+        return (size + 63) >>> 6;
+    }
+
+    private static int getNumberOfSegments(long numberOfWords) {
+        return (int) ((numberOfWords + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    private static int getSegmentLength(long numberOfWords, int segment) {
+        long wordsLeft = numberOfWords - ((long) segment << SEGMENT_SHIFT);
+        return (int) Math.min(wordsLeft, SEGMENT_MASK + 1) * 8;
+    }
+
+    /**
+     * The force method enables you to write changes of memory-mapped file to storage device.
+     */
+    public void force() {
+        for (ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean get(long index) {
+        return (getWord(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean set(long index) {
+        long wordIndex = index >>> 6;
+        long word = getWord(wordIndex);
+        long newWord = word | (1L << index);
+        if (word == newWord) {
+            return false;
+        }
+        setWord(wordIndex, newWord);
+        return true;
+    }
+
+    @Override
+    public long getNumberOfWords() {
+        return numberOfWords;
+    }
+
+    @Override
+    public long getWord(long wordIndex) {
+        return segments[(int) (wordIndex >>> SEGMENT_SHIFT)].getLong(((int) wordIndex & SEGMENT_MASK) << 3);
+    }
+
+    @Override
+    public void setWord(long wordIndex, long word) {
+        segments[(int) (wordIndex >>> SEGMENT_SHIFT)].putLong(((int) wordIndex & SEGMENT_MASK) << 3, word);
+    }
+
+    @Override
+    public long cardinality() {
+        long result = 0;
+        for (long i = 0; i < numberOfWords; i++) {
+            result += Long.bitCount(getWord(i));
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        for (long i = 0; i < numberOfWords; i++) {
+            setWord(i, 0L);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable buffer for bytes of element written by {@link Funnel}.
+ *
+ * Numbers are written in little-endian byte order, strings are written as UTF-8 bytes,
+ * so the same element gives the same bytes on every platform.
+ *
+ * @author Damian Stygar
+ */
+public final class ByteSink {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final ThreadLocal<ByteSink> THREAD_SINK = new ThreadLocal<ByteSink>() {
+        @Override
+        protected ByteSink initialValue() {
+            return new ByteSink();
+        }
+    };
+
+    private byte[] buffer;
+    private int size;
+    private int[] hashes;
+    private final long[] hashPair = new long[2];
+
+    /**
+     * Byte sink constructor.
+     */
+    public ByteSink() {
+        this.buffer = new byte[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * The threadSink method enables you to get empty sink of current thread, so bytes of elements
+     * can be written without allocation.
+     *
+     * @return empty sink of current thread.
+     */
+    static ByteSink threadSink() {
+        return THREAD_SINK.get().reset();
+    }
+
+    /**
+     * The threadHashes method enables you to get array of current thread for positions of bits of single element,
+     * so positions can be computed without allocation. Array is reused by next call in the same thread.
+     *
+     * @param numberOfHash number of hash functions.
+     * @return array with at least given length.
+     */
+    static int[] threadHashes(int numberOfHash) {
+        ByteSink sink = THREAD_SINK.get();
+        if (sink.hashes == null || sink.hashes.length < numberOfHash) {
+            sink.hashes = new int[numberOfHash];
+        }
+        return sink.hashes;
+    }
+
+    /**
+     * The threadHashPair method enables you to get array of current thread for two hash values of single element.
+     *
+     * @return array with length 2.
+     */
+    static long[] threadHashPair() {
+        return THREAD_SINK.get().hashPair;
+    }
+
+    /**
+     * The putByte method enables you to write single byte.
+     *
+     * @param value byte to be written.
+     * @return this sink.
+     */
+    public ByteSink putByte(byte value) {
+        ensureCapacity(1);
+        buffer[size++] = value;
+        return this;
+    }
+
+    /**
+     * The putInt method enables you to write int as 4 bytes.
+     *
+     * @param value int to be written.
+     * @return this sink.
+     */
+    public ByteSink putInt(int value) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) value;
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 24);
+        return this;
+    }
+
+    /**
+     * The putLong method enables you to write long as 8 bytes.
+     *
+     * @param value long to be written.
+     * @return this sink.
+     */
+    public ByteSink putLong(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+        return this;
+    }
+
+    /**
+     * The putBytes method enables you to write bytes.
+     *
+     * @param bytes bytes to be written.
+     * @return this sink.
+     */
+    public ByteSink putBytes(byte[] bytes) {
+        return putBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The putBytes method enables you to write part of byte array.
+     *
+     * @param bytes  bytes to be written.
+     * @param offset the offset of first byte.
+     * @param length the number of bytes.
+     * @return this sink.
+     */
+    public ByteSink putBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * The putBytes method enables you to write remaining bytes of buffer, the position of buffer is not changed.
+     *
+     * @param bytes buffer with bytes to be written.
+     * @return this sink.
+     */
+    public ByteSink putBytes(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureCapacity(length);
+        bytes.duplicate().get(buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * The putString method enables you to write characters as UTF-8 bytes.
+     *
+     * Unpaired surrogate characters are written as '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @param value characters to be written.
+     * @return this sink.
+     */
+    public ByteSink putString(CharSequence value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            if (character < 0x80) {
+                ensureCapacity(1);
+                buffer[size++] = (byte) character;
+            } else if (character < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xC0 | (character >>> 6));
+                buffer[size++] = (byte) (0x80 | (character & 0x3F));
+            } else if (Character.isSurrogate(character)) {
+                if (Character.isHighSurrogate(character) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(character, value.charAt(++i));
+                    ensureCapacity(4);
+                    buffer[size++] = (byte) (0xF0 | (codePoint >>> 18));
+                    buffer[size++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+                    buffer[size++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+                    buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    ensureCapacity(1);
+                    buffer[size++] = (byte) '?';
+                }
+            } else {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xE0 | (character >>> 12));
+                buffer[size++] = (byte) (0x80 | ((character >>> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (character & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The reset method enables you to remove all written bytes.
+     *
+     * @return this sink.
+     */
+    public ByteSink reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * The size method enables you to get number of written bytes.
+     *
+     * @return number of written bytes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The toByteArray method enables you to get copy of written bytes.
+     *
+     * @return copy of written bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * The getBuffer method enables you to get internal buffer, written bytes are at its beginning.
+     *
+     * @return internal buffer.
+     */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (size + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalBytes));
+        }
+    }
+}
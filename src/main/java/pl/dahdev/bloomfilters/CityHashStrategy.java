@@ -0,0 +1,229 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Implementation of CityHash64 (version 1.1) hash strategy.
+ *
+ * The seed is mixed in the same way as CityHash64WithSeed does it.
+ * FarmHash uses the same building blocks, so the quality and speed of both are similar.
+ * The strategy is stateless, so it can be shared between threads.
+ *
+ * @author Damian Stygar
+ */
+public final class CityHashStrategy implements HashStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long K0 = 0xc3a5c85c97cb3127L;
+    private static final long K1 = 0xb492b66fbe98f273L;
+    private static final long K2 = 0x9ae16a3b2f90404fL;
+    private static final long K_MUL = 0x9ddfea08eb382d69L;
+
+    /**
+     * The hash method enables you to compute 64-bit hash value of bytes.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function.
+     * @return CityHash64WithSeed hash value.
+     */
+    @Override
+    public long hash(byte[] bytes, int offset, int length, long seed) {
+        return hashLen16(cityHash64(bytes, offset, length) - K2, seed);
+    }
+
+    private static long cityHash64(byte[] bytes, int offset, int length) {
+        if (length <= 32) {
+            if (length <= 16) {
+                return hashLen0to16(bytes, offset, length);
+            }
+            return hashLen17to32(bytes, offset, length);
+        } else if (length <= 64) {
+            return hashLen33to64(bytes, offset, length);
+        }
+
+        int end = offset + length;
+        long x = fetch64(bytes, end - 40);
+        long y = fetch64(bytes, end - 16) + fetch64(bytes, end - 56);
+        long z = hashLen16(fetch64(bytes, end - 48) + length, fetch64(bytes, end - 24));
+
+        long vFirst;
+        long vSecond;
+        long wFirst;
+        long wSecond;
+        long a;
+        long b;
+        long c;
+
+        // v = WeakHashLen32WithSeeds(s + len - 64, len, z)
+        a = length + fetch64(bytes, end - 64);
+        b = rotate(z + a + fetch64(bytes, end - 40), 21);
+        c = a;
+        a += fetch64(bytes, end - 56) + fetch64(bytes, end - 48);
+        b += rotate(a, 44);
+        vFirst = a + fetch64(bytes, end - 40);
+        vSecond = b + c;
+
+        // w = WeakHashLen32WithSeeds(s + len - 32, y + k1, x)
+        a = y + K1 + fetch64(bytes, end - 32);
+        b = rotate(x + a + fetch64(bytes, end - 8), 21);
+        c = a;
+        a += fetch64(bytes, end - 24) + fetch64(bytes, end - 16);
+        b += rotate(a, 44);
+        wFirst = a + fetch64(bytes, end - 8);
+        wSecond = b + c;
+
+        x = x * K1 + fetch64(bytes, offset);
+
+        int position = offset;
+        int remaining = (length - 1) & ~63;
+        do {
+            x = rotate(x + y + vFirst + fetch64(bytes, position + 8), 37) * K1;
+            y = rotate(y + vSecond + fetch64(bytes, position + 48), 42) * K1;
+            x ^= wSecond;
+            y += vFirst + fetch64(bytes, position + 40);
+            z = rotate(z + wFirst, 33) * K1;
+
+            // v = WeakHashLen32WithSeeds(s, v.second * k1, x + w.first)
+            a = vSecond * K1 + fetch64(bytes, position);
+            b = rotate(x + wFirst + a + fetch64(bytes, position + 24), 21);
+            c = a;
+            a += fetch64(bytes, position + 8) + fetch64(bytes, position + 16);
+            b += rotate(a, 44);
+            vFirst = a + fetch64(bytes, position + 24);
+            vSecond = b + c;
+
+            // w = WeakHashLen32WithSeeds(s + 32, z + w.second, y + fetch64(s + 16))
+            a = z + wSecond + fetch64(bytes, position + 32);
+            b = rotate(y + fetch64(bytes, position + 16) + a + fetch64(bytes, position + 56), 21);
+            c = a;
+            a += fetch64(bytes, position + 40) + fetch64(bytes, position + 48);
+            b += rotate(a, 44);
+            wFirst = a + fetch64(bytes, position + 56);
+            wSecond = b + c;
+
+            long swap = z;
+            z = x;
+            x = swap;
+
+            position += 64;
+            remaining -= 64;
+        } while (remaining != 0);
+
+        return hashLen16(hashLen16(vFirst, wFirst) + shiftMix(y) * K1 + z,
+                hashLen16(vSecond, wSecond) + x);
+    }
+
+    private static long hashLen0to16(byte[] bytes, int offset, int length) {
+        if (length >= 8) {
+            long mul = K2 + length * 2L;
+            long a = fetch64(bytes, offset) + K2;
+            long b = fetch64(bytes, offset + length - 8);
+            long c = rotate(b, 37) * mul + a;
+            long d = (rotate(a, 25) + b) * mul;
+            return hashLen16(c, d, mul);
+        }
+        if (length >= 4) {
+            long mul = K2 + length * 2L;
+            long a = LittleEndian.getUnsignedInt(bytes, offset);
+            return hashLen16(length + (a << 3), LittleEndian.getUnsignedInt(bytes, offset + length - 4), mul);
+        }
+        if (length > 0) {
+            int a = bytes[offset] & 0xFF;
+            int b = bytes[offset + (length >>> 1)] & 0xFF;
+            int c = bytes[offset + length - 1] & 0xFF;
+            long y = (a + (b << 8)) & 0xFFFFFFFFL;
+            long z = (length + (c << 2)) & 0xFFFFFFFFL;
+            return shiftMix(y * K2 ^ z * K0) * K2;
+        }
+        return K2;
+    }
+
+    private static long hashLen17to32(byte[] bytes, int offset, int length) {
+        long mul = K2 + length * 2L;
+        long a = fetch64(bytes, offset) * K1;
+        long b = fetch64(bytes, offset + 8);
+        long c = fetch64(bytes, offset + length - 8) * mul;
+        long d = fetch64(bytes, offset + length - 16) * K2;
+        return hashLen16(rotate(a + b, 43) + rotate(c, 30) + d, a + rotate(b + K2, 18) + c, mul);
+    }
+
+    private static long hashLen33to64(byte[] bytes, int offset, int length) {
+        long mul = K2 + length * 2L;
+        long a = fetch64(bytes, offset) * K2;
+        long b = fetch64(bytes, offset + 8);
+        long c = fetch64(bytes, offset + length - 24);
+        long d = fetch64(bytes, offset + length - 32);
+        long e = fetch64(bytes, offset + 16) * K2;
+        long f = fetch64(bytes, offset + 24) * 9;
+        long g = fetch64(bytes, offset + length - 8);
+        long h = fetch64(bytes, offset + length - 16) * mul;
+        long u = rotate(a + g, 43) + (rotate(b, 30) + c) * 9;
+        long v = ((a + g) ^ d) + f + 1;
+        long w = Long.reverseBytes((u + v) * mul) + h;
+        long x = rotate(e + f, 42) + c;
+        long y = (Long.reverseBytes((v + w) * mul) + g) * mul;
+        long z = e + f + c;
+        a = Long.reverseBytes((x + z) * mul + y) + b;
+        b = shiftMix((z + a) * mul + d + h) * mul;
+        return b + x;
+    }
+
+    private static long hashLen16(long u, long v) {
+        return hashLen16(u, v, K_MUL);
+    }
+
+    private static long hashLen16(long u, long v, long mul) {
+        long a = (u ^ v) * mul;
+        a ^= (a >>> 47);
+        long b = (v ^ a) * mul;
+        b ^= (b >>> 47);
+        b *= mul;
+        return b;
+    }
+
+    private static long fetch64(byte[] bytes, int offset) {
+        return LittleEndian.getLong(bytes, offset);
+    }
+
+    private static long rotate(long value, int shift) {
+        return Long.rotateRight(value, shift);
+    }
+
+    private static long shiftMix(long value) {
+        return value ^ (value >>> 47);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,392 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of thread-safe Bloom Filter.
+ *
+ * Bits are kept in array of atomic longs and are set with compare-and-set operations,
+ * so elements can be added and checked by many threads at the same time without locks.
+ * Positions of bits are generated with Double Hashing from two 64-bit hash values
+ * computed by hash strategy, which should be safe to use by many threads.
+ *
+ * A Bloom filter is a space-efficient probabilistic data structure
+ * that is used to test whether an element is a member of a set.
+ * A query returns either "possibly in set" or "definitely not in set".
+ * Elements can be added to the set, but not removed.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class ConcurrentBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final int size;
+    private final int expectedNumberOfElements;
+    private final int numberOfHash;
+    private final double bitsPerElement;
+    private final HashStrategy hashStrategy;
+    private final AtomicLongArray bits;
+    private final LongAdder numberOfElements;
+
+    /**
+     * Concurrent Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     */
+    public ConcurrentBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Concurrent Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy                hash strategy, which can be used by many threads.
+     */
+    public ConcurrentBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                                 HashStrategy hashStrategy) {
+        this(
+                (int) Math.ceil((-expectedNumberOfElements * Math.log(probabilityOfFalsePositives)) / Math.pow(Math.log(2), 2)),
+                expectedNumberOfElements,
+                hashStrategy
+        );
+    }
+
+    /**
+     * Concurrent Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     */
+    public ConcurrentBloomFilter(int size, int expectedNumberOfElements) {
+        this(size, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Concurrent Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Size of Bloom Filter and number of expected elements should be greater than 0.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy             hash strategy, which can be used by many threads.
+     */
+    public ConcurrentBloomFilter(int size, int expectedNumberOfElements, HashStrategy hashStrategy) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        this.size = size;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(size, expectedNumberOfElements);
+        this.bitsPerElement = size / (double) expectedNumberOfElements;
+        this.hashStrategy = hashStrategy;
+        this.bits = new AtomicLongArray((size + 63) >>> 6);
+        this.numberOfElements = new LongAdder();
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        addHashes(hashStrategy.hash(bytes, offset, length, 0), hashStrategy.hash(bytes, offset, length, 1));
+    }
+
+    /**
+     * The addHashes method enables you to insert element, which hash values are already computed.
+     *
+     * @param hashA hash value of element computed with seed 0.
+     * @param hashB hash value of element computed with seed 1.
+     */
+    void addHashes(long hashA, long hashB) {
+        for (int i = 0; i < numberOfHash; i++) {
+            setBit(IndexMapping.MULTIPLY_SHIFT.map(hashA + i * hashB, size));
+        }
+        numberOfElements.increment();
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return contains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The contains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    private boolean contains(byte[] bytes, int offset, int length) {
+        return containsHashes(hashStrategy.hash(bytes, offset, length, 0), hashStrategy.hash(bytes, offset, length, 1));
+    }
+
+    /**
+     * The containsHashes method enables you to check element, which hash values are already computed.
+     *
+     * @param hashA hash value of element computed with seed 0.
+     * @param hashB hash value of element computed with seed 1.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    boolean containsHashes(long hashA, long hashB) {
+        for (int i = 0; i < numberOfHash; i++) {
+            if (!getBit(IndexMapping.MULTIPLY_SHIFT.map(hashA + i * hashB, size))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    private void setBit(int index) {
+        int wordIndex = index >>> 6;
+        long mask = 1L << index;
+        long word;
+        do {
+            word = bits.get(wordIndex);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(wordIndex, word, word | mask));
+    }
+
+    private boolean getBit(int index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(expectedNumberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(getNumberOfElements());
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return Math.pow((1 - Math.exp(-numberOfHash * numberOfElements / (double) size)), numberOfHash);
+    }
+
+    /**
+     * The getSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter.
+     */
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter.
+     *
+     * Elements added by other threads during clearing may be partially removed.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+        numberOfElements.reset();
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if Bloom Filter is empty.
+     * False, if Bloom Filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfElements.sum() == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return (int) numberOfElements.sum();
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return this.bitsPerElement;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        int elements = getNumberOfElements();
+        if (elements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return this.size / (double) elements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return this.numberOfHash;
+    }
+
+}
@@ -0,0 +1,530 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Implementation of counting Bloom Filter, which enables you to remove elements.
+ *
+ * Each position has small counter instead of single bit. Counters are packed in array of longs,
+ * so counting Bloom Filter with 4-bit counters takes 4 times more memory than Bloom Filter of the same size.
+ * Positions of counters are generated with chosen hashing method from hash values computed by hash strategy.
+ *
+ * Counter, which reaches its maximum value, stays saturated: it is neither incremented nor decremented,
+ * because its real value is unknown. Removing elements never causes false negatives then,
+ * but positions of saturated counters cannot be freed. Number of lost increments is available
+ * by {@link #getNumberOfOverflows()}.
+ *
+ * Only elements, which were added, should be removed. Removing element, which was not added,
+ * but is false positive, can remove other elements.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class CountingBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default number of bits of counter.
+     */
+    public static final int DEFAULT_COUNTER_WIDTH = 4;
+
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final int size;
+    private final int expectedNumberOfElements;
+    private final int numberOfHash;
+    private final double bitsPerElement;
+    private final int counterWidth;
+    private final int countersPerWord;
+    private final long counterMask;
+    private final HashingMethod hashingMethod;
+    private final HashStrategy hashStrategy;
+    private final long[] words;
+    private int numberOfElements;
+    private long numberOfOverflows;
+
+    /**
+     * Counting Bloom filter constructor with 4-bit counters and Double Hashing.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     */
+    public CountingBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_COUNTER_WIDTH,
+                HashingMethod.DOUBLE, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Counting Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param counterWidth                number of bits of counter: 2, 4, 8, 16 or 32.
+     * @param hashingMethod               method of generating positions of counters.
+     * @param hashStrategy                hash strategy.
+     */
+    public CountingBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements, int counterWidth,
+                               HashingMethod hashingMethod, HashStrategy hashStrategy) {
+        this(
+                (int) Math.ceil((-expectedNumberOfElements * Math.log(probabilityOfFalsePositives)) / Math.pow(Math.log(2), 2)),
+                expectedNumberOfElements,
+                counterWidth,
+                hashingMethod,
+                hashStrategy
+        );
+    }
+
+    /**
+     * Counting Bloom filter constructor with 4-bit counters and Double Hashing.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * @param size                     size of Bloom Filter (number of counters).
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     */
+    public CountingBloomFilter(int size, int expectedNumberOfElements) {
+        this(size, expectedNumberOfElements, DEFAULT_COUNTER_WIDTH, HashingMethod.DOUBLE, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Counting Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Size of Bloom Filter and number of expected elements should be greater than 0.
+     *
+     * @param size                     size of Bloom Filter (number of counters).
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param counterWidth             number of bits of counter: 2, 4, 8, 16 or 32.
+     * @param hashingMethod            method of generating positions of counters.
+     * @param hashStrategy             hash strategy.
+     */
+    public CountingBloomFilter(int size, int expectedNumberOfElements, int counterWidth,
+                               HashingMethod hashingMethod, HashStrategy hashStrategy) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        if (counterWidth < 2 || counterWidth > 32 || Integer.bitCount(counterWidth) != 1) {
+            throw new IllegalArgumentException("Width of counter should be 2, 4, 8, 16 or 32!");
+        }
+        if (hashingMethod == null) {
+            throw new IllegalArgumentException("Hashing method cannot be null!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        this.size = size;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(size, expectedNumberOfElements);
+        this.bitsPerElement = size / (double) expectedNumberOfElements;
+        this.counterWidth = counterWidth;
+        this.countersPerWord = 64 / counterWidth;
+        this.counterMask = (1L << counterWidth) - 1;
+        this.hashingMethod = hashingMethod;
+        this.hashStrategy = hashStrategy;
+        this.words = new long[(int) ((size + (long) countersPerWord - 1) / countersPerWord)];
+        this.numberOfElements = 0;
+        this.numberOfOverflows = 0;
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        for (int position : createHashes(bytes, offset, length)) {
+            increment(position);
+        }
+        numberOfElements++;
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The remove method enables you to delete element from Bloom Filter.
+     *
+     * @param element an element to be deleted from Bloom Filter.
+     * @return True if element was deleted.
+     * False if Bloom Filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return remove(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The remove method enables you to delete element from Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be deleted from Bloom Filter.
+     * @return True if element was deleted.
+     * False if Bloom Filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(byte[] bytes) {
+        return remove(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The remove method enables you to delete element from Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be deleted from Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if element was deleted.
+     * False if Bloom Filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(byte[] bytes, int offset, int length) {
+        int[] positions = createHashes(bytes, offset, length);
+        for (int position : positions) {
+            if (getCounter(position) == 0) {
+                return false;
+            }
+        }
+        for (int position : positions) {
+            decrement(position);
+        }
+        if (numberOfElements > 0) {
+            numberOfElements--;
+        }
+        return true;
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if all counters in Bloom Filter are greater than 0 (Remember that can be false positive result).
+     * False if at least one counter is 0.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all counters in Bloom Filter are greater than 0 (Remember that can be false positive result).
+     * False if at least one counter is 0.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        for (int position : createHashes(bytes, offset, length)) {
+            if (getCounter(position) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The createHashes method enables you to create positions of counters.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte of data.
+     * @param length the number of bytes of data.
+     * @return int array with positions of counters.
+     */
+    int[] createHashes(byte[] bytes, int offset, int length) {
+        int valueA = IndexMapping.MULTIPLY_SHIFT.map(hashStrategy.hash(bytes, offset, length, 0), size);
+        int valueB = IndexMapping.MULTIPLY_SHIFT.map(hashStrategy.hash(bytes, offset, length, 1), size);
+        int valueC = hashingMethod.getNumberOfHashValues() > 2
+                ? IndexMapping.MULTIPLY_SHIFT.map(hashStrategy.hash(bytes, offset, length, 2), size)
+                : 0;
+        int[] hashes = new int[numberOfHash];
+        hashingMethod.createHashes(valueA, valueB, valueC, size, numberOfHash, hashes, 0);
+        return hashes;
+    }
+
+    /**
+     * The getCounter method enables you to get value of counter.
+     *
+     * @param position position of counter.
+     * @return value of counter.
+     */
+    int getCounter(int position) {
+        return (int) ((words[position / countersPerWord] >>> getShift(position)) & counterMask);
+    }
+
+    private void increment(int position) {
+        int wordIndex = position / countersPerWord;
+        int shift = getShift(position);
+        if (((words[wordIndex] >>> shift) & counterMask) == counterMask) {
+            numberOfOverflows++;
+            return;
+        }
+        words[wordIndex] += 1L << shift;
+    }
+
+    private void decrement(int position) {
+        int wordIndex = position / countersPerWord;
+        int shift = getShift(position);
+        long counter = (words[wordIndex] >>> shift) & counterMask;
+        if (counter == 0 || counter == counterMask) {
+            return;
+        }
+        words[wordIndex] -= 1L << shift;
+    }
+
+    private int getShift(int position) {
+        return (position % countersPerWord) * counterWidth;
+    }
+
+    /**
+     * The getNumberOfOverflows method enables you to get number of increments lost by saturated counters.
+     *
+     * @return number of lost increments.
+     */
+    public long getNumberOfOverflows() {
+        return this.numberOfOverflows;
+    }
+
+    /**
+     * The hasOverflowed method enables you to check if any counter was saturated.
+     *
+     * @return True if at least one increment was lost, so some positions cannot be freed by removing elements.
+     * False otherwise.
+     */
+    public boolean hasOverflowed() {
+        return this.numberOfOverflows > 0;
+    }
+
+    /**
+     * The getCounterWidth method enables you to get number of bits of counter.
+     *
+     * @return number of bits of counter.
+     */
+    public int getCounterWidth() {
+        return this.counterWidth;
+    }
+
+    /**
+     * The getHashingMethod method enables you to get method of generating positions of counters.
+     *
+     * @return method of generating positions of counters.
+     */
+    public HashingMethod getHashingMethod() {
+        return this.hashingMethod;
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(expectedNumberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return Math.pow((1 - Math.exp(-numberOfHash * numberOfElements / (double) size)), numberOfHash);
+    }
+
+    /**
+     * The getSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter (number of counters).
+     */
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        numberOfElements = 0;
+        numberOfOverflows = 0;
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if Bloom Filter is empty.
+     * False, if Bloom Filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfElements == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return this.bitsPerElement;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return this.size / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return this.numberOfHash;
+    }
+
+}
@@ -0,0 +1,682 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of cuckoo filter, which is alternative to Bloom Filter enabling you to remove elements.
+ *
+ * Cuckoo filter keeps short fingerprints of elements in table of buckets with 4 slots.
+ * Each element has two candidate buckets: i1 = h(x) and i2 = (h(f) - i1) mod m, where f is fingerprint of element,
+ * m is number of buckets, so element is checked in two buckets only. Alternate bucket is computed from fingerprint,
+ * so number of buckets does not have to be a power of 2. When both buckets are full, random fingerprint is kicked out
+ * to its other bucket. After 500 kicks the last fingerprint is kept in victim stash and the filter is full.
+ * Fingerprints are packed in array of longs.
+ *
+ * Probability of false positives is approximately:
+ * p = 1-(1-1/(2^f-1))^(8a),
+ * where f is number of bits of fingerprint, a is load factor of table.
+ * For probabilities below 1% cuckoo filter uses less memory than Bloom Filter.
+ *
+ * With semi-sorting, fingerprints in bucket are sorted by their lowest 4 bits, which are encoded together
+ * in 12 bits instead of 16, so each fingerprint takes one bit less.
+ *
+ * Only elements, which were added, should be removed. Removing element, which was not added,
+ * but is false positive, can remove other elements.
+ *
+ * @param <E> - the type of elements in this filter.
+ * @author Damian Stygar
+ */
+public class CuckooFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of slots in bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * Maximum number of fingerprints kicked out during single insertion.
+     */
+    public static final int MAX_KICKS = 500;
+
+    private static final double MAX_LOAD_FACTOR = 0.95;
+    private static final int MAX_NUMBER_OF_BUCKETS = 1 << 30;
+    private static final int SEMI_SORT_BITS = 12;
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    /**
+     * Sorted 4-tuples of nibbles (packed in 16 bits) by their 12-bit code.
+     */
+    private static final char[] DECODE_TABLE = new char[3876];
+    /**
+     * 12-bit codes by sorted 4-tuples of nibbles (packed in 16 bits).
+     */
+    private static final short[] ENCODE_TABLE = new short[1 << 16];
+
+    static {
+        int code = 0;
+        for (int a = 0; a < 16; a++) {
+            for (int b = a; b < 16; b++) {
+                for (int c = b; c < 16; c++) {
+                    for (int d = c; d < 16; d++) {
+                        int packed = a | (b << 4) | (c << 8) | (d << 12);
+                        DECODE_TABLE[code] = (char) packed;
+                        ENCODE_TABLE[packed] = (short) code;
+                        code++;
+                    }
+                }
+            }
+        }
+    }
+
+    private final int expectedNumberOfElements;
+    private final int fingerprintBits;
+    private final int fingerprintMask;
+    private final boolean semiSorting;
+    private final int bucketBits;
+    private final int numberOfBuckets;
+    private final HashStrategy hashStrategy;
+    private final long[] words;
+    private int numberOfElements;
+    private int victimFingerprint;
+    private int victimIndex;
+
+    /**
+     * Cuckoo filter constructor.
+     *
+     * Number of bits of fingerprint is estimated from:
+     * f = log2(2b/p),
+     * where b is number of slots in bucket, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to filter.
+     */
+    public CuckooFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, false, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Cuckoo filter constructor.
+     *
+     * Number of bits of fingerprint is estimated from:
+     * f = log2(2b/p),
+     * where b is number of slots in bucket, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to filter.
+     * @param semiSorting                 true if fingerprints should be compressed by semi-sorting.
+     * @param hashStrategy                hash strategy.
+     */
+    public CuckooFilter(double probabilityOfFalsePositives, int expectedNumberOfElements, boolean semiSorting,
+                        HashStrategy hashStrategy) {
+        this(getFingerprintBits(probabilityOfFalsePositives, semiSorting), expectedNumberOfElements,
+                semiSorting, hashStrategy);
+    }
+
+    /**
+     * Cuckoo filter constructor.
+     *
+     * Number of buckets is the smallest one, which keeps load factor below 95%.
+     *
+     * @param fingerprintBits          number of bits of fingerprint, between 4 (5 with semi-sorting) and 32.
+     * @param expectedNumberOfElements expected number of elements to be inserted to filter.
+     * @param semiSorting              true if fingerprints should be compressed by semi-sorting.
+     * @param hashStrategy             hash strategy.
+     */
+    public CuckooFilter(int fingerprintBits, int expectedNumberOfElements, boolean semiSorting,
+                        HashStrategy hashStrategy) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (fingerprintBits < (semiSorting ? 5 : 4) || fingerprintBits > 32) {
+            throw new IllegalArgumentException("Number of bits of fingerprint should be between "
+                    + (semiSorting ? 5 : 4) + " and 32!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        long minNumberOfBuckets = (long) Math.ceil(expectedNumberOfElements / (BUCKET_SIZE * MAX_LOAD_FACTOR));
+        if (minNumberOfBuckets > MAX_NUMBER_OF_BUCKETS) {
+            throw new IllegalArgumentException("Expected number of elements is too large!");
+        }
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (int) ((1L << fingerprintBits) - 1);
+        this.semiSorting = semiSorting;
+        this.bucketBits = semiSorting ? SEMI_SORT_BITS + BUCKET_SIZE * (fingerprintBits - 4)
+                : BUCKET_SIZE * fingerprintBits;
+        this.numberOfBuckets = (int) minNumberOfBuckets;
+        this.hashStrategy = hashStrategy;
+        this.words = new long[(int) (((long) numberOfBuckets * bucketBits + 63) >>> 6) + 1];
+    }
+
+    private static int getFingerprintBits(double probabilityOfFalsePositives, boolean semiSorting) {
+        if (probabilityOfFalsePositives <= 0 || probabilityOfFalsePositives >= 1) {
+            throw new IllegalArgumentException("Probability of false positives should be between 0 and 1!");
+        }
+        int fingerprintBits = (int) Math.ceil(Math.log(2 * BUCKET_SIZE / probabilityOfFalsePositives) / Math.log(2));
+        return Math.min(32, Math.max(semiSorting ? 5 : 4, fingerprintBits));
+    }
+
+    /**
+     * The add method enables you to insert element to filter.
+     *
+     * @param element an element to be inserted to filter.
+     * @throws IllegalStateException when filter is full.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to filter.
+     *
+     * @param bytes the bytes array of element to be inserted to filter.
+     * @throws IllegalStateException when filter is full.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @throws IllegalStateException when filter is full.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        if (isFull()) {
+            throw new IllegalStateException("Cuckoo Filter is full!");
+        }
+        long hash = hashStrategy.hash(bytes, offset, length, 0);
+        int fingerprint = getFingerprint(hash);
+        int index = getIndex(hash);
+        numberOfElements++;
+        place(index, fingerprint);
+    }
+
+    /**
+     * The place method enables you to put fingerprint in one of its buckets, kicking out other fingerprints.
+     * Fingerprint, which cannot be placed after {@link #MAX_KICKS} kicks, is kept in victim stash.
+     *
+     * @param index       index of one of buckets of fingerprint.
+     * @param fingerprint fingerprint of element.
+     */
+    private void place(int index, int fingerprint) {
+        if (insert(index, fingerprint) || insert(getAlternateIndex(index, fingerprint), fingerprint)) {
+            return;
+        }
+        int[] fingerprints = new int[BUCKET_SIZE];
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            index = getAlternateIndex(index, fingerprint);
+        }
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = ThreadLocalRandom.current().nextInt(BUCKET_SIZE);
+            readBucket(index, fingerprints);
+            int kicked = fingerprints[slot];
+            fingerprints[slot] = fingerprint;
+            writeBucket(index, fingerprints);
+            fingerprint = kicked;
+            index = getAlternateIndex(index, fingerprint);
+            if (insert(index, fingerprint)) {
+                return;
+            }
+        }
+        victimFingerprint = fingerprint;
+        victimIndex = index;
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to filter.
+     *
+     * @param collection a collection with elements to be inserted to filter.
+     * @throws IllegalStateException when filter is full.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The remove method enables you to delete element from filter.
+     *
+     * @param element an element to be deleted from filter.
+     * @return True if element was deleted.
+     * False if filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return remove(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The remove method enables you to delete element from filter.
+     *
+     * @param bytes the bytes array of element to be deleted from filter.
+     * @return True if element was deleted.
+     * False if filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(byte[] bytes) {
+        return remove(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The remove method enables you to delete element from filter without copying bytes.
+     *
+     * Fingerprint from victim stash is moved back to table, when slot is freed.
+     *
+     * @param bytes  the bytes array contains element to be deleted from filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if element was deleted.
+     * False if filter cannot contains element, then nothing is changed.
+     */
+    public boolean remove(byte[] bytes, int offset, int length) {
+        long hash = hashStrategy.hash(bytes, offset, length, 0);
+        int fingerprint = getFingerprint(hash);
+        int index = getIndex(hash);
+        int alternateIndex = getAlternateIndex(index, fingerprint);
+        if (delete(index, fingerprint) || delete(alternateIndex, fingerprint)) {
+            numberOfElements--;
+            if (isFull()) {
+                int victim = victimFingerprint;
+                victimFingerprint = 0;
+                place(victimIndex, victim);
+            }
+            return true;
+        }
+        if (isFull() && victimFingerprint == fingerprint && (victimIndex == index || victimIndex == alternateIndex)) {
+            victimFingerprint = 0;
+            numberOfElements--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if filter can contains element (Remember that can be false positive result).
+     * False if filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if fingerprint of element is in one of its buckets (Remember that can be false positive result).
+     * False otherwise.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if filter may contains element without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if fingerprint of element is in one of its buckets (Remember that can be false positive result).
+     * False otherwise.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        long hash = hashStrategy.hash(bytes, offset, length, 0);
+        int fingerprint = getFingerprint(hash);
+        int index = getIndex(hash);
+        int alternateIndex = getAlternateIndex(index, fingerprint);
+        if (contains(index, fingerprint) || contains(alternateIndex, fingerprint)) {
+            return true;
+        }
+        return isFull() && victimFingerprint == fingerprint && (victimIndex == index || victimIndex == alternateIndex);
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if filter can contains each element (Remember that can be false positive result).
+     * False if filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    private int getFingerprint(long hash) {
+        int fingerprint = (int) hash & fingerprintMask;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private int getIndex(long hash) {
+        return IndexMapping.MULTIPLY_SHIFT.map(hash, numberOfBuckets);
+    }
+
+    private int getAlternateIndex(int index, int fingerprint) {
+        int alternateIndex = IndexMapping.MULTIPLY_SHIFT.map((fingerprint & 0xFFFFFFFFL) * 0xC4CEB9FE1A85EC53L,
+                numberOfBuckets) - index;
+        return alternateIndex < 0 ? alternateIndex + numberOfBuckets : alternateIndex;
+    }
+
+    private boolean contains(int index, int fingerprint) {
+        if (!semiSorting) {
+            long position = (long) index * bucketBits;
+            for (int slot = 0; slot < BUCKET_SIZE; slot++, position += fingerprintBits) {
+                if (readBits(position, fingerprintBits) == fingerprint) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int[] fingerprints = new int[BUCKET_SIZE];
+        readBucket(index, fingerprints);
+        for (int slot = 0; slot < BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean insert(int index, int fingerprint) {
+        int[] fingerprints = new int[BUCKET_SIZE];
+        readBucket(index, fingerprints);
+        for (int slot = 0; slot < BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == 0) {
+                fingerprints[slot] = fingerprint;
+                writeBucket(index, fingerprints);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean delete(int index, int fingerprint) {
+        int[] fingerprints = new int[BUCKET_SIZE];
+        readBucket(index, fingerprints);
+        for (int slot = 0; slot < BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == fingerprint) {
+                fingerprints[slot] = 0;
+                writeBucket(index, fingerprints);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void readBucket(int index, int[] fingerprints) {
+        long position = (long) index * bucketBits;
+        if (!semiSorting) {
+            for (int slot = 0; slot < BUCKET_SIZE; slot++, position += fingerprintBits) {
+                fingerprints[slot] = readBits(position, fingerprintBits);
+            }
+            return;
+        }
+        int lowBits = DECODE_TABLE[readBits(position, SEMI_SORT_BITS)];
+        position += SEMI_SORT_BITS;
+        int highBits = fingerprintBits - 4;
+        for (int slot = 0; slot < BUCKET_SIZE; slot++, position += highBits) {
+            fingerprints[slot] = (readBits(position, highBits) << 4) | ((lowBits >>> (slot * 4)) & 0xF);
+        }
+    }
+
+    private void writeBucket(int index, int[] fingerprints) {
+        long position = (long) index * bucketBits;
+        if (!semiSorting) {
+            for (int slot = 0; slot < BUCKET_SIZE; slot++, position += fingerprintBits) {
+                writeBits(position, fingerprintBits, fingerprints[slot]);
+            }
+            return;
+        }
+        for (int i = 1; i < BUCKET_SIZE; i++) {
+            int fingerprint = fingerprints[i];
+            int j = i - 1;
+            while (j >= 0 && (fingerprints[j] & 0xF) > (fingerprint & 0xF)) {
+                fingerprints[j + 1] = fingerprints[j];
+                j--;
+            }
+            fingerprints[j + 1] = fingerprint;
+        }
+        int lowBits = 0;
+        for (int slot = 0; slot < BUCKET_SIZE; slot++) {
+            lowBits |= (fingerprints[slot] & 0xF) << (slot * 4);
+        }
+        writeBits(position, SEMI_SORT_BITS, ENCODE_TABLE[lowBits]);
+        position += SEMI_SORT_BITS;
+        int highBits = fingerprintBits - 4;
+        for (int slot = 0; slot < BUCKET_SIZE; slot++, position += highBits) {
+            writeBits(position, highBits, fingerprints[slot] >>> 4);
+        }
+    }
+
+    private int readBits(long position, int length) {
+        int wordIndex = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        long value = words[wordIndex] >>> shift;
+        if (shift + length > 64) {
+            value |= words[wordIndex + 1] << (64 - shift);
+        }
+        return (int) (value & ((1L << length) - 1));
+    }
+
+    private void writeBits(long position, int length, int value) {
+        int wordIndex = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        long mask = (1L << length) - 1;
+        long bits = value & mask;
+        words[wordIndex] = (words[wordIndex] & ~(mask << shift)) | (bits << shift);
+        if (shift + length > 64) {
+            int remaining = 64 - shift;
+            words[wordIndex + 1] = (words[wordIndex + 1] & ~(mask >>> remaining)) | (bits >>> remaining);
+        }
+    }
+
+    /**
+     * The isFull method enables you to check if filter is full.
+     *
+     * @return True if fingerprint is kept in victim stash, so no more elements can be inserted.
+     * False otherwise.
+     */
+    public boolean isFull() {
+        return victimFingerprint != 0;
+    }
+
+    /**
+     * The getFingerprintBits method enables you to get number of bits of fingerprint.
+     *
+     * @return number of bits of fingerprint.
+     */
+    public int getFingerprintBits() {
+        return this.fingerprintBits;
+    }
+
+    /**
+     * The isSemiSorting method enables you to check if fingerprints are compressed by semi-sorting.
+     *
+     * @return True if fingerprints are compressed by semi-sorting.
+     * False otherwise.
+     */
+    public boolean isSemiSorting() {
+        return this.semiSorting;
+    }
+
+    /**
+     * The getNumberOfBuckets method enables you to get number of buckets.
+     *
+     * @return number of buckets.
+     */
+    public int getNumberOfBuckets() {
+        return this.numberOfBuckets;
+    }
+
+    /**
+     * The getLoadFactor method enables you to get ratio of occupied slots.
+     *
+     * @return ratio of occupied slots.
+     */
+    public double getLoadFactor() {
+        return numberOfElements / ((double) numberOfBuckets * BUCKET_SIZE);
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(expectedNumberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        double loadFactor = Math.min(1, numberOfElements / ((double) numberOfBuckets * BUCKET_SIZE));
+        double numberOfFingerprints = (double) ((1L << fingerprintBits) - 1);
+        return -Math.expm1(2 * BUCKET_SIZE * loadFactor * Math.log1p(-1 / numberOfFingerprints));
+    }
+
+    /**
+     * The getSize method enables you to get size of filter.
+     *
+     * @return size of filter in bits, at most {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) numberOfBuckets * bucketBits);
+    }
+
+    /**
+     * The clear method enables you to delete all elements from filter.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        numberOfElements = 0;
+        victimFingerprint = 0;
+    }
+
+    /**
+     * The isEmpty method enables you to check if filter is empty.
+     *
+     * @return True, if filter is empty.
+     * False, if filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return numberOfElements == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return getSize() / (double) expectedNumberOfElements;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return getSize() / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of buckets checked for element.
+     *
+     * @return number of buckets checked for element.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return 2;
+    }
+}
@@ -24,7 +24,6 @@
 package pl.dahdev.bloomfilters;
 
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * Implementation of Bloom Filter using Enhanced Double Hashing.
@@ -39,11 +38,10 @@ import java.security.NoSuchAlgorithmException;
  */
 public class EnhancedDoubleHashBloomFilter<E> extends AbstractBloomFilter<E> {
 
-    private static final String DEFAULT_FIRST_HASH_FUNCTION = "SHA-1";
-    private static final String DEFAULT_SECOND_HASH_FUNCTION = "MD5";
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
 
-    private MessageDigest firstHash;
-    private MessageDigest secondHash;
+    private HashStrategy firstHash;
+    private HashStrategy secondHash;
 
     /**
      * Enhanced Double Hashing Bloom filter constructor.
@@ -56,13 +54,7 @@ public class EnhancedDoubleHashBloomFilter<E> extends AbstractBloomFilter<E> {
      * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
      */
     public EnhancedDoubleHashBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
-        super(probabilityOfFalsePositives, expectedNumberOfElements);
-        try {
-            firstHash = MessageDigest.getInstance(DEFAULT_FIRST_HASH_FUNCTION);
-            secondHash = MessageDigest.getInstance(DEFAULT_SECOND_HASH_FUNCTION);
-        } catch (NoSuchAlgorithmException error) {
-            throw new RuntimeException("Cannot get instance of hash functions!");
-        }
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
     }
 
     /**
@@ -86,8 +78,31 @@ public class EnhancedDoubleHashBloomFilter<E> extends AbstractBloomFilter<E> {
         if (firstHashFunction.equals(secondHashFunction)) {
             throw new IllegalArgumentException("Hash functions cannot be the same!");
         }
-        firstHash = firstHashFunction;
-        secondHash = secondHashFunction;
+        firstHash = new MessageDigestHashStrategy(firstHashFunction);
+        secondHash = new MessageDigestHashStrategy(secondHashFunction);
+    }
+
+    /**
+     * Enhanced Double Hashing Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy                hash strategy.
+     */
+    public EnhancedDoubleHashBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                                         HashStrategy hashStrategy) {
+        super(probabilityOfFalsePositives, expectedNumberOfElements);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
     }
 
     /**
@@ -107,13 +122,7 @@ public class EnhancedDoubleHashBloomFilter<E> extends AbstractBloomFilter<E> {
      * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
      */
     public EnhancedDoubleHashBloomFilter(int size, int expectedNumberOfElements) {
-        super(size, expectedNumberOfElements);
-        try {
-            firstHash = MessageDigest.getInstance(DEFAULT_FIRST_HASH_FUNCTION);
-            secondHash = MessageDigest.getInstance(DEFAULT_SECOND_HASH_FUNCTION);
-        } catch (NoSuchAlgorithmException error) {
-            throw new RuntimeException("Cannot get instance of hash functions!");
-        }
+        this(size, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
     }
 
     /**
@@ -143,31 +152,97 @@ public class EnhancedDoubleHashBloomFilter<E> extends AbstractBloomFilter<E> {
         if (firstHashFunction.equals(secondHashFunction)) {
             throw new IllegalArgumentException("Hash functions cannot be the same!");
         }
-        firstHash = firstHashFunction;
-        secondHash = secondHashFunction;
+        firstHash = new MessageDigestHashStrategy(firstHashFunction);
+        secondHash = new MessageDigestHashStrategy(secondHashFunction);
+    }
+
+    /**
+     * Enhanced Double Hashing Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy             hash strategy.
+     */
+    public EnhancedDoubleHashBloomFilter(int size, int expectedNumberOfElements, HashStrategy hashStrategy) {
+        super(size, expectedNumberOfElements);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
+    }
+
+    /**
+     * Enhanced Double Hashing Bloom filter constructor.
+     *
+     * Size and number of hash functions are taken from parameters of Bloom Filter.
+     *
+     * @param spec parameters of Bloom Filter.
+     */
+    public EnhancedDoubleHashBloomFilter(BloomFilterSpec spec) {
+        this(spec, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Enhanced Double Hashing Bloom filter constructor.
+     *
+     * Size and number of hash functions are taken from parameters of Bloom Filter.
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param spec         parameters of Bloom Filter.
+     * @param hashStrategy hash strategy.
+     */
+    public EnhancedDoubleHashBloomFilter(BloomFilterSpec spec, HashStrategy hashStrategy) {
+        super(spec);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
     }
 
     /**
      * The createHashes method enables you to create hash functions.
      *
      * @param bytes        the byte array contains data.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
      * @param numberOfHash number of hash function.
-     * @return int array with result hashes.
+     * @param hashes       array for result hashes.
+     * @param hashesOffset the offset of the first result hash in array.
      */
     @Override
-    protected int[] createHashes(byte[] bytes, int numberOfHash) {
+    protected void createHashes(byte[] bytes, int offset, int length, int numberOfHash, int[] hashes, int hashesOffset) {
         int valueA, valueB;
-        int[] hashes = new int[numberOfHash];
 
-        valueA = getValueFromGeneratedHash(bytes, firstHash);
-        valueB = getValueFromGeneratedHash(bytes, secondHash);
+        if (firstHash == secondHash) {
+            long values = getValuesFromGeneratedHash(bytes, offset, length, firstHash);
+            valueA = (int) (values >>> 32);
+            valueB = (int) values;
+        } else {
+            valueA = getValueFromGeneratedHash(bytes, offset, length, firstHash, 0);
+            valueB = getValueFromGeneratedHash(bytes, offset, length, secondHash, 1);
+        }
+
+        createHashes(HashingMethod.ENHANCED_DOUBLE, valueA, valueB, 0, numberOfHash, hashes, hashesOffset);
+    }
 
-        hashes[0] = valueA;
-        for (int i = 0; i < numberOfHash; i++) {
-            valueA = (valueA + valueB) % size;
-            valueB = (valueB + i) % size;
-            hashes[i] = valueA;
+    /**
+     * The getHashStrategies method enables you to get hash strategies used by Bloom Filter.
+     *
+     * @return hash strategies, single one if every hash function is computed by the same strategy.
+     */
+    @Override
+    HashStrategy[] getHashStrategies() {
+        if (firstHash == secondHash) {
+            return new HashStrategy[]{firstHash};
         }
-        return hashes;
+        return new HashStrategy[]{firstHash, secondHash};
     }
 }
@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+
+/**
+ * Funnels used by Bloom Filters.
+ *
+ * @author Damian Stygar
+ */
+public final class Funnels {
+
+    private Funnels() {
+    }
+
+    /**
+     * The defaultFunnel method enables you to get funnel used by Bloom Filters when no other is set.
+     *
+     * Elements are written in the same way as by primitive and bytes methods of Bloom Filters:
+     * Integer as 4 bytes, Long as 8 bytes (little-endian), byte arrays and buffers as they are,
+     * CharSequence and other elements as UTF-8 bytes of their string representation.
+     *
+     * @param <E> the type of encoded elements.
+     * @return default funnel.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> Funnel<E> defaultFunnel() {
+        return (Funnel<E>) DefaultFunnel.INSTANCE;
+    }
+
+    /**
+     * The stringFunnel method enables you to get funnel, which writes every element as UTF-8 bytes
+     * of its string representation.
+     *
+     * @param <E> the type of encoded elements.
+     * @return string funnel.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> Funnel<E> stringFunnel() {
+        return (Funnel<E>) StringFunnel.INSTANCE;
+    }
+
+    private static final class DefaultFunnel implements Funnel<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final DefaultFunnel INSTANCE = new DefaultFunnel();
+
+        @Override
+        public void funnel(Object element, ByteSink sink) {
+            if (element instanceof Integer) {
+                sink.putInt((Integer) element);
+            } else if (element instanceof Long) {
+                sink.putLong((Long) element);
+            } else if (element instanceof byte[]) {
+                sink.putBytes((byte[]) element);
+            } else if (element instanceof ByteBuffer) {
+                sink.putBytes((ByteBuffer) element);
+            } else if (element instanceof CharSequence) {
+                sink.putString((CharSequence) element);
+            } else {
+                sink.putString(element.toString());
+            }
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return INSTANCE;
+        }
+    }
+
+    private static final class StringFunnel implements Funnel<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final StringFunnel INSTANCE = new StringFunnel();
+
+        @Override
+        public void funnel(Object element, ByteSink sink) {
+            sink.putString(element.toString());
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return INSTANCE;
+        }
+    }
+}
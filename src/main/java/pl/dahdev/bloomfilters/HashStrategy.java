@@ -0,0 +1,67 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.Serializable;
+
+/**
+ * Interface of hash function used by Bloom Filter to generate values for element.
+ *
+ * Hash strategy maps a range of bytes and a seed to 64-bit hash value.
+ * Different seeds should give independent hash values for the same data,
+ * so a single hash strategy can be used to generate every hash function required by Bloom Filter.
+ *
+ * @author Damian Stygar
+ */
+public interface HashStrategy extends Serializable {
+
+    /**
+     * The hash method enables you to compute 64-bit hash value of bytes.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function.
+     * @return 64-bit hash value.
+     */
+    long hash(byte[] bytes, int offset, int length, long seed);
+
+    /**
+     * The hashPair method enables you to compute two 64-bit hash values of bytes.
+     *
+     * By default hash values are computed with seed and seed + 1. Strategies, which compute longer hash,
+     * can return its parts, so bytes are hashed only once.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function.
+     * @param result array for two hash values, the first one is equal to hash value with the same seed.
+     */
+    default void hashPair(byte[] bytes, int offset, int length, long seed, long[] result) {
+        result[0] = hash(bytes, offset, length, seed);
+        result[1] = hash(bytes, offset, length, seed + 1);
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Methods of generating positions of bits for k hash functions from few hash values.
+ *
+ * All the approaches are described in "Bloom Filters in Probabilistic Verification"
+ * by Peter C. Dillinger and Panagiotis Manolios.
+ *
+ * @author Damian Stygar
+ */
+public enum HashingMethod {
+
+    /**
+     * Double Hashing: each position is the previous one plus the second hash value (mod m).
+     */
+    DOUBLE(2) {
+        @Override
+        void createHashes(int valueA, int valueB, int valueC, int size, int numberOfHash, int[] hashes, int hashesOffset) {
+            hashes[hashesOffset] = valueA;
+            for (int i = 0; i < numberOfHash; i++) {
+                valueA = add(valueA, valueB, size);
+                hashes[hashesOffset + i] = valueA;
+            }
+        }
+    },
+
+    /**
+     * Triple Hashing: each position is the previous one plus step, which grows by the third hash value (mod m).
+     */
+    TRIPLE(3) {
+        @Override
+        void createHashes(int valueA, int valueB, int valueC, int size, int numberOfHash, int[] hashes, int hashesOffset) {
+            hashes[hashesOffset] = valueA;
+            for (int i = 0; i < numberOfHash; i++) {
+                valueA = add(valueA, valueB, size);
+                valueB = add(valueB, valueC, size);
+                hashes[hashesOffset + i] = valueA;
+            }
+        }
+    },
+
+    /**
+     * Enhanced Double Hashing: each position is the previous one plus step, which grows by number of hash function (mod m).
+     */
+    ENHANCED_DOUBLE(2) {
+        @Override
+        void createHashes(int valueA, int valueB, int valueC, int size, int numberOfHash, int[] hashes, int hashesOffset) {
+            hashes[hashesOffset] = valueA;
+            for (int i = 0; i < numberOfHash; i++) {
+                valueA = add(valueA, valueB, size);
+                valueB = add(valueB, i, size);
+                hashes[hashesOffset + i] = valueA;
+            }
+        }
+    };
+
+    private final int numberOfHashValues;
+
+    HashingMethod(int numberOfHashValues) {
+        this.numberOfHashValues = numberOfHashValues;
+    }
+
+    /**
+     * The getNumberOfHashValues method enables you to get number of independent hash values used by method.
+     *
+     * @return number of hash values.
+     */
+    public int getNumberOfHashValues() {
+        return numberOfHashValues;
+    }
+
+    /**
+     * The createHashes method enables you to create positions of bits for each hash function.
+     *
+     * @param valueA       the first hash value in range [0, size).
+     * @param valueB       the second hash value in range [0, size).
+     * @param valueC       the third hash value in range [0, size), used only by Triple Hashing.
+     * @param size         size of Bloom Filter.
+     * @param numberOfHash number of hash functions.
+     * @param hashes       array for result positions.
+     * @param hashesOffset the offset of the first result position in array.
+     */
+    abstract void createHashes(int valueA, int valueB, int valueC, int size, int numberOfHash, int[] hashes, int hashesOffset);
+
+    private static int add(int value, int increment, int size) {
+        return (int) (((long) value + increment) % size);
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Immutable Bloom Filter created by {@link AbstractBloomFilter#freeze()}.
+ *
+ * Bits are copied to final array of longs, so later changes of source Bloom Filter are not visible.
+ * Hash strategies do not keep state between calls, so Bloom Filter can be checked by many threads without locks.
+ * New version of Bloom Filter can be published by replacing reference, e.g. in {@link java.util.concurrent.atomic.AtomicReference}.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ *
+ * @author Damian Stygar
+ */
+public final class ImmutableBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AbstractBloomFilter<E> filter;
+    private final long[] words;
+    private final int numberOfHash;
+
+    /**
+     * Immutable Bloom Filter constructor.
+     *
+     * @param filter private copy of Bloom Filter, which is never changed later.
+     * @param words  words of bit array of copy.
+     */
+    ImmutableBloomFilter(AbstractBloomFilter<E> filter, long[] words) {
+        this.filter = filter;
+        this.words = words;
+        this.numberOfHash = filter.numberOfHash;
+    }
+
+    /**
+     * The add method is not supported, because Bloom Filter is immutable.
+     *
+     * @param element an element to be inserted.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(E element) {
+        throw new UnsupportedOperationException("Bloom Filter is immutable!");
+    }
+
+    /**
+     * The addAll method is not supported, because Bloom Filter is immutable.
+     *
+     * @param collection a collection with elements to be inserted.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        throw new UnsupportedOperationException("Bloom Filter is immutable!");
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        filter.funnel.funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        int[] hashes = ByteSink.threadHashes(numberOfHash);
+        filter.createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+        for (int i = 0; i < numberOfHash; i++) {
+            int hash = hashes[i];
+            if ((words[hash >>> 6] & (1L << hash)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains long value.
+     *
+     * @param value the value to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(long value) {
+        ByteSink sink = ByteSink.threadSink().putLong(value);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains int value.
+     *
+     * @param value the value to be checked.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    public boolean mightContains(int value) {
+        ByteSink sink = ByteSink.threadSink().putInt(value);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return filter.getExpectedProbabilityOfFalsePositives();
+    }
+
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return filter.getCurrentProbabilityOfFalsePositives();
+    }
+
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return filter.getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    @Override
+    public int getSize() {
+        return filter.getSize();
+    }
+
+    /**
+     * The clear method is not supported, because Bloom Filter is immutable.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Bloom Filter is immutable!");
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return filter.isEmpty();
+    }
+
+    @Override
+    public int getNumberOfElements() {
+        return filter.getNumberOfElements();
+    }
+
+    @Override
+    public int getExpectedNumberOfElements() {
+        return filter.getExpectedNumberOfElements();
+    }
+
+    @Override
+    public double getExpectedBitsPerElement() {
+        return filter.getExpectedBitsPerElement();
+    }
+
+    @Override
+    public double getBitsPerElement() throws Exception {
+        return filter.getBitsPerElement();
+    }
+
+    @Override
+    public int getNumberOfHash() {
+        return numberOfHash;
+    }
+
+    /**
+     * The getNumberOfSetBits method enables you to get number of bits set to 1.
+     *
+     * @return number of set bits.
+     */
+    public long getNumberOfSetBits() {
+        return filter.getNumberOfSetBits();
+    }
+
+    /**
+     * The toBloomFilter method enables you to create mutable copy of Bloom Filter,
+     * e.g. to insert elements of next version.
+     *
+     * @return new mutable Bloom Filter with the same elements.
+     */
+    public AbstractBloomFilter<E> toBloomFilter() {
+        AbstractBloomFilter<E> copy = BloomFilterFormat.createEmptyCopy(filter);
+        for (int i = 0; i < words.length; i++) {
+            copy.bitArray.setWord(i, words[i]);
+        }
+        copy.numberOfElements = filter.numberOfElements;
+        copy.numberOfSetBits = filter.numberOfSetBits;
+        return copy;
+    }
+
+    /**
+     * The writeTo method enables you to write Bloom Filter to stream in compact binary format,
+     * which can be read by {@link AbstractBloomFilter#readFrom(java.io.InputStream)}.
+     *
+     * @param outputStream stream for Bloom Filter.
+     * @throws IOException when Bloom Filter cannot be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        filter.writeTo(outputStream);
+    }
+
+    Object writeReplace() throws ObjectStreamException {
+        return new SerializationProxy(filter);
+    }
+
+    private void readObject(ObjectInputStream inputStream) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialization proxy is required!");
+    }
+
+    /**
+     * Serialized form of immutable Bloom Filter, which writes its private copy in the same form as Bloom Filter.
+     */
+    private static final class SerializationProxy implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractBloomFilter<?> filter;
+
+        private SerializationProxy(AbstractBloomFilter<?> filter) {
+            this.filter = filter;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return filter.freeze();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ImmutableBloomFilter<?> that = (ImmutableBloomFilter<?>) o;
+
+        return filter.equals(that.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return filter.hashCode();
+    }
+}
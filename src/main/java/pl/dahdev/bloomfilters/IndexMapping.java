@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Methods of mapping 64-bit hash value to position of bit in Bloom Filter.
+ *
+ * @author Damian Stygar
+ */
+public enum IndexMapping {
+
+    /**
+     * Position is computed as remainder of division by size of Bloom Filter.
+     *
+     * For MessageDigest hash strategy the whole digest is treated as signed big number,
+     * what gives the same positions of bits as filters created before hash strategies were introduced.
+     * This mapping should be used only to read old filters, because it is the slowest one.
+     */
+    LEGACY_MODULO {
+        @Override
+        int map(long hash, int size) {
+            return (int) Long.remainderUnsigned(hash, size);
+        }
+    },
+
+    /**
+     * Position is computed with multiply-shift reduction:
+     * i = (h * m) &gt;&gt; 32,
+     * where h is upper 32 bits of hash value, m is size of Bloom Filter.
+     */
+    MULTIPLY_SHIFT {
+        @Override
+        int map(long hash, int size) {
+            return (int) (((hash >>> 32) * size) >>> 32);
+        }
+    },
+
+    /**
+     * Position is computed as lower bits of hash value.
+     * Size of Bloom Filter has to be a power of two.
+     */
+    MASK {
+        @Override
+        int map(long hash, int size) {
+            return (int) (hash & (size - 1));
+        }
+    };
+
+    /**
+     * The map method enables you to map hash value to position of bit.
+     *
+     * @param hash 64-bit hash value.
+     * @param size size of Bloom Filter.
+     * @return position of bit in range [0, size).
+     */
+    abstract int map(long hash, int size);
+
+}
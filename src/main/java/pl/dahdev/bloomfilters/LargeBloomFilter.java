@@ -0,0 +1,536 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+
+/**
+ * Implementation of Bloom Filter for more than 2^31 bits.
+ *
+ * Bits are kept in segmented array of longs by default, positions of bits and counters are 64-bit,
+ * so size of Bloom Filter is limited only by available memory.
+ * Bits can be also kept outside of Java heap or in memory-mapped file, see {@link #setBitArray(BitArray)}.
+ * Positions of bits are generated with Double Hashing from two 64-bit hash values computed by hash strategy.
+ *
+ * Bloom Filter is serialized with its words only, so it is always read to segmented array of longs
+ * regardless of storage used before writing.
+ *
+ * Methods of {@link BloomFilter} returning int saturate at {@link Integer#MAX_VALUE},
+ * use their long versions to get exact values.
+ *
+ * A Bloom filter is a space-efficient probabilistic data structure
+ * that is used to test whether an element is a member of a set.
+ * A query returns either "possibly in set" or "definitely not in set".
+ * Elements can be added to the set, but not removed.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class LargeBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final long size;
+    private final long expectedNumberOfElements;
+    private final int numberOfHash;
+    private final double bitsPerElement;
+    private final HashStrategy hashStrategy;
+    private transient BitArray bitArray;
+    private long numberOfElements;
+    private long numberOfSetBits;
+
+    /**
+     * Large Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     */
+    public LargeBloomFilter(double probabilityOfFalsePositives, long expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Large Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy                hash strategy.
+     */
+    public LargeBloomFilter(double probabilityOfFalsePositives, long expectedNumberOfElements,
+                            HashStrategy hashStrategy) {
+        this(
+                (long) Math.ceil((-expectedNumberOfElements * Math.log(probabilityOfFalsePositives)) / Math.pow(Math.log(2), 2)),
+                expectedNumberOfElements,
+                hashStrategy
+        );
+    }
+
+    /**
+     * Large Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     */
+    public LargeBloomFilter(long size, long expectedNumberOfElements) {
+        this(size, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Large Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Size of Bloom Filter and number of expected elements should be greater than 0.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy             hash strategy.
+     */
+    public LargeBloomFilter(long size, long expectedNumberOfElements, HashStrategy hashStrategy) {
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of Bloom Filter should be greater than 0!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        this.size = size;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(size, expectedNumberOfElements);
+        this.bitsPerElement = size / (double) expectedNumberOfElements;
+        this.hashStrategy = hashStrategy;
+        this.bitArray = new SegmentedLongArrayBitArray(size);
+        this.numberOfElements = 0;
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        long hashA = hashStrategy.hash(bytes, offset, length, 0);
+        long hashB = hashStrategy.hash(bytes, offset, length, 1);
+        for (int i = 0; i < numberOfHash; i++) {
+            if (bitArray.set(getIndex(hashA + i * hashB))) {
+                numberOfSetBits++;
+            }
+        }
+        numberOfElements++;
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return contains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The contains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+     * False if at least one bit is not set.
+     */
+    private boolean contains(byte[] bytes, int offset, int length) {
+        long hashA = hashStrategy.hash(bytes, offset, length, 0);
+        long hashB = hashStrategy.hash(bytes, offset, length, 1);
+        for (int i = 0; i < numberOfHash; i++) {
+            if (!bitArray.get(getIndex(hashA + i * hashB))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The getIndex method enables you to map 64-bit hash value to position of bit with multiply-shift reduction:
+     * i = (h * m) &gt;&gt; 64,
+     * where h is hash value, m is size of Bloom Filter.
+     *
+     * @param hash 64-bit hash value.
+     * @return position of bit in range [0, size).
+     */
+    long getIndex(long hash) {
+        return multiplyHighUnsigned(hash, size);
+    }
+
+    /**
+     * The multiplyHighUnsigned method enables you to get upper 64 bits of unsigned 128-bit product.
+     *
+     * @param x first factor.
+     * @param y second factor.
+     * @return upper 64 bits of product.
+     */
+    static long multiplyHighUnsigned(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long w0 = x0 * y0;
+        long t = x1 * y0 + (w0 >>> 32);
+        long w1 = (t & 0xFFFFFFFFL) + x0 * y1;
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
+    /**
+     * The getBitArray method enables you to get storage of bits.
+     *
+     * @return storage of bits.
+     */
+    public BitArray getBitArray() {
+        return this.bitArray;
+    }
+
+    /**
+     * The setBitArray method enables you to change storage of bits, e.g. to keep bits outside of Java heap
+     * or in memory-mapped file.
+     *
+     * Storage can be changed only when Bloom Filter is empty. Bits already set in new storage are kept,
+     * so filter saved in file can be opened without inserting elements again.
+     * Number of elements is estimated from number of set bits,
+     * use {@link #setBitArray(BitArray, long)} if it is known.
+     *
+     * @param bitArray storage of bits with the same number of words as Bloom Filter.
+     */
+    public void setBitArray(BitArray bitArray) {
+        checkBitArray(bitArray);
+        this.bitArray = bitArray;
+        this.numberOfSetBits = bitArray.cardinality();
+        this.numberOfElements = numberOfSetBits == 0 ? 0 : Math.max(1, Math.round(getEstimatedNumberOfElements()));
+    }
+
+    /**
+     * The setBitArray method enables you to change storage of bits, which already contains elements.
+     *
+     * Storage can be changed only when Bloom Filter is empty. Bits already set in new storage are kept.
+     *
+     * @param bitArray         storage of bits with the same number of words as Bloom Filter.
+     * @param numberOfElements number of elements inserted to storage.
+     */
+    public void setBitArray(BitArray bitArray, long numberOfElements) {
+        if (numberOfElements < 0) {
+            throw new IllegalArgumentException("Number of elements cannot be negative!");
+        }
+        checkBitArray(bitArray);
+        this.bitArray = bitArray;
+        this.numberOfSetBits = bitArray.cardinality();
+        this.numberOfElements = numberOfElements;
+    }
+
+    private void checkBitArray(BitArray bitArray) {
+        if (bitArray == null) {
+            throw new IllegalArgumentException("Bit array cannot be null!");
+        }
+        if (bitArray.size() < size) {
+            throw new IllegalArgumentException("Bit array is smaller than Bloom Filter!");
+        }
+        if (bitArray.getNumberOfWords() != (size + 63) >>> 6) {
+            throw new IllegalArgumentException("Bit array should have the same number of words as Bloom Filter!");
+        }
+        if (numberOfSetBits != 0 || numberOfElements != 0) {
+            throw new IllegalStateException("Bit array cannot be changed when Bloom Filter is not empty!");
+        }
+    }
+
+    /**
+     * The getNumberOfSetBits method enables you to get number of set bits.
+     *
+     * @return number of set bits.
+     */
+    public long getNumberOfSetBits() {
+        return this.numberOfSetBits;
+    }
+
+    /**
+     * The getEstimatedNumberOfElements method enables you to estimate number of distinct inserted elements
+     * from number of set bits:
+     * n = -(m/k)ln(1-X/m),
+     * where m is size of Bloom Filter, k is number of hash functions, X is number of set bits.
+     *
+     * @return estimated number of distinct inserted elements.
+     */
+    public double getEstimatedNumberOfElements() {
+        return AbstractBloomFilter.estimateNumberOfElements(numberOfSetBits, size, numberOfHash);
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(expectedNumberOfElements);
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        return getProbabilityOfFalsePositives(numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        return getProbabilityOfFalsePositives((long) numberOfElements);
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    public double getProbabilityOfFalsePositives(long numberOfElements) {
+        return Math.pow((1 - Math.exp(-numberOfHash * (double) numberOfElements / size)), numberOfHash);
+    }
+
+    /**
+     * The getSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter or {@link Integer#MAX_VALUE} if it is bigger.
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The getLongSize method enables you to get size of Bloom Filter.
+     *
+     * @return size of Bloom Filter.
+     */
+    public long getLongSize() {
+        return this.size;
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter.
+     */
+    @Override
+    public void clear() {
+        bitArray.clear();
+        numberOfElements = 0;
+        numberOfSetBits = 0;
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if Bloom Filter is empty.
+     * False, if Bloom Filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return (numberOfElements == 0);
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements or {@link Integer#MAX_VALUE} if it is bigger.
+     */
+    @Override
+    public int getNumberOfElements() {
+        return (int) Math.min(numberOfElements, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The getLongNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    public long getLongNumberOfElements() {
+        return this.numberOfElements;
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements or {@link Integer#MAX_VALUE} if it is bigger.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return (int) Math.min(expectedNumberOfElements, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The getLongExpectedNumberOfElements method enables you to get expected number of inserted elements.
+     *
+     * @return expected number of inserted elements.
+     */
+    public long getLongExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return this.bitsPerElement;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return this.size / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return this.numberOfHash;
+    }
+
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+        long numberOfWords = (size + 63) >>> 6;
+        for (long i = 0; i < numberOfWords; i++) {
+            outputStream.writeLong(bitArray.getWord(i));
+        }
+    }
+
+    private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        if (size <= 0 || numberOfHash <= 0 || numberOfElements < 0 || hashStrategy == null) {
+            throw new InvalidObjectException("Bloom Filter has invalid configuration!");
+        }
+        bitArray = new SegmentedLongArrayBitArray(size);
+        long numberOfWords = (size + 63) >>> 6;
+        numberOfSetBits = 0;
+        for (long i = 0; i < numberOfWords; i++) {
+            long word = inputStream.readLong();
+            bitArray.setWord(i, word);
+            numberOfSetBits += Long.bitCount(word);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Implementation of bit storage on Java heap backed by single array of longs.
+ *
+ * @author Damian Stygar
+ */
+public class LongArrayBitArray implements BitArray, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long size;
+    private final long[] words;
+
+    /**
+     * Heap bit storage constructor.
+     *
+     * @param size number of bits.
+     */
+    public LongArrayBitArray(long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of bit array should be greater than 0!");
+        }
+        long numberOfWords = (size + 63) >>> 6;
+        if (numberOfWords > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Size of bit array is too big for single array!");
+        }
+        this.size = size;
+        this.words = new long[(int) numberOfWords];
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean get(long index) {
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean set(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long word = words[wordIndex];
+        long newWord = word | (1L << index);
+        words[wordIndex] = newWord;
+        return word != newWord;
+    }
+
+    @Override
+    public long getNumberOfWords() {
+        return words.length;
+    }
+
+    @Override
+    public long getWord(long wordIndex) {
+        return words[(int) wordIndex];
+    }
+
+    @Override
+    public void setWord(long wordIndex, long word) {
+        words[(int) wordIndex] = word;
+    }
+
+    /**
+     * The getWords method enables you to get array of words without copying.
+     *
+     * @return array of words.
+     */
+    long[] getWords() {
+        return words;
+    }
+
+    @Override
+    public long cardinality() {
+        long result = 0;
+        for (long word : words) {
+            result += Long.bitCount(word);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.Security;
+
+/**
+ * Implementation of hash strategy based on MessageDigest.
+ *
+ * Message digest cannot be seeded, so non-zero seed is digested as 8 bytes (little-endian) before data.
+ * Hash value for seed 0 is the digest of data only.
+ * Every thread uses its own copy of MessageDigest, so the strategy can be shared between threads.
+ *
+ * @author Damian Stygar
+ */
+public final class MessageDigestHashStrategy implements HashStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String algorithm;
+    private final String provider;
+    private final transient MessageDigest messageDigest;
+    private final transient ThreadLocal<DigestState> digestState;
+
+    /**
+     * MessageDigest hash strategy constructor.
+     *
+     * @param messageDigest instance of hash function.
+     */
+    public MessageDigestHashStrategy(MessageDigest messageDigest) {
+        if (messageDigest == null) {
+            throw new IllegalArgumentException("Instance of hash function cannot be null!");
+        }
+        this.algorithm = messageDigest.getAlgorithm();
+        this.provider = messageDigest.getProvider() != null ? messageDigest.getProvider().getName() : null;
+        this.messageDigest = messageDigest;
+        this.digestState = new ThreadLocal<DigestState>() {
+            @Override
+            protected DigestState initialValue() {
+                return new DigestState(copyOfMessageDigest());
+            }
+        };
+    }
+
+    /**
+     * The hash method enables you to compute 64-bit hash value of bytes.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function, digested before data if it is not 0.
+     * @return the first 64 bits of digest.
+     */
+    @Override
+    public long hash(byte[] bytes, int offset, int length, long seed) {
+        DigestState state = digestState.get();
+        if (seed != 0) {
+            for (int i = 0; i < 8; i++) {
+                state.seed[i] = (byte) (seed >>> (8 * i));
+            }
+            state.messageDigest.update(state.seed, 0, 8);
+        }
+        state.messageDigest.update(bytes, offset, length);
+        byte[] digest = state.buffer;
+        if (digest.length >= 8) {
+            try {
+                state.messageDigest.digest(digest, 0, digest.length);
+            } catch (DigestException error) {
+                throw new IllegalStateException("Cannot compute digest!", error);
+            }
+        } else {
+            digest = state.messageDigest.digest();
+        }
+        long result = 0;
+        for (int i = 0; i < Math.min(8, digest.length); i++) {
+            result = (result << 8) | (digest[i] & 0xFFL);
+        }
+        return result;
+    }
+
+    /**
+     * The digest method enables you to compute digest of bytes.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @return digest of bytes.
+     */
+    byte[] digest(byte[] bytes, int offset, int length) {
+        MessageDigest threadMessageDigest = digestState.get().messageDigest;
+        threadMessageDigest.update(bytes, offset, length);
+        return threadMessageDigest.digest();
+    }
+
+    /**
+     * The getMessageDigest method enables you to get instance of hash function.
+     *
+     * @return instance of hash function.
+     */
+    public MessageDigest getMessageDigest() {
+        return messageDigest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MessageDigestHashStrategy that = (MessageDigestHashStrategy) o;
+
+        return messageDigest.getAlgorithm().equals(that.messageDigest.getAlgorithm());
+    }
+
+    @Override
+    public int hashCode() {
+        return messageDigest.getAlgorithm().hashCode();
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            if (provider != null && Security.getProvider(provider) != null) {
+                return new MessageDigestHashStrategy(MessageDigest.getInstance(algorithm, provider));
+            }
+            return new MessageDigestHashStrategy(MessageDigest.getInstance(algorithm));
+        } catch (NoSuchAlgorithmException error) {
+            InvalidObjectException invalidObject = new InvalidObjectException("Cannot get instance of hash function "
+                    + algorithm + "!");
+            invalidObject.initCause(error);
+            throw invalidObject;
+        } catch (NoSuchProviderException error) {
+            InvalidObjectException invalidObject = new InvalidObjectException("Cannot get provider of hash function "
+                    + provider + "!");
+            invalidObject.initCause(error);
+            throw invalidObject;
+        }
+    }
+
+    private MessageDigest copyOfMessageDigest() {
+        try {
+            return (MessageDigest) messageDigest.clone();
+        } catch (CloneNotSupportedException cloneError) {
+            try {
+                return MessageDigest.getInstance(messageDigest.getAlgorithm(), messageDigest.getProvider());
+            } catch (NoSuchAlgorithmException error) {
+                throw new IllegalStateException("Cannot get instance of hash function!", error);
+            }
+        }
+    }
+
+    /**
+     * Copy of MessageDigest used by single thread with buffer for its digest.
+     */
+    private static final class DigestState {
+
+        private final MessageDigest messageDigest;
+        private final byte[] buffer;
+        private final byte[] seed = new byte[8];
+
+        private DigestState(MessageDigest messageDigest) {
+            this.messageDigest = messageDigest;
+            this.buffer = new byte[messageDigest.getDigestLength()];
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+/**
+ * Implementation of MurmurHash3 (x64, 128-bit variant) hash strategy.
+ *
+ * The hash method returns the first 64 bits of 128-bit result, the hashPair method returns both halves of it.
+ * Only the lower 32 bits of seed are used, like in the reference implementation.
+ * The strategy is stateless, so it can be shared between threads.
+ *
+ * @author Damian Stygar
+ */
+public final class Murmur3HashStrategy implements HashStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * The hash method enables you to compute 64-bit hash value of bytes.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function.
+     * @return the first 64 bits of MurmurHash3 x64 128-bit hash.
+     */
+    @Override
+    public long hash(byte[] bytes, int offset, int length, long seed) {
+        return hash(bytes, offset, length, seed, null);
+    }
+
+    /**
+     * The hashPair method enables you to compute both halves of 128-bit hash of bytes at once.
+     *
+     * @param bytes  the byte array contains data.
+     * @param offset the offset of first byte to be hashed.
+     * @param length the number of bytes to be hashed.
+     * @param seed   the seed of hash function.
+     * @param result array for the first and the second 64 bits of MurmurHash3 x64 128-bit hash.
+     */
+    @Override
+    public void hashPair(byte[] bytes, int offset, int length, long seed, long[] result) {
+        hash(bytes, offset, length, seed, result);
+    }
+
+    @SuppressWarnings("fallthrough")
+    private static long hash(byte[] bytes, int offset, int length, long seed, long[] result) {
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = seed & 0xFFFFFFFFL;
+
+        int position = offset;
+        int end = offset + (length & ~15);
+        while (position < end) {
+            long k1 = LittleEndian.getLong(bytes, position);
+            long k2 = LittleEndian.getLong(bytes, position + 8);
+            position += 16;
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15:
+                k2 ^= (bytes[position + 14] & 0xFFL) << 48;
+            case 14:
+                k2 ^= (bytes[position + 13] & 0xFFL) << 40;
+            case 13:
+                k2 ^= (bytes[position + 12] & 0xFFL) << 32;
+            case 12:
+                k2 ^= (bytes[position + 11] & 0xFFL) << 24;
+            case 11:
+                k2 ^= (bytes[position + 10] & 0xFFL) << 16;
+            case 10:
+                k2 ^= (bytes[position + 9] & 0xFFL) << 8;
+            case 9:
+                k2 ^= (bytes[position + 8] & 0xFFL);
+                h2 ^= mixK2(k2);
+            case 8:
+                k1 ^= (bytes[position + 7] & 0xFFL) << 56;
+            case 7:
+                k1 ^= (bytes[position + 6] & 0xFFL) << 48;
+            case 6:
+                k1 ^= (bytes[position + 5] & 0xFFL) << 40;
+            case 5:
+                k1 ^= (bytes[position + 4] & 0xFFL) << 32;
+            case 4:
+                k1 ^= (bytes[position + 3] & 0xFFL) << 24;
+            case 3:
+                k1 ^= (bytes[position + 2] & 0xFFL) << 16;
+            case 2:
+                k1 ^= (bytes[position + 1] & 0xFFL) << 8;
+            case 1:
+                k1 ^= (bytes[position] & 0xFFL);
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        h1 += h2;
+        if (result != null) {
+            result[0] = h1;
+            result[1] = h2 + h1;
+        }
+        return h1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,430 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of scalable Bloom Filter, which grows instead of exceeding expected probability of false positives.
+ *
+ * Scalable Bloom Filter is a chain of Bloom Filters with Double Hashing. When the newest filter reaches
+ * its expected number of elements, new filter is added with s times greater expected number of elements
+ * and r times smaller probability of false positives, where s is growth factor and r is tightening ratio.
+ * The first filter has probability p*(1-r), so probability of false positives of the whole chain
+ * is never greater than p = sum(i>=0) p*(1-r)*r^i.
+ *
+ * The approach is described in "Scalable Bloom Filters" by Paulo Sergio Almeida, Carlos Baquero,
+ * Nuno Preguica and David Hutchison.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class ScalableBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Default growth factor of expected number of elements.
+     */
+    public static final int DEFAULT_GROWTH_FACTOR = 2;
+
+    /**
+     * Default tightening ratio of probability of false positives.
+     */
+    public static final double DEFAULT_TIGHTENING_RATIO = 0.85;
+
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final double probabilityOfFalsePositives;
+    private final int expectedNumberOfElements;
+    private final int growthFactor;
+    private final double tighteningRatio;
+    private final HashStrategy hashStrategy;
+    private final List<DoubleHashBloomFilter<E>> filters;
+
+    /**
+     * Scalable Bloom filter constructor.
+     *
+     * @param probabilityOfFalsePositives probability of false positives of the whole chain.
+     * @param expectedNumberOfElements    expected number of elements of the first filter.
+     */
+    public ScalableBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_GROWTH_FACTOR, DEFAULT_TIGHTENING_RATIO);
+    }
+
+    /**
+     * Scalable Bloom filter constructor.
+     *
+     * @param probabilityOfFalsePositives probability of false positives of the whole chain.
+     * @param expectedNumberOfElements    expected number of elements of the first filter.
+     * @param growthFactor                growth factor of expected number of elements, at least 1.
+     * @param tighteningRatio             tightening ratio of probability of false positives, between 0 and 1.
+     */
+    public ScalableBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                               int growthFactor, double tighteningRatio) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, growthFactor, tighteningRatio, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Scalable Bloom filter constructor.
+     *
+     * @param probabilityOfFalsePositives probability of false positives of the whole chain.
+     * @param expectedNumberOfElements    expected number of elements of the first filter.
+     * @param growthFactor                growth factor of expected number of elements, at least 1.
+     * @param tighteningRatio             tightening ratio of probability of false positives, between 0 and 1.
+     * @param hashStrategy                hash strategy.
+     */
+    public ScalableBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                               int growthFactor, double tighteningRatio, HashStrategy hashStrategy) {
+        if (probabilityOfFalsePositives <= 0 || probabilityOfFalsePositives >= 1) {
+            throw new IllegalArgumentException("Probability of false positives should be between 0 and 1!");
+        }
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (growthFactor < 1) {
+            throw new IllegalArgumentException("Growth factor should be at least 1!");
+        }
+        if (tighteningRatio <= 0 || tighteningRatio >= 1) {
+            throw new IllegalArgumentException("Tightening ratio should be between 0 and 1!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        this.probabilityOfFalsePositives = probabilityOfFalsePositives;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.growthFactor = growthFactor;
+        this.tighteningRatio = tighteningRatio;
+        this.hashStrategy = hashStrategy;
+        this.filters = new ArrayList<DoubleHashBloomFilter<E>>();
+        addFilter();
+    }
+
+    private DoubleHashBloomFilter<E> addFilter() {
+        int index = filters.size();
+        DoubleHashBloomFilter<E> filter = new DoubleHashBloomFilter<E>(getProbabilityOfFilter(index),
+                getCapacityOfFilter(index), hashStrategy);
+        filters.add(filter);
+        return filter;
+    }
+
+    /**
+     * The getProbabilityOfFilter method enables you to get probability of false positives of i-th filter:
+     * p_i = p(1-r)r^i.
+     *
+     * @param index index of filter in chain.
+     * @return probability of false positives of filter.
+     */
+    double getProbabilityOfFilter(int index) {
+        double probability = probabilityOfFalsePositives * (1 - tighteningRatio) * Math.pow(tighteningRatio, index);
+        return Math.max(Double.MIN_NORMAL, probability);
+    }
+
+    /**
+     * The getCapacityOfFilter method enables you to get expected number of elements of i-th filter.
+     *
+     * Capacity grows by growth factor until size of filter reaches {@link Integer#MAX_VALUE} bits.
+     * Next filters have the largest size and smaller capacity, so they still keep their probability of false positives.
+     *
+     * @param index index of filter in chain.
+     * @return expected number of elements of filter.
+     */
+    int getCapacityOfFilter(int index) {
+        double probability = getProbabilityOfFilter(index);
+        double capacity = expectedNumberOfElements * Math.pow(growthFactor, index);
+        double maxCapacity = Math.floor(Integer.MAX_VALUE * Math.pow(Math.log(2), 2) / -Math.log(probability)) - 1;
+        return (int) Math.max(1, Math.min(capacity, maxCapacity));
+    }
+
+    private DoubleHashBloomFilter<E> getWritableFilter() {
+        DoubleHashBloomFilter<E> filter = filters.get(filters.size() - 1);
+        if (filter.getNumberOfElements() >= filter.getExpectedNumberOfElements()) {
+            filter = addFilter();
+        }
+        return filter;
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        getWritableFilter().add(element);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        getWritableFilter().add(bytes);
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * The newest filter is checked first, because it contains the most elements.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            if (filters.get(i).mightContains(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The mightContains method enables you to check if Bloom Filter may contains element.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    public boolean mightContains(byte[] bytes) {
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            if (filters.get(i).mightContains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives,
+     * which is never exceeded by the whole chain.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return this.probabilityOfFalsePositives;
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+     *
+     * Element is false positive, if it is false positive in at least one filter of chain.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        double probabilityOfTrueNegative = 1;
+        for (DoubleHashBloomFilter<E> filter : filters) {
+            probabilityOfTrueNegative *= 1 - filter.getCurrentProbabilityOfFalsePositives();
+        }
+        return 1 - probabilityOfTrueNegative;
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * Elements are distributed between filters in the same way as they are inserted.
+     *
+     * @param numberOfElements a number of elements in Bloom Filter.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        double probabilityOfTrueNegative = 1;
+        long remaining = numberOfElements;
+        for (int index = 0; remaining > 0; index++) {
+            int capacity = getCapacityOfFilter(index);
+            int elements = (int) Math.min(remaining, capacity);
+            if (index < filters.size()) {
+                probabilityOfTrueNegative *= 1 - filters.get(index).getProbabilityOfFalsePositives(elements);
+            } else {
+                double size = Math.min(Integer.MAX_VALUE,
+                        BloomFilterSpec.getOptimalSize(getProbabilityOfFilter(index), capacity));
+                int numberOfHash = BloomFilterSpec.getOptimalNumberOfHash(size, capacity);
+                probabilityOfTrueNegative *= 1 - Math.pow(1 - Math.exp(-numberOfHash * elements / size), numberOfHash);
+            }
+            remaining -= elements;
+        }
+        return 1 - probabilityOfTrueNegative;
+    }
+
+    /**
+     * The getSize method enables you to get size of all filters of chain.
+     *
+     * @return size of Bloom Filter, at most {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(Integer.MAX_VALUE, getTotalSize());
+    }
+
+    private long getTotalSize() {
+        long size = 0;
+        for (DoubleHashBloomFilter<E> filter : filters) {
+            size += filter.getSize();
+        }
+        return size;
+    }
+
+    /**
+     * The getNumberOfFilters method enables you to get number of filters in chain.
+     *
+     * @return number of filters.
+     */
+    public int getNumberOfFilters() {
+        return filters.size();
+    }
+
+    /**
+     * The getGrowthFactor method enables you to get growth factor of expected number of elements.
+     *
+     * @return growth factor.
+     */
+    public int getGrowthFactor() {
+        return this.growthFactor;
+    }
+
+    /**
+     * The getTighteningRatio method enables you to get tightening ratio of probability of false positives.
+     *
+     * @return tightening ratio.
+     */
+    public double getTighteningRatio() {
+        return this.tighteningRatio;
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter, only the first filter is kept.
+     */
+    @Override
+    public void clear() {
+        filters.clear();
+        addFilter();
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if Bloom Filter is empty.
+     * False, if Bloom Filter is not empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return getNumberOfElements() == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of inserted elements.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        long numberOfElements = 0;
+        for (DoubleHashBloomFilter<E> filter : filters) {
+            numberOfElements += filter.getNumberOfElements();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, numberOfElements);
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of elements of the first filter.
+     *
+     * @return expected number of elements of the first filter.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element of the first filter.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return filters.get(0).getExpectedBitsPerElement();
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element of the whole chain.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        int numberOfElements = getNumberOfElements();
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return getTotalSize() / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions of the newest filter.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return filters.get(filters.size() - 1).getNumberOfHash();
+    }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Implementation of bit storage on Java heap backed by segmented array of longs.
+ *
+ * Each segment keeps 2^20 words (8 MB), so very big storage does not need single contiguous array.
+ *
+ * @author Damian Stygar
+ */
+public class SegmentedLongArrayBitArray implements BitArray, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final long size;
+    private final long numberOfWords;
+    private final long[][] segments;
+
+    /**
+     * Segmented heap bit storage constructor.
+     *
+     * @param size number of bits.
+     */
+    public SegmentedLongArrayBitArray(long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size of bit array should be greater than 0!");
+        }
+        this.size = size;
+        this.numberOfWords = (size + 63) >>> 6;
+        long numberOfSegments = (numberOfWords + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+        if (numberOfSegments > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size of bit array is too big!");
+        }
+        this.segments = new long[(int) numberOfSegments][];
+        for (int i = 0; i < segments.length; i++) {
+            long wordsLeft = numberOfWords - ((long) i << SEGMENT_SHIFT);
+            segments[i] = new long[(int) Math.min(wordsLeft, SEGMENT_MASK + 1)];
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean get(long index) {
+        return (segments[(int) (index >>> (SEGMENT_SHIFT + 6))][(int) (index >>> 6) & SEGMENT_MASK]
+                & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean set(long index) {
+        long[] segment = segments[(int) (index >>> (SEGMENT_SHIFT + 6))];
+        int wordIndex = (int) (index >>> 6) & SEGMENT_MASK;
+        long word = segment[wordIndex];
+        long newWord = word | (1L << index);
+        segment[wordIndex] = newWord;
+        return word != newWord;
+    }
+
+    @Override
+    public long getNumberOfWords() {
+        return numberOfWords;
+    }
+
+    @Override
+    public long getWord(long wordIndex) {
+        return segments[(int) (wordIndex >>> SEGMENT_SHIFT)][(int) wordIndex & SEGMENT_MASK];
+    }
+
+    @Override
+    public void setWord(long wordIndex, long word) {
+        segments[(int) (wordIndex >>> SEGMENT_SHIFT)][(int) wordIndex & SEGMENT_MASK] = word;
+    }
+
+    @Override
+    public long cardinality() {
+        long result = 0;
+        for (long[] segment : segments) {
+            for (long word : segment) {
+                result += Long.bitCount(word);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        for (long[] segment : segments) {
+            Arrays.fill(segment, 0L);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.io.Serializable;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Implementation of Bloom Filter, which contains only elements inserted during the last window of time.
+ *
+ * Window is divided into buckets of the same duration (granularity). Each bucket is thread-safe Bloom Filter
+ * with elements inserted during its time. Buckets are kept in ring: when time of the oldest bucket ends,
+ * it is replaced by new empty bucket with a single compare-and-set operation, so elements expire gradually
+ * and readers are never blocked. Element is remembered at least for window and at most for window plus granularity.
+ *
+ * Element is checked in all buckets, so probability of false positives of each bucket is reduced to:
+ * pb = 1-(1-p)^(1/b),
+ * where p is probability of false positives over window, b is number of buckets.
+ *
+ * @param <E> - the type of elements in this Bloom Filter.
+ * @author Damian Stygar
+ */
+public class SlidingWindowBloomFilter<E> implements BloomFilter<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
+
+    private final double probabilityOfFalsePositives;
+    private final int expectedNumberOfElements;
+    private final long windowMillis;
+    private final long granularityMillis;
+    private final int numberOfBuckets;
+    private final int expectedNumberOfElementsInBucket;
+    private final int bucketSize;
+    private final HashStrategy hashStrategy;
+    private final Clock clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * Sliding window Bloom filter constructor.
+     *
+     * @param probabilityOfFalsePositives probability of false positives over window.
+     * @param expectedNumberOfElements    expected number of elements inserted during window.
+     * @param window                      duration of window.
+     * @param granularity                 duration of bucket, not greater than window.
+     * @param unit                        unit of window and granularity.
+     */
+    public SlidingWindowBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                                    long window, long granularity, TimeUnit unit) {
+        this(probabilityOfFalsePositives, expectedNumberOfElements, window, granularity, unit,
+                DEFAULT_HASH_STRATEGY, Clock.systemUTC());
+    }
+
+    /**
+     * Sliding window Bloom filter constructor.
+     *
+     * @param probabilityOfFalsePositives probability of false positives over window.
+     * @param expectedNumberOfElements    expected number of elements inserted during window.
+     * @param window                      duration of window.
+     * @param granularity                 duration of bucket, not greater than window.
+     * @param unit                        unit of window and granularity.
+     * @param hashStrategy                hash strategy, which can be used by many threads.
+     * @param clock                       source of current time.
+     */
+    public SlidingWindowBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                                    long window, long granularity, TimeUnit unit,
+                                    HashStrategy hashStrategy, Clock clock) {
+        if (probabilityOfFalsePositives <= 0 || probabilityOfFalsePositives >= 1) {
+            throw new IllegalArgumentException("Probability of false positives should be between 0 and 1!");
+        }
+        if (expectedNumberOfElements <= 0) {
+            throw new IllegalArgumentException("Expected number of elements should be greater than 0!");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Unit of time cannot be null!");
+        }
+        if (granularity <= 0 || unit.toMillis(granularity) <= 0) {
+            throw new IllegalArgumentException("Granularity should be at least 1 millisecond!");
+        }
+        if (window < granularity) {
+            throw new IllegalArgumentException("Window should not be shorter than granularity!");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null!");
+        }
+        this.probabilityOfFalsePositives = probabilityOfFalsePositives;
+        this.expectedNumberOfElements = expectedNumberOfElements;
+        this.windowMillis = unit.toMillis(window);
+        this.granularityMillis = unit.toMillis(granularity);
+        this.numberOfBuckets = (int) ((windowMillis + granularityMillis - 1) / granularityMillis) + 1;
+        this.expectedNumberOfElementsInBucket = (int) Math.max(1,
+                Math.ceil(expectedNumberOfElements * (double) granularityMillis / windowMillis));
+        double probabilityOfFalsePositivesInBucket = -Math.expm1(Math.log1p(-probabilityOfFalsePositives) / numberOfBuckets);
+        this.bucketSize = (int) Math.ceil((-expectedNumberOfElementsInBucket * Math.log(probabilityOfFalsePositivesInBucket))
+                / Math.pow(Math.log(2), 2));
+        this.hashStrategy = hashStrategy;
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<Bucket>(numberOfBuckets);
+    }
+
+    private long getCurrentEpoch() {
+        return Math.floorDiv(clock.millis(), granularityMillis);
+    }
+
+    private ConcurrentBloomFilter<E> getCurrentFilter() {
+        long epoch = getCurrentEpoch();
+        int index = (int) Math.floorMod(epoch, (long) numberOfBuckets);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket.getFilter();
+            }
+            Bucket newBucket = new Bucket(epoch, new ConcurrentBloomFilter<E>(bucketSize,
+                    expectedNumberOfElementsInBucket, hashStrategy));
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                return newBucket.getFilter();
+            }
+        }
+    }
+
+    private boolean isLive(Bucket bucket, long epoch) {
+        return bucket != null && bucket.epoch > epoch - numberOfBuckets && bucket.epoch <= epoch;
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param element an element to be inserted to Bloom Filter.
+     */
+    @Override
+    public void add(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        add(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter.
+     *
+     * @param bytes the bytes array of element to be inserted to Bloom Filter.
+     */
+    public void add(byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The add method enables you to insert element to Bloom Filter without copying bytes.
+     *
+     * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     */
+    public void add(byte[] bytes, int offset, int length) {
+        getCurrentFilter().addHashes(hashStrategy.hash(bytes, offset, length, 0),
+                hashStrategy.hash(bytes, offset, length, 1));
+    }
+
+    /**
+     * The addAll method enables you to insert each element from collection to Bloom Filter.
+     *
+     * @param collection a collection with elements to be inserted to Bloom Filter.
+     */
+    @Override
+    public void addAll(Collection<? extends E> collection) {
+        for (E item : collection) {
+            add(item);
+        }
+    }
+
+    /**
+     * The mightContains method enables you to check if element may be inserted during window.
+     *
+     * @param element an element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    @Override
+    public boolean mightContains(E element) {
+        ByteSink sink = ByteSink.threadSink();
+        Funnels.defaultFunnel().funnel(element, sink);
+        return mightContains(sink.getBuffer(), 0, sink.size());
+    }
+
+    /**
+     * The mightContains method enables you to check if element may be inserted during window.
+     *
+     * @param bytes the bytes array of element to be checked.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    public boolean mightContains(byte[] bytes) {
+        return mightContains(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The mightContains method enables you to check if element may be inserted during window without copying bytes.
+     *
+     * Element is hashed once and checked in buckets from the newest one.
+     *
+     * @param bytes  the bytes array contains element to be checked.
+     * @param offset the offset of first byte of element.
+     * @param length the number of bytes of element.
+     * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains element.
+     */
+    public boolean mightContains(byte[] bytes, int offset, int length) {
+        long hashA = hashStrategy.hash(bytes, offset, length, 0);
+        long hashB = hashStrategy.hash(bytes, offset, length, 1);
+        long epoch = getCurrentEpoch();
+        for (int i = 0; i < numberOfBuckets; i++) {
+            Bucket bucket = buckets.get((int) Math.floorMod(epoch - i, (long) numberOfBuckets));
+            if (isLive(bucket, epoch) && bucket.getFilter().containsHashes(hashA, hashB)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+     *
+     * @param collection a collection with elements to be checked.
+     * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+     * False if Bloom Filter cannot contains each element.
+     */
+    @Override
+    public boolean mightContainsAll(Collection<? extends E> collection) {
+        for (E item : collection)
+            if (!mightContains(item))
+                return false;
+        return true;
+    }
+
+    /**
+     * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives
+     * over window.
+     *
+     * @return expected probability of false positives.
+     */
+    @Override
+    public double getExpectedProbabilityOfFalsePositives() {
+        return this.probabilityOfFalsePositives;
+    }
+
+    /**
+     * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives
+     * over window. Element is false positive, if it is false positive in at least one bucket.
+     *
+     * @return actual probability of false positives.
+     */
+    @Override
+    public double getCurrentProbabilityOfFalsePositives() {
+        long epoch = getCurrentEpoch();
+        double probabilityOfTrueNegative = 1;
+        for (int i = 0; i < numberOfBuckets; i++) {
+            Bucket bucket = buckets.get(i);
+            if (isLive(bucket, epoch)) {
+                probabilityOfTrueNegative *= 1 - bucket.getFilter().getCurrentProbabilityOfFalsePositives();
+            }
+        }
+        return 1 - probabilityOfTrueNegative;
+    }
+
+    /**
+     * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+     *
+     * Elements are assumed to be inserted evenly during window.
+     *
+     * @param numberOfElements a number of elements inserted during window.
+     * @return probability of false positives based on parameter.
+     */
+    @Override
+    public double getProbabilityOfFalsePositives(int numberOfElements) {
+        int elementsInBucket = (int) Math.ceil(numberOfElements * (double) granularityMillis / windowMillis);
+        int numberOfHash = getNumberOfHash();
+        double probabilityInBucket = Math.pow((1 - Math.exp(-numberOfHash * elementsInBucket / (double) bucketSize)), numberOfHash);
+        return -Math.expm1(numberOfBuckets * Math.log1p(-probabilityInBucket));
+    }
+
+    /**
+     * The getSize method enables you to get size of all buckets.
+     *
+     * @return size of Bloom Filter, at most {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getSize() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) bucketSize * numberOfBuckets);
+    }
+
+    /**
+     * The getNumberOfBuckets method enables you to get number of buckets.
+     *
+     * @return number of buckets.
+     */
+    public int getNumberOfBuckets() {
+        return this.numberOfBuckets;
+    }
+
+    /**
+     * The getWindow method enables you to get duration of window.
+     *
+     * @param unit unit of result.
+     * @return duration of window.
+     */
+    public long getWindow(TimeUnit unit) {
+        return unit.convert(windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The getGranularity method enables you to get duration of bucket.
+     *
+     * @param unit unit of result.
+     * @return duration of bucket.
+     */
+    public long getGranularity(TimeUnit unit) {
+        return unit.convert(granularityMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The clear method enables you to delete all elements from Bloom Filter.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < numberOfBuckets; i++) {
+            buckets.set(i, null);
+        }
+    }
+
+    /**
+     * The isEmpty method enables you to check if Bloom Filter is empty.
+     *
+     * @return True, if no element was inserted during window.
+     * False, otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return getNumberOfElements() == 0;
+    }
+
+    /**
+     * The getNumberOfElements method enables you to get number of elements inserted during window.
+     *
+     * Element inserted in different buckets is counted in each of them.
+     *
+     * @return number of inserted elements.
+     */
+    @Override
+    public int getNumberOfElements() {
+        long epoch = getCurrentEpoch();
+        long numberOfElements = 0;
+        for (int i = 0; i < numberOfBuckets; i++) {
+            Bucket bucket = buckets.get(i);
+            if (isLive(bucket, epoch)) {
+                numberOfElements += bucket.getFilter().getNumberOfElements();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, numberOfElements);
+    }
+
+    /**
+     * The getExpectedNumberOfElements method enables you to get expected number of elements inserted during window.
+     *
+     * @return expected number of inserted elements.
+     */
+    @Override
+    public int getExpectedNumberOfElements() {
+        return this.expectedNumberOfElements;
+    }
+
+    /**
+     * The getExpectedBitsPerElement method enables you to get expected bits per element.
+     *
+     * @return expected bits per element.
+     */
+    @Override
+    public double getExpectedBitsPerElement() {
+        return getSize() / (double) expectedNumberOfElements;
+    }
+
+    /**
+     * The getBitsPerElement method enables you to get actual bits per element.
+     *
+     * @return actual bits per element.
+     * @throws Exception when actual number of inserted element = 0.
+     */
+    @Override
+    public double getBitsPerElement() throws Exception {
+        int numberOfElements = getNumberOfElements();
+        if (numberOfElements <= 0) {
+            throw new Exception("Bloom Filter is empty!");
+        }
+        return getSize() / (double) numberOfElements;
+    }
+
+    /**
+     * The getNumberOfHash method enables you to get number of hash functions of bucket.
+     *
+     * @return number of hash functions.
+     */
+    @Override
+    public int getNumberOfHash() {
+        return BloomFilterSpec.getOptimalNumberOfHash(bucketSize, expectedNumberOfElementsInBucket);
+    }
+
+    /**
+     * Bloom Filter with elements inserted during single period of time.
+     */
+    private static final class Bucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long epoch;
+        private final ConcurrentBloomFilter<?> filter;
+
+        private Bucket(long epoch, ConcurrentBloomFilter<?> filter) {
+            this.epoch = epoch;
+            this.filter = filter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> ConcurrentBloomFilter<E> getFilter() {
+            return (ConcurrentBloomFilter<E>) filter;
+        }
+    }
+}
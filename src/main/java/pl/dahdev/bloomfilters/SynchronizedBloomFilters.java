@@ -0,0 +1,474 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe wrappers of Bloom Filters.
+ *
+ * @author Damian Stygar
+ */
+public final class SynchronizedBloomFilters {
+
+    private SynchronizedBloomFilters() {
+    }
+
+    /**
+     * The striped method enables you to use Bloom Filter by many threads.
+     *
+     * Words of bit array are divided into continuous ranges, each guarded by its own {@link StampedLock}.
+     * Writers lock only ranges with bits of inserted element, so writers to different ranges do not contend.
+     * Readers use optimistic reads and take read lock only if range was changed during reading.
+     *
+     * Wrapped Bloom Filter should not be used directly anymore.
+     *
+     * @param filter  Bloom Filter to be wrapped.
+     * @param stripes number of ranges of words, limited by number of words.
+     * @param <E>     the type of elements in Bloom Filter.
+     * @return thread-safe Bloom Filter.
+     */
+    public static <E> StripedBloomFilter<E> striped(AbstractBloomFilter<E> filter, int stripes) {
+        if (filter == null) {
+            throw new IllegalArgumentException("Bloom Filter cannot be null!");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes should be greater than 0!");
+        }
+        return new StripedBloomFilter<E>(filter, stripes);
+    }
+
+    /**
+     * Bloom Filter with bit array guarded by stripes of locks.
+     *
+     * @param <E> - the type of elements in this Bloom Filter.
+     */
+    public static final class StripedBloomFilter<E> implements BloomFilter<E> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AbstractBloomFilter<E> filter;
+        private final BitArray bitArray;
+        private final long numberOfWords;
+        private final StampedLock[] locks;
+        private final LongAdder numberOfElements = new LongAdder();
+        private final LongAdder numberOfSetBits = new LongAdder();
+
+        private StripedBloomFilter(AbstractBloomFilter<E> filter, int stripes) {
+            this.filter = filter;
+            this.bitArray = filter.bitArray;
+            this.numberOfWords = bitArray.getNumberOfWords();
+            this.locks = new StampedLock[(int) Math.max(1, Math.min(stripes, numberOfWords))];
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = new StampedLock();
+            }
+            this.numberOfElements.add(filter.numberOfElements);
+            this.numberOfSetBits.add(filter.numberOfSetBits);
+        }
+
+        private int getStripe(int position) {
+            return getStripeOfWord(position >>> 6);
+        }
+
+        private int getStripeOfWord(long word) {
+            return (int) ((word * locks.length) / numberOfWords);
+        }
+
+        /**
+         * The add method enables you to insert element to Bloom Filter.
+         *
+         * @param element an element to be inserted to Bloom Filter.
+         */
+        @Override
+        public void add(E element) {
+            ByteSink sink = ByteSink.threadSink();
+            filter.getFunnel().funnel(element, sink);
+            add(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The add method enables you to insert element to Bloom Filter.
+         *
+         * @param bytes the bytes array of element to be inserted to Bloom Filter.
+         */
+        public void add(byte[] bytes) {
+            add(bytes, 0, bytes.length);
+        }
+
+        /**
+         * The add method enables you to insert long value to Bloom Filter as 8 bytes (little-endian).
+         *
+         * @param value the value to be inserted to Bloom Filter.
+         */
+        public void add(long value) {
+            ByteSink sink = ByteSink.threadSink().putLong(value);
+            add(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The add method enables you to insert int value to Bloom Filter as 4 bytes (little-endian).
+         *
+         * @param value the value to be inserted to Bloom Filter.
+         */
+        public void add(int value) {
+            ByteSink sink = ByteSink.threadSink().putInt(value);
+            add(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The add method enables you to insert element to Bloom Filter without copying bytes.
+         *
+         * Positions are sorted, so each range of words is locked once.
+         *
+         * @param bytes  the bytes array contains element to be inserted to Bloom Filter.
+         * @param offset the offset of first byte of element.
+         * @param length the number of bytes of element.
+         */
+        public void add(byte[] bytes, int offset, int length) {
+            int numberOfHash = filter.numberOfHash;
+            int[] hashes = ByteSink.threadHashes(numberOfHash);
+            filter.createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+            Arrays.sort(hashes, 0, numberOfHash);
+            int i = 0;
+            while (i < numberOfHash) {
+                int stripe = getStripe(hashes[i]);
+                StampedLock lock = locks[stripe];
+                long stamp = lock.writeLock();
+                try {
+                    do {
+                        if (bitArray.set(hashes[i])) {
+                            numberOfSetBits.increment();
+                        }
+                        i++;
+                    } while (i < numberOfHash && getStripe(hashes[i]) == stripe);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+            numberOfElements.increment();
+        }
+
+        /**
+         * The addAll method enables you to insert each element from collection to Bloom Filter.
+         *
+         * @param collection a collection with elements to be inserted to Bloom Filter.
+         */
+        @Override
+        public void addAll(Collection<? extends E> collection) {
+            for (E item : collection) {
+                add(item);
+            }
+        }
+
+        /**
+         * The mightContains method enables you to check if Bloom Filter may contains element.
+         *
+         * @param element an element to be checked.
+         * @return True if Bloom Filter can contains element (Remember that can be false positive result).
+         * False if Bloom Filter cannot contains element.
+         */
+        @Override
+        public boolean mightContains(E element) {
+            ByteSink sink = ByteSink.threadSink();
+            filter.getFunnel().funnel(element, sink);
+            return mightContains(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The mightContains method enables you to check if Bloom Filter may contains element.
+         *
+         * @param bytes the bytes array of element to be checked.
+         * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+         * False if at least one bit is not set.
+         */
+        public boolean mightContains(byte[] bytes) {
+            return mightContains(bytes, 0, bytes.length);
+        }
+
+        /**
+         * The mightContains method enables you to check if Bloom Filter may contains long value.
+         *
+         * @param value the value to be checked.
+         * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+         * False if at least one bit is not set.
+         */
+        public boolean mightContains(long value) {
+            ByteSink sink = ByteSink.threadSink().putLong(value);
+            return mightContains(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The mightContains method enables you to check if Bloom Filter may contains int value.
+         *
+         * @param value the value to be checked.
+         * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+         * False if at least one bit is not set.
+         */
+        public boolean mightContains(int value) {
+            ByteSink sink = ByteSink.threadSink().putInt(value);
+            return mightContains(sink.getBuffer(), 0, sink.size());
+        }
+
+        /**
+         * The mightContains method enables you to check if Bloom Filter may contains element without copying bytes.
+         *
+         * @param bytes  the bytes array contains element to be checked.
+         * @param offset the offset of first byte of element.
+         * @param length the number of bytes of element.
+         * @return True if all bits in Bloom Filter are set (Remember that can be false positive result).
+         * False if at least one bit is not set.
+         */
+        public boolean mightContains(byte[] bytes, int offset, int length) {
+            int numberOfHash = filter.numberOfHash;
+            int[] hashes = ByteSink.threadHashes(numberOfHash);
+            filter.createHashes(bytes, offset, length, numberOfHash, hashes, 0);
+            for (int i = 0; i < numberOfHash; i++) {
+                if (!getBit(hashes[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean getBit(int position) {
+            StampedLock lock = locks[getStripe(position)];
+            long stamp = lock.tryOptimisticRead();
+            boolean bit = bitArray.get(position);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    bit = bitArray.get(position);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return bit;
+        }
+
+        /**
+         * The mightContainsAll method enables you to check if Bloom Filter may contains each element from collection.
+         *
+         * @param collection a collection with elements to be checked.
+         * @return True if Bloom Filter can contains each element (Remember that can be false positive result).
+         * False if Bloom Filter cannot contains each element.
+         */
+        @Override
+        public boolean mightContainsAll(Collection<? extends E> collection) {
+            for (E item : collection)
+                if (!mightContains(item))
+                    return false;
+            return true;
+        }
+
+        /**
+         * The snapshot method enables you to get copy of Bloom Filter, e.g. to write it.
+         *
+         * Words are copied range by range, each under read lock of its own range only, so writers to other ranges
+         * keep going. Every element inserted before call is contained by copy and element inserted during copying
+         * may be contained partially. Number of elements is read before copying, so it is approximate while
+         * Bloom Filter is modified. Number of set bits is counted from copied words.
+         * Copy is independent of this Bloom Filter.
+         *
+         * @return copy of Bloom Filter.
+         * @throws UnsupportedOperationException when Bloom Filter is a subclass, which may compute different positions.
+         */
+        public AbstractBloomFilter<E> snapshot() {
+            AbstractBloomFilter<E> copy = BloomFilterFormat.createEmptyCopy(filter);
+            copy.numberOfElements = getNumberOfElements();
+            long setBits = 0;
+            long word = 0;
+            for (int stripe = 0; stripe < locks.length; stripe++) {
+                long stamp = locks[stripe].readLock();
+                try {
+                    for (; word < numberOfWords && getStripeOfWord(word) == stripe; word++) {
+                        long value = bitArray.getWord(word);
+                        copy.bitArray.setWord(word, value);
+                        setBits += Long.bitCount(value);
+                    }
+                } finally {
+                    locks[stripe].unlockRead(stamp);
+                }
+            }
+            copy.numberOfSetBits = setBits;
+            return copy;
+        }
+
+        /**
+         * The getNumberOfStripes method enables you to get number of ranges of words guarded by separate locks.
+         *
+         * @return number of stripes.
+         */
+        public int getNumberOfStripes() {
+            return locks.length;
+        }
+
+        /**
+         * The getNumberOfSetBits method enables you to get number of bits set to 1.
+         *
+         * @return number of set bits.
+         */
+        public long getNumberOfSetBits() {
+            return numberOfSetBits.sum();
+        }
+
+        /**
+         * The getExpectedProbabilityOfFalsePositives method enables you to get expected probability of false positives.
+         *
+         * @return expected probability of false positives.
+         */
+        @Override
+        public double getExpectedProbabilityOfFalsePositives() {
+            return filter.getExpectedProbabilityOfFalsePositives();
+        }
+
+        /**
+         * The getCurrentProbabilityOfFalsePositives method enables you to get actual probability of false positives.
+         *
+         * @return actual probability of false positives.
+         */
+        @Override
+        public double getCurrentProbabilityOfFalsePositives() {
+            return filter.getProbabilityOfFalsePositives(getNumberOfElements());
+        }
+
+        /**
+         * The getProbabilityOfFalsePositives method enables you to get probability of false positives based on parameter.
+         *
+         * @param numberOfElements a number of elements in Bloom Filter.
+         * @return probability of false positives based on parameter.
+         */
+        @Override
+        public double getProbabilityOfFalsePositives(int numberOfElements) {
+            return filter.getProbabilityOfFalsePositives(numberOfElements);
+        }
+
+        /**
+         * The getSize method enables you to get size of Bloom Filter.
+         *
+         * @return size of Bloom Filter.
+         */
+        @Override
+        public int getSize() {
+            return filter.getSize();
+        }
+
+        /**
+         * The clear method enables you to delete all elements from Bloom Filter.
+         */
+        @Override
+        public void clear() {
+            long[] stamps = new long[locks.length];
+            for (int i = 0; i < locks.length; i++) {
+                stamps[i] = locks[i].writeLock();
+            }
+            try {
+                bitArray.clear();
+                numberOfElements.reset();
+                numberOfSetBits.reset();
+            } finally {
+                for (int i = locks.length - 1; i >= 0; i--) {
+                    locks[i].unlockWrite(stamps[i]);
+                }
+            }
+        }
+
+        /**
+         * The isEmpty method enables you to check if Bloom Filter is empty.
+         *
+         * @return True, if Bloom Filter is empty.
+         * False, if Bloom Filter is not empty.
+         */
+        @Override
+        public boolean isEmpty() {
+            return numberOfElements.sum() == 0;
+        }
+
+        /**
+         * The getNumberOfElements method enables you to get number of inserted elements.
+         *
+         * @return number of inserted elements.
+         */
+        @Override
+        public int getNumberOfElements() {
+            return (int) Math.min(Integer.MAX_VALUE, numberOfElements.sum());
+        }
+
+        /**
+         * The getExpectedNumberOfElements method enables you to get expected number of inserted elements.
+         *
+         * @return expected number of inserted elements.
+         */
+        @Override
+        public int getExpectedNumberOfElements() {
+            return filter.getExpectedNumberOfElements();
+        }
+
+        /**
+         * The getExpectedBitsPerElement method enables you to get expected bits per element.
+         *
+         * @return expected bits per element.
+         */
+        @Override
+        public double getExpectedBitsPerElement() {
+            return filter.getExpectedBitsPerElement();
+        }
+
+        /**
+         * The getBitsPerElement method enables you to get actual bits per element.
+         *
+         * @return actual bits per element.
+         * @throws Exception when actual number of inserted element = 0.
+         */
+        @Override
+        public double getBitsPerElement() throws Exception {
+            int elements = getNumberOfElements();
+            if (elements <= 0) {
+                throw new Exception("Bloom Filter is empty!");
+            }
+            return getSize() / (double) elements;
+        }
+
+        /**
+         * The getNumberOfHash method enables you to get number of hash functions.
+         *
+         * @return number of hash functions.
+         */
+        @Override
+        public int getNumberOfHash() {
+            return filter.getNumberOfHash();
+        }
+
+        /**
+         * Bloom Filter is serialized as its snapshot, because locks cannot be serialized.
+         *
+         * @return snapshot of Bloom Filter.
+         */
+        private Object writeReplace() {
+            return snapshot();
+        }
+    }
+}
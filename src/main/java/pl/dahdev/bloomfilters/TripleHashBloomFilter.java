@@ -24,7 +24,6 @@
 package pl.dahdev.bloomfilters;
 
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * Implementation of Bloom Filter using Triple Hashing.
@@ -39,13 +38,11 @@ import java.security.NoSuchAlgorithmException;
  */
 public class TripleHashBloomFilter<E> extends AbstractBloomFilter<E> {
 
-    private static final String DEFAULT_FIRST_HASH_FUNCTION = "SHA-1";
-    private static final String DEFAULT_SECOND_HASH_FUNCTION = "MD5";
-    private static final String DEFAULT_THIRD_HASH_FUNCTION = "SHA-512";
+    private static final HashStrategy DEFAULT_HASH_STRATEGY = new Murmur3HashStrategy();
 
-    private MessageDigest firstHash;
-    private MessageDigest secondHash;
-    private MessageDigest thirdHash;
+    private HashStrategy firstHash;
+    private HashStrategy secondHash;
+    private HashStrategy thirdHash;
 
     /**
      * Triple Hashing Bloom filter constructor.
@@ -58,14 +55,7 @@ public class TripleHashBloomFilter<E> extends AbstractBloomFilter<E> {
      * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
      */
     public TripleHashBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements) {
-        super(probabilityOfFalsePositives, expectedNumberOfElements);
-        try {
-            firstHash = MessageDigest.getInstance(DEFAULT_FIRST_HASH_FUNCTION);
-            secondHash = MessageDigest.getInstance(DEFAULT_SECOND_HASH_FUNCTION);
-            thirdHash = MessageDigest.getInstance(DEFAULT_THIRD_HASH_FUNCTION);
-        } catch (NoSuchAlgorithmException error) {
-            throw new RuntimeException("Cannot get instance of hash functions!");
-        }
+        this(probabilityOfFalsePositives, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
     }
 
     /**
@@ -92,9 +82,33 @@ public class TripleHashBloomFilter<E> extends AbstractBloomFilter<E> {
                 || firstHashFunction.equals(thirdHashFunction)) {
             throw new IllegalArgumentException("Hash functions cannot be the same!");
         }
-        firstHash = firstHashFunction;
-        secondHash = secondHashFunction;
-        thirdHash = thirdHashFunction;
+        firstHash = new MessageDigestHashStrategy(firstHashFunction);
+        secondHash = new MessageDigestHashStrategy(secondHashFunction);
+        thirdHash = new MessageDigestHashStrategy(thirdHashFunction);
+    }
+
+    /**
+     * Triple Hashing Bloom filter constructor.
+     *
+     * Size of Bloom Filter is estimated from:
+     * m = (-n*ln(p))/(ln(2))^2,
+     * where m is size of Bloom Filter, n is number of expected elements, p is probability of false positives.
+     *
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param probabilityOfFalsePositives probability of false positives.
+     * @param expectedNumberOfElements    expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy                hash strategy.
+     */
+    public TripleHashBloomFilter(double probabilityOfFalsePositives, int expectedNumberOfElements,
+                                 HashStrategy hashStrategy) {
+        super(probabilityOfFalsePositives, expectedNumberOfElements);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
+        thirdHash = hashStrategy;
     }
 
     /**
@@ -114,14 +128,7 @@ public class TripleHashBloomFilter<E> extends AbstractBloomFilter<E> {
      * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
      */
     public TripleHashBloomFilter(int size, int expectedNumberOfElements) {
-        super(size, expectedNumberOfElements);
-        try {
-            firstHash = MessageDigest.getInstance(DEFAULT_FIRST_HASH_FUNCTION);
-            secondHash = MessageDigest.getInstance(DEFAULT_SECOND_HASH_FUNCTION);
-            thirdHash = MessageDigest.getInstance(DEFAULT_THIRD_HASH_FUNCTION);
-        } catch (NoSuchAlgorithmException error) {
-            throw new RuntimeException("Cannot get instance of hash functions!");
-        }
+        this(size, expectedNumberOfElements, DEFAULT_HASH_STRATEGY);
     }
 
     /**
@@ -154,34 +161,102 @@ public class TripleHashBloomFilter<E> extends AbstractBloomFilter<E> {
                 || firstHashFunction.equals(thirdHashFunction)) {
             throw new IllegalArgumentException("Hash functions cannot be the same!");
         }
-        firstHash = firstHashFunction;
-        secondHash = secondHashFunction;
-        thirdHash = thirdHashFunction;
+        firstHash = new MessageDigestHashStrategy(firstHashFunction);
+        secondHash = new MessageDigestHashStrategy(secondHashFunction);
+        thirdHash = new MessageDigestHashStrategy(thirdHashFunction);
+    }
+
+    /**
+     * Triple Hashing Bloom filter constructor.
+     *
+     * Number of hash functions is estimated from:
+     * k = (m/n)ln(2),
+     * where k is number of hash functions, m is size of Bloom Filter, n is number of expected elements.
+     *
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param size                     size of Bloom Filter.
+     * @param expectedNumberOfElements expected number of elements to be inserted to Bloom Filter.
+     * @param hashStrategy             hash strategy.
+     */
+    public TripleHashBloomFilter(int size, int expectedNumberOfElements, HashStrategy hashStrategy) {
+        super(size, expectedNumberOfElements);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
+        thirdHash = hashStrategy;
+    }
+
+    /**
+     * Triple Hashing Bloom filter constructor.
+     *
+     * Size and number of hash functions are taken from parameters of Bloom Filter.
+     *
+     * @param spec parameters of Bloom Filter.
+     */
+    public TripleHashBloomFilter(BloomFilterSpec spec) {
+        this(spec, DEFAULT_HASH_STRATEGY);
+    }
+
+    /**
+     * Triple Hashing Bloom filter constructor.
+     *
+     * Size and number of hash functions are taken from parameters of Bloom Filter.
+     * Every hash function is computed by hash strategy with different seed.
+     *
+     * @param spec         parameters of Bloom Filter.
+     * @param hashStrategy hash strategy.
+     */
+    public TripleHashBloomFilter(BloomFilterSpec spec, HashStrategy hashStrategy) {
+        super(spec);
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("Instance of hash strategy cannot be null!");
+        }
+        firstHash = hashStrategy;
+        secondHash = hashStrategy;
+        thirdHash = hashStrategy;
     }
 
     /**
      * The createHashes method enables you to create hash functions.
      *
      * @param bytes        the byte array contains data.
+     * @param offset       the offset of first byte of data.
+     * @param length       the number of bytes of data.
      * @param numberOfHash number of hash function.
-     * @return int array with result hashes.
+     * @param hashes       array for result hashes.
+     * @param hashesOffset the offset of the first result hash in array.
      */
     @Override
-    protected int[] createHashes(byte[] bytes, int numberOfHash) {
+    protected void createHashes(byte[] bytes, int offset, int length, int numberOfHash, int[] hashes, int hashesOffset) {
         int valueA, valueB, valueC;
-        int[] hashes = new int[numberOfHash];
 
-        valueA = getValueFromGeneratedHash(bytes, firstHash);
-        valueB = getValueFromGeneratedHash(bytes, secondHash);
-        valueC = getValueFromGeneratedHash(bytes, thirdHash);
+        if (firstHash == secondHash) {
+            long values = getValuesFromGeneratedHash(bytes, offset, length, firstHash);
+            valueA = (int) (values >>> 32);
+            valueB = (int) values;
+        } else {
+            valueA = getValueFromGeneratedHash(bytes, offset, length, firstHash, 0);
+            valueB = getValueFromGeneratedHash(bytes, offset, length, secondHash, 1);
+        }
+        valueC = getValueFromGeneratedHash(bytes, offset, length, thirdHash, 2);
+
+        createHashes(HashingMethod.TRIPLE, valueA, valueB, valueC, numberOfHash, hashes, hashesOffset);
+    }
 
-        hashes[0] = valueA;
-        for (int i = 0; i < numberOfHash; i++) {
-            valueA = (valueA + valueB) % size;
-            valueB = (valueB + valueC) % size;
-            hashes[i] = valueA;
+    /**
+     * The getHashStrategies method enables you to get hash strategies used by Bloom Filter.
+     *
+     * @return hash strategies, single one if every hash function is computed by the same strategy.
+     */
+    @Override
+    HashStrategy[] getHashStrategies() {
+        if (firstHash == secondHash && secondHash == thirdHash) {
+            return new HashStrategy[]{firstHash};
         }
-        return hashes;
+        return new HashStrategy[]{firstHash, secondHash, thirdHash};
     }
 
 }
@@ -0,0 +1,283 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncBloomFilterWriterTest {
+
+    @Test
+    public void flushMakesElementsVisibleTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 10000);
+        AsyncBloomFilterWriter<Integer> writer = new AsyncBloomFilterWriter<Integer>(filter, 128);
+        try {
+            for (int i = 0; i < 10000; i++) {
+                assertTrue(writer.add(i));
+            }
+            writer.flush();
+            for (int i = 0; i < 10000; i++) {
+                assertTrue(writer.mightContains(i));
+            }
+            assertEquals(10000, filter.getNumberOfElements());
+            assertEquals(0, writer.getNumberOfPending());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void manyProducersTest() throws Exception {
+        TripleHashBloomFilter<Integer> filter = new TripleHashBloomFilter<Integer>(0.01, 40000);
+        final AsyncBloomFilterWriter<Integer> writer = new AsyncBloomFilterWriter<Integer>(filter, 1024);
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int start = t * 10000;
+            producers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = start; i < start + 10000; i++) {
+                        writer.add(i);
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.close();
+        assertEquals(40000, filter.getNumberOfElements());
+        for (int i = 0; i < 40000; i++) {
+            assertTrue(filter.mightContains(i));
+        }
+    }
+
+    @Test
+    public void dropPolicyTest() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        BlockingFilter filter = new BlockingFilter(blocked, release);
+        AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(filter, 2, 1,
+                AsyncBloomFilterWriter.BackpressurePolicy.DROP);
+        try {
+            writer.add("First");
+            blocked.await();
+            assertTrue(writer.add("Second"));
+            assertTrue(writer.add("Third"));
+            assertFalse(writer.add("Fourth"));
+            assertEquals(1, writer.getNumberOfDropped());
+        } finally {
+            release.countDown();
+            writer.close();
+        }
+        assertEquals(3, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void callerRunsPolicyTest() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final BlockingFilter filter = new BlockingFilter(blocked, release);
+        final AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(filter, 1, 1,
+                AsyncBloomFilterWriter.BackpressurePolicy.CALLER_RUNS);
+        try {
+            writer.add("First");
+            blocked.await();
+            writer.add("Second");
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    writer.add("Third");
+                }
+            });
+            producer.start();
+            release.countDown();
+            producer.join();
+            writer.flush();
+            assertEquals(3, filter.getNumberOfElements());
+            assertEquals(0, writer.getNumberOfDropped());
+        } finally {
+            release.countDown();
+            writer.close();
+        }
+    }
+
+    @Test
+    public void closeInsertsEveryAcceptedElementTest() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100000);
+            final AsyncBloomFilterWriter<Integer> writer = new AsyncBloomFilterWriter<Integer>(filter, 16);
+            final AtomicInteger accepted = new AtomicInteger();
+            List<Thread> producers = new ArrayList<Thread>();
+            for (int t = 0; t < 4; t++) {
+                final int start = t * 100000;
+                producers.add(new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = start; i < start + 100000; i++) {
+                                if (writer.add(i)) {
+                                    accepted.incrementAndGet();
+                                }
+                            }
+                        } catch (IllegalStateException closed) {
+                            // writer was closed
+                        }
+                    }
+                }));
+            }
+            for (Thread producer : producers) {
+                producer.start();
+            }
+            Thread.sleep(1);
+            writer.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            assertEquals(accepted.get(), filter.getNumberOfElements());
+        }
+    }
+
+    @Test
+    public void failureIsReportedByCloseTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100) {
+            @Override
+            public void addBatch(byte[][] elements) {
+                throw new IllegalArgumentException("Test");
+            }
+        };
+        AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(filter, 16);
+        writer.add("Test");
+        try {
+            writer.close();
+            fail("Failure should be reported by close!");
+        } catch (IllegalStateException error) {
+            assertTrue(error.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void errorStopsWriterTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100) {
+            @Override
+            public void addBatch(byte[][] elements) {
+                throw new AssertionError("Test");
+            }
+        };
+        AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(filter, 1);
+        writer.add("Test");
+        try {
+            writer.flush();
+            fail("Error should stop writer!");
+        } catch (IllegalStateException error) {
+            assertTrue(error.getCause() instanceof AssertionError);
+        }
+        try {
+            writer.add("Test");
+            fail("Stopped writer should reject elements!");
+        } catch (IllegalStateException error) {
+            assertTrue(error.getCause() instanceof AssertionError);
+        }
+        try {
+            writer.close();
+            fail("Error should be reported by close!");
+        } catch (IllegalStateException error) {
+            assertTrue(error.getCause() instanceof AssertionError);
+        }
+    }
+
+    @Test
+    public void failureIsClearedByFlushTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100) {
+            @Override
+            public void addBatch(byte[][] elements) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalArgumentException("Test");
+                }
+                super.addBatch(elements);
+            }
+        };
+        AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(filter, 16);
+        writer.add("First");
+        try {
+            writer.flush();
+            fail("Failure should be reported by flush!");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        writer.add("Second");
+        writer.flush();
+        writer.close();
+        assertTrue(filter.mightContains("Second"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterCloseTest() {
+        AsyncBloomFilterWriter<String> writer = new AsyncBloomFilterWriter<String>(
+                new DoubleHashBloomFilter<String>(0.01, 100), 16);
+        writer.close();
+        writer.add("Test");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacityTest() {
+        new AsyncBloomFilterWriter<String>(new DoubleHashBloomFilter<String>(0.01, 100), 0);
+    }
+
+    /**
+     * Bloom Filter, which blocks inserting of the first element until it is released.
+     */
+    private static final class BlockingFilter extends DoubleHashBloomFilter<String> {
+
+        private final CountDownLatch blocked;
+        private final CountDownLatch release;
+
+        private BlockingFilter(CountDownLatch blocked, CountDownLatch release) {
+            super(0.01, 100);
+            this.blocked = blocked;
+            this.release = release;
+        }
+
+        @Override
+        public void addBatch(byte[][] elements) {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            super.addBatch(elements);
+        }
+    }
+}
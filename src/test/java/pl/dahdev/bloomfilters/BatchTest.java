@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.BitSet;
+
+/**
+ * @author Damian Stygar
+ */
+public class BatchTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static AbstractBloomFilter<?>[] createFilters() {
+        return new AbstractBloomFilter<?>[]{
+                new DoubleHashBloomFilter<Long>(0.01, 1000),
+                new TripleHashBloomFilter<Long>(0.01, 1000),
+                new EnhancedDoubleHashBloomFilter<Long>(0.01, 1000)
+        };
+    }
+
+    @Test
+    public void addBatchIsEqualToAddTest() {
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 7919L;
+        }
+        AbstractBloomFilter<?>[] batchFilters = createFilters();
+        AbstractBloomFilter<?>[] filters = createFilters();
+        for (int j = 0; j < filters.length; j++) {
+            batchFilters[j].addBatch(values);
+            for (long value : values) {
+                filters[j].add(value);
+            }
+            Assert.assertEquals(filters[j], batchFilters[j]);
+            Assert.assertEquals(values.length, batchFilters[j].getNumberOfElements());
+        }
+    }
+
+    @Test
+    public void mightContainsBatchIsEqualToMightContainsTest() {
+        long[] values = new long[200];
+        long[] checked = new long[400];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        for (int i = 0; i < checked.length; i++) {
+            checked[i] = i * 3L;
+        }
+        for (AbstractBloomFilter<?> filter : createFilters()) {
+            filter.addBatch(values);
+            boolean[] results = new boolean[checked.length];
+            filter.mightContainsBatch(checked, results);
+            BitSet bitSet = filter.mightContainsBatch(checked);
+            for (int i = 0; i < checked.length; i++) {
+                Assert.assertEquals(filter.mightContains(checked[i]), results[i]);
+                Assert.assertEquals(results[i], bitSet.get(i));
+            }
+            for (int i = 0; i < values.length / 3; i++) {
+                Assert.assertTrue(results[i]);
+            }
+        }
+    }
+
+    @Test
+    public void bytesBatchTest() {
+        byte[][] elements = new byte[100][];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = ("element" + i).getBytes(UTF_8);
+        }
+        for (AbstractBloomFilter<?> filter : createFilters()) {
+            filter.addBatch(elements);
+            Assert.assertTrue(filter.mightContains("element42"));
+            Assert.assertEquals(elements.length, filter.mightContainsBatch(elements).cardinality());
+        }
+    }
+
+    @Test
+    public void emptyBatchTest() {
+        for (AbstractBloomFilter<?> filter : createFilters()) {
+            filter.addBatch(new long[0]);
+            Assert.assertTrue(filter.isEmpty());
+            Assert.assertTrue(filter.mightContainsBatch(new long[0]).isEmpty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallArrayOfResultsTest() {
+        new DoubleHashBloomFilter<Long>(0.01, 1000).mightContainsBatch(new long[2], new boolean[1]);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Damian Stygar
+ */
+public class BinaryFuseFilterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongFingerprintBitsTest() {
+        BinaryFuseFilter.<String>builder().fingerprintBits(12);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTest() {
+        BinaryFuseFilter.<String>builder().build(Arrays.asList("Test")).add("Other");
+    }
+
+    @Test
+    public void emptyFilterTest() {
+        BinaryFuseFilter<String> filter = BinaryFuseFilter.<String>builder().build(Collections.<String>emptyList());
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains("Test"));
+    }
+
+    @Test
+    public void smallFilterTest() {
+        for (int size = 1; size < 50; size++) {
+            List<String> elements = new ArrayList<String>();
+            for (int i = 0; i < size; i++) {
+                elements.add("Element" + i);
+            }
+            BinaryFuseFilter<String> filter = BinaryFuseFilter.<String>builder().build(elements);
+            Assert.assertEquals(size, filter.getNumberOfElements());
+            Assert.assertTrue(filter.mightContainsAll(elements));
+        }
+    }
+
+    @Test
+    public void duplicatesTest() {
+        BinaryFuseFilter<String> filter = BinaryFuseFilter.<String>builder()
+                .build(Arrays.asList("Test", "Test", "Other", "Test"));
+        Assert.assertEquals(2, filter.getNumberOfElements());
+        Assert.assertTrue(filter.mightContains("Test"));
+        Assert.assertTrue(filter.mightContains("Other"));
+    }
+
+    @Test
+    public void keysTest() {
+        long[] keys = new long[200000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 31L;
+        }
+        BinaryFuseFilter<Long> filter = BinaryFuseFilter.<Long>builder().build(keys);
+        for (long key : keys) {
+            Assert.assertTrue(filter.mightContains(key));
+            Assert.assertTrue(filter.mightContains(Long.valueOf(key)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContains(-1L - i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertEquals(filter.getCurrentProbabilityOfFalsePositives(), falsePositives / 100000.0, 0.001);
+    }
+
+    @Test
+    public void sequentialAndParallelBuildTest() {
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            elements.add(i);
+        }
+        BinaryFuseFilter<Integer> parallelFilter = BinaryFuseFilter.<Integer>builder().fingerprintBits(16)
+                .build(elements);
+        BinaryFuseFilter<Integer> sequentialFilter = BinaryFuseFilter.<Integer>builder().fingerprintBits(16)
+                .parallel(false).build(elements);
+        for (int i = 0; i < 200000; i++) {
+            Assert.assertEquals(parallelFilter.mightContains(i), sequentialFilter.mightContains(i));
+        }
+        Assert.assertTrue(parallelFilter.mightContainsAll(elements));
+        Assert.assertEquals(1 / 65536.0, parallelFilter.getCurrentProbabilityOfFalsePositives(), 0);
+    }
+
+    @Test
+    public void lessMemoryThanBloomFilterTest() throws Exception {
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < 1000000; i++) {
+            elements.add(i);
+        }
+        BinaryFuseFilter<Integer> filter = BinaryFuseFilter.<Integer>builder().build(elements);
+        DoubleHashBloomFilter<Integer> bloomFilter = new DoubleHashBloomFilter<Integer>(1 / 256.0, 1000000);
+        Assert.assertTrue(filter.getBitsPerElement() < 9.2);
+        Assert.assertTrue(filter.getSize() < 0.8 * bloomFilter.getSize());
+    }
+}
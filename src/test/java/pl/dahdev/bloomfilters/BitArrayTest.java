@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * @author Damian Stygar
+ */
+public class BitArrayTest {
+
+    private static final int SIZE_OF_BIT_ARRAY = 1000;
+
+    private void checkBitArray(BitArray bitArray) {
+        Assert.assertEquals(SIZE_OF_BIT_ARRAY, bitArray.size());
+        Assert.assertEquals((SIZE_OF_BIT_ARRAY + 63) / 64, bitArray.getNumberOfWords());
+        Assert.assertTrue(bitArray.set(0));
+        Assert.assertTrue(bitArray.set(63));
+        Assert.assertTrue(bitArray.set(64));
+        Assert.assertTrue(bitArray.set(SIZE_OF_BIT_ARRAY - 1));
+        Assert.assertFalse(bitArray.set(63));
+        Assert.assertTrue(bitArray.get(0));
+        Assert.assertTrue(bitArray.get(63));
+        Assert.assertTrue(bitArray.get(64));
+        Assert.assertFalse(bitArray.get(65));
+        Assert.assertEquals(4, bitArray.cardinality());
+        Assert.assertEquals(0x8000000000000001L, bitArray.getWord(0));
+        bitArray.setWord(2, -1L);
+        Assert.assertEquals(68, bitArray.cardinality());
+        bitArray.clear();
+        Assert.assertEquals(0, bitArray.cardinality());
+    }
+
+    @Test
+    public void longArrayBitArrayTest() {
+        checkBitArray(new LongArrayBitArray(SIZE_OF_BIT_ARRAY));
+    }
+
+    @Test
+    public void segmentedLongArrayBitArrayTest() {
+        checkBitArray(new SegmentedLongArrayBitArray(SIZE_OF_BIT_ARRAY));
+    }
+
+    @Test
+    public void directByteBufferBitArrayTest() {
+        checkBitArray(ByteBufferBitArray.allocateDirect(SIZE_OF_BIT_ARRAY));
+    }
+
+    @Test
+    public void wrappedByteBufferBitArrayTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + SIZE_OF_BIT_ARRAY / 8 + 8);
+        buffer.position(8);
+        checkBitArray(ByteBufferBitArray.wrap(buffer, SIZE_OF_BIT_ARRAY));
+        Assert.assertEquals(8, buffer.position());
+    }
+
+    @Test
+    public void mappedByteBufferBitArrayTest() throws IOException {
+        File file = File.createTempFile("bloom-filter", ".bits");
+        file.deleteOnExit();
+        checkBitArray(ByteBufferBitArray.map(file, SIZE_OF_BIT_ARRAY));
+    }
+
+    @Test
+    public void mappedBloomFilterCanBeOpenedAgainTest() throws IOException {
+        File file = File.createTempFile("bloom-filter", ".bits");
+        file.deleteOnExit();
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.001, 100);
+        ByteBufferBitArray bitArray = ByteBufferBitArray.map(file, filter.getSize());
+        filter.setBitArray(bitArray);
+        filter.add("First element");
+        bitArray.force();
+
+        AbstractBloomFilter<String> openedFilter = new DoubleHashBloomFilter<String>(0.001, 100);
+        openedFilter.setBitArray(ByteBufferBitArray.map(file, openedFilter.getSize()));
+        Assert.assertTrue(openedFilter.mightContains("First element"));
+    }
+
+    @Test
+    public void openedFilterIsNotEmptyTest() {
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.001, 100);
+        for (int i = 0; i < 50; i++) {
+            filter.add("Element" + i);
+        }
+        AbstractBloomFilter<String> openedFilter = new DoubleHashBloomFilter<String>(0.001, 100);
+        openedFilter.setBitArray(filter.getBitArray());
+        Assert.assertFalse(openedFilter.isEmpty());
+        Assert.assertEquals(50, openedFilter.getNumberOfElements(), 2);
+        Assert.assertTrue(openedFilter.getCurrentProbabilityOfFalsePositives() > 0);
+
+        AbstractBloomFilter<String> countedFilter = new DoubleHashBloomFilter<String>(0.001, 100);
+        countedFilter.setBitArray(filter.getBitArray(), 50);
+        Assert.assertEquals(50, countedFilter.getNumberOfElements());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setSeedOfOpenedFilterTest() {
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.001, 100);
+        filter.add("First element");
+        AbstractBloomFilter<String> openedFilter = new DoubleHashBloomFilter<String>(0.001, 100);
+        openedFilter.setBitArray(filter.getBitArray(), 0);
+        openedFilter.setSeed(42);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTooSmallBitArrayTest() {
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.001, 100);
+        filter.setBitArray(new LongArrayBitArray(filter.getSize() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTooLargeBitArrayTest() {
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(959, 100);
+        filter.setBitArray(ByteBufferBitArray.allocateDirect(filter.getSize() + 1000));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setBitArrayWhenFilterIsNotEmptyTest() {
+        AbstractBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.001, 100);
+        filter.add("First element");
+        filter.setBitArray(new LongArrayBitArray(filter.getSize()));
+    }
+}
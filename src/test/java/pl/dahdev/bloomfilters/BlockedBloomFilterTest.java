@@ -0,0 +1,123 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Damian Stygar
+ */
+public class BlockedBloomFilterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroSizeTest() {
+        new BlockedBloomFilter<String>(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroExpectedNumberOfElementsTest() {
+        new BlockedBloomFilter<String>(1000, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashStrategyTest() {
+        new BlockedBloomFilter<String>(1000, 10, null);
+    }
+
+    @Test
+    public void sizeIsRoundedToBlockTest() {
+        BlockedBloomFilter<String> filter = new BlockedBloomFilter<String>(1000, 100);
+        Assert.assertEquals(1024, filter.getSize());
+        Assert.assertEquals(2, filter.getNumberOfBlocks());
+    }
+
+    @Test
+    public void noFalseNegativesTest() {
+        BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<Integer>(0.01, 10000);
+        for (int i = 0; i < 10000; i++) {
+            filter.add(i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        Assert.assertEquals(10000, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void expectedProbabilityIsKeptTest() {
+        BlockedBloomFilter<String> filter = new BlockedBloomFilter<String>(0.01, 10000);
+        Assert.assertTrue(filter.getExpectedProbabilityOfFalsePositives() <= 0.01);
+    }
+
+    @Test
+    public void blockedProbabilityIsHigherThanStandardTest() {
+        BlockedBloomFilter<String> filter = new BlockedBloomFilter<String>(96000, 10000);
+        int k = filter.getNumberOfHash();
+        double standard = Math.pow(1 - Math.exp(-k * 10000 / (double) filter.getSize()), k);
+        Assert.assertTrue(filter.getExpectedProbabilityOfFalsePositives() > standard);
+    }
+
+    @Test
+    public void measuredProbabilityIsCloseToComputedTest() {
+        BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<Integer>(0.01, 20000);
+        for (int i = 0; i < 20000; i++) {
+            filter.add(i);
+        }
+        int falsePositives = 0;
+        int checks = 200000;
+        for (int i = 0; i < checks; i++) {
+            if (filter.mightContains(-1 - i)) {
+                falsePositives++;
+            }
+        }
+        double measured = falsePositives / (double) checks;
+        double computed = filter.getCurrentProbabilityOfFalsePositives();
+        Assert.assertEquals(computed, measured, computed * 0.3);
+    }
+
+    @Test
+    public void clearTest() {
+        BlockedBloomFilter<String> filter = new BlockedBloomFilter<String>(0.01, 100);
+        filter.add("Test");
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains("Test"));
+        Assert.assertEquals(0, filter.getCurrentProbabilityOfFalsePositives(), 0);
+    }
+
+    @Test(expected = Exception.class)
+    public void getBitsPerElementOfEmptyFilterTest() throws Exception {
+        new BlockedBloomFilter<String>(0.01, 100).getBitsPerElement();
+    }
+
+    @Test
+    public void sameNumberOfHashAsSpecificationTest() {
+        for (int expectedNumberOfElements : new int[]{1, 10, 100, 1000, 100000}) {
+            BlockedBloomFilter<String> filter = new BlockedBloomFilter<String>(0.01, expectedNumberOfElements);
+            Assert.assertEquals(BloomFilterSpec.getOptimalNumberOfHash(filter.getSize(), expectedNumberOfElements),
+                    filter.getNumberOfHash());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Damian Stygar
+ */
+public class BloomFilterFormatTest {
+
+    private static final double PROBABILITY_OF_FALSE_POSITIVES = 0.001;
+    private static final int EXPECTED_NUMBER_OF_ELEMENTS = 1000;
+
+    private static volatile boolean unrelatedClassInitialized;
+
+    private List<AbstractBloomFilter<String>> createFilters() throws NoSuchAlgorithmException {
+        List<AbstractBloomFilter<String>> filters = new ArrayList<AbstractBloomFilter<String>>();
+        filters.add(new DoubleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS));
+        filters.add(new TripleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS,
+                new XxHash64HashStrategy()));
+        filters.add(new EnhancedDoubleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES,
+                EXPECTED_NUMBER_OF_ELEMENTS, new CityHashStrategy()));
+        filters.add(new DoubleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS,
+                MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5")));
+        filters.add(new TripleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS,
+                MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5"),
+                MessageDigest.getInstance("SHA-512")));
+        filters.get(1).setSeed(42);
+        filters.get(3).setIndexMapping(IndexMapping.LEGACY_MODULO);
+        for (AbstractBloomFilter<String> filter : filters) {
+            for (int i = 0; i < 100; i++) {
+                filter.add("Element " + i);
+            }
+        }
+        return filters;
+    }
+
+    private void checkFilter(AbstractBloomFilter<String> expected, AbstractBloomFilter<String> actual) {
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expected.getSeed(), actual.getSeed());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(actual.mightContains("Element " + i));
+        }
+    }
+
+    @Test
+    public void writeToAndReadFromStreamTest() throws Exception {
+        for (AbstractBloomFilter<String> filter : createFilters()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            filter.writeTo(outputStream);
+            Assert.assertEquals(filter.getSerializedSize(), outputStream.size());
+            AbstractBloomFilter<String> readFilter =
+                    AbstractBloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+            checkFilter(filter, readFilter);
+        }
+    }
+
+    @Test
+    public void writeToAndReadFromBufferTest() throws Exception {
+        for (AbstractBloomFilter<String> filter : createFilters()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) filter.getSerializedSize());
+            filter.writeTo(buffer);
+            Assert.assertFalse(buffer.hasRemaining());
+            buffer.flip();
+            AbstractBloomFilter<String> readFilter = AbstractBloomFilter.readFrom(buffer);
+            Assert.assertFalse(buffer.hasRemaining());
+            checkFilter(filter, readFilter);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void javaSerializationTest() throws Exception {
+        for (AbstractBloomFilter<String> filter : createFilters()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+            objectOutputStream.writeObject(filter);
+            objectOutputStream.close();
+            ObjectInputStream objectInputStream =
+                    new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+            checkFilter(filter, (AbstractBloomFilter<String>) objectInputStream.readObject());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readFromInvalidDataTest() throws IOException {
+        AbstractBloomFilter.readFrom(new ByteArrayInputStream(new byte[64]));
+    }
+
+    @Test
+    public void readUnrelatedClassAsHashStrategyTest() {
+        byte[] bytes = createData(1, "class:" + UnrelatedClass.class.getName(), 64);
+        try {
+            AbstractBloomFilter.readFrom(new ByteArrayInputStream(bytes));
+            Assert.fail("Unrelated class should not be accepted as hash strategy!");
+        } catch (IOException error) {
+            Assert.assertFalse(unrelatedClassInitialized);
+        }
+    }
+
+    @Test
+    public void readOwnHashStrategyClassTest() throws IOException {
+        byte[] bytes = createData(1, "class:" + Murmur3HashStrategy.class.getName(), 64);
+        AbstractBloomFilter<String> filter = AbstractBloomFilter.readFrom(new ByteArrayInputStream(bytes));
+        Assert.assertTrue(filter.getHashStrategies()[0] instanceof Murmur3HashStrategy);
+    }
+
+    @Test
+    public void readCorruptedHeaderTest() {
+        int nameLengthOffset = 9 + 2 + 4 * 4 + 8 + 1;
+        List<byte[]> corrupted = new ArrayList<byte[]>();
+        corrupted.add(createData(0xFF, "murmur3_x64_128", 64));
+        corrupted.add(createData(0, "murmur3_x64_128", 64));
+        corrupted.add(createData(1, "murmur3_x64_128", -64));
+        corrupted.add(createData(1, "murmur3_x64_128", Integer.MAX_VALUE));
+        byte[] nameLength = createData(1, "murmur3_x64_128", 64);
+        ByteBuffer.wrap(nameLength).order(ByteOrder.LITTLE_ENDIAN).putShort(nameLengthOffset, (short) -1);
+        corrupted.add(nameLength);
+        byte[] headerLength = createData(1, "murmur3_x64_128", 64);
+        ByteBuffer.wrap(headerLength).order(ByteOrder.LITTLE_ENDIAN).putInt(5, Integer.MAX_VALUE);
+        corrupted.add(headerLength);
+        byte[] numberOfHash = createData(1, "murmur3_x64_128", 64);
+        ByteBuffer.wrap(numberOfHash).order(ByteOrder.LITTLE_ENDIAN).putInt(19, -1);
+        corrupted.add(numberOfHash);
+        for (byte[] bytes : corrupted) {
+            try {
+                AbstractBloomFilter.readFrom(ByteBuffer.wrap(bytes));
+                Assert.fail("Corrupted header should not be accepted!");
+            } catch (IOException expected) {
+                // expected
+            }
+            try {
+                AbstractBloomFilter.readFrom(new ByteArrayInputStream(bytes));
+                Assert.fail("Corrupted header should not be accepted!");
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * The createData method enables you to create Bloom Filter in binary format with chosen fields of header.
+     */
+    static byte[] createData(int numberOfHashStrategies, String name, int size) {
+        byte[] nameBytes = name.getBytes(Charset.forName("UTF-8"));
+        int headerLength = 9 + 2 + 4 * 4 + 8 + 1 + 2 + nameBytes.length + 1;
+        int numberOfWords = size > 0 && size <= 1 << 20 ? (size + 63) / 64 : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength + numberOfWords * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BloomFilterFormat.MAGIC_NUMBER);
+        buffer.put(BloomFilterFormat.VERSION);
+        buffer.putInt(headerLength);
+        buffer.put((byte) 1);
+        buffer.put((byte) 1);
+        buffer.putInt(size);
+        buffer.putInt(10);
+        buffer.putInt(3);
+        buffer.putInt(0);
+        buffer.putLong(0);
+        buffer.put((byte) numberOfHashStrategies);
+        buffer.putShort((short) nameBytes.length);
+        buffer.put(nameBytes);
+        buffer.put((byte) 1);
+        return buffer.array();
+    }
+
+    /**
+     * Class, which is not hash strategy and should never be initialized by reading Bloom Filter.
+     */
+    public static final class UnrelatedClass {
+
+        static {
+            unrelatedClassInitialized = true;
+        }
+
+        public UnrelatedClass() {
+            unrelatedClassInitialized = true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterMetricsTest {
+
+    @Test
+    public void metricsAreDisabledByDefaultTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        assertNull(filter.getMetrics());
+        filter.add("Test");
+        assertTrue(filter.mightContains("Test"));
+    }
+
+    @Test
+    public void countAddsAndQueriesTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 1000);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        for (int i = 0; i < 100; i++) {
+            filter.add(i);
+        }
+        int positives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter.mightContains(i)) {
+                positives++;
+            }
+        }
+        BloomFilterMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(100, snapshot.getNumberOfAdds());
+        assertEquals(1000, snapshot.getNumberOfQueries());
+        assertEquals(positives, snapshot.getNumberOfPositives());
+        assertEquals(filter.getNumberOfSetBits() / (double) filter.getSize(), snapshot.getFillRatio(), 1e-12);
+        assertEquals(filter.getEstimatedProbabilityOfFalsePositives(),
+                snapshot.getEstimatedProbabilityOfFalsePositives(), 1e-12);
+    }
+
+    @Test
+    public void countBatchesTest() {
+        TripleHashBloomFilter<Long> filter = new TripleHashBloomFilter<Long>(0.01, 1000);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        long[] values = new long[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        filter.addBatch(values);
+        boolean[] results = new boolean[values.length];
+        filter.mightContainsBatch(values, results);
+        assertEquals(200, metrics.getNumberOfAdds());
+        assertEquals(200, metrics.getNumberOfQueries());
+        assertEquals(200, metrics.getNumberOfPositives());
+    }
+
+    @Test
+    public void observedProbabilityOfFalsePositivesTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.1, 100);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        for (int i = 0; i < 100; i++) {
+            filter.add(i);
+        }
+        int falsePositives = 0;
+        for (int i = 100; i < 10100; i++) {
+            if (filter.mightContains(i)) {
+                metrics.reportFalsePositive();
+                falsePositives++;
+            }
+        }
+        assertEquals(falsePositives, metrics.getNumberOfFalsePositives());
+        assertEquals(falsePositives / 10000.0, metrics.getObservedProbabilityOfFalsePositives(), 1e-12);
+    }
+
+    @Test
+    public void saturationAlarmTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        BloomFilterMetrics metrics = filter.enableMetrics(0.3);
+        final AtomicInteger alarms = new AtomicInteger();
+        metrics.addSaturationListener(new BloomFilterMetrics.SaturationListener() {
+            @Override
+            public void saturated(BloomFilterMetrics.Snapshot snapshot) {
+                assertTrue(snapshot.getFillRatio() >= 0.3);
+                alarms.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            filter.add(i);
+        }
+        assertTrue(metrics.isSaturated());
+        assertEquals(1, alarms.get());
+        filter.clear();
+        assertFalse(metrics.isSaturated());
+    }
+
+    @Test
+    public void hashTimeIsSampledTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100000);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        for (int i = 0; i < 100000; i++) {
+            filter.add(i);
+        }
+        assertTrue(metrics.getAverageHashTimeNanos() > 0);
+    }
+
+    @Test
+    public void disableMetricsTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        filter.add("Test");
+        filter.disableMetrics();
+        filter.add("Test2");
+        assertNull(filter.getMetrics());
+        assertEquals(1, metrics.getNumberOfAdds());
+    }
+
+    @Test
+    public void registerMBeanTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        BloomFilterMetrics metrics = filter.enableMetrics();
+        filter.add("Test");
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "NumberOfAdds"));
+            assertEquals(Boolean.FALSE, server.getAttribute(name, "Saturated"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSaturationThresholdTest() {
+        new DoubleHashBloomFilter<String>(0.01, 100).enableMetrics(1.5);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Damian Stygar
+ */
+public class BloomFilterSpecTest {
+
+    private static final double EPSILON = 0.000001;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongProbabilityTest() {
+        BloomFilterSpec.forProbability(0, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongMaxNumberOfHashTest() {
+        BloomFilterSpec.forProbability(0.01, 100, 0);
+    }
+
+    @Test
+    public void forProbabilityTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forProbability(0.001, 1000000);
+        Assert.assertTrue(spec.getProbabilityOfFalsePositives() <= 0.001);
+        Assert.assertTrue(spec.getSize() < 1.001 * BloomFilterSpec.getOptimalSize(0.001, 1000000));
+        Assert.assertTrue(BloomFilterSpec.of(spec.getSize() - 1, 1000000, 9).getProbabilityOfFalsePositives() > 0.001);
+        Assert.assertTrue(BloomFilterSpec.of(spec.getSize() - 1, 1000000, 11).getProbabilityOfFalsePositives() > 0.001);
+        Assert.assertEquals(10, spec.getNumberOfHash());
+        Assert.assertEquals(spec.getSize() / 1000000.0, spec.getBitsPerElement(), EPSILON);
+    }
+
+    @Test
+    public void forVerySmallProbabilityTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forProbability(1e-20, 1000);
+        Assert.assertTrue(spec.getSize() > 0);
+        Assert.assertTrue(spec.getProbabilityOfFalsePositives() > 0);
+        Assert.assertTrue(spec.getProbabilityOfFalsePositives() <= 1e-20);
+        Assert.assertTrue(BloomFilterSpec.of(spec.getSize() - 1, 1000, spec.getNumberOfHash())
+                .getProbabilityOfFalsePositives() > 1e-20);
+        Assert.assertTrue(spec.getSize() < 1.01 * BloomFilterSpec.getOptimalSize(1e-20, 1000));
+    }
+
+    @Test(timeout = 10000)
+    public void forVerySmallProbabilityAndManyElementsTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forProbability(1e-20, 1000000000L);
+        Assert.assertTrue(spec.getSize() > 0);
+        Assert.assertTrue(spec.getProbabilityOfFalsePositives() <= 1e-20);
+        Assert.assertTrue(spec.getSize() < 1.01 * BloomFilterSpec.getOptimalSize(1e-20, 1000000000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void forProbabilityWithTooLargeSizeTest() {
+        BloomFilterSpec.forProbability(1e-300, Long.MAX_VALUE / 2);
+    }
+
+    @Test
+    public void fewerHashFunctionsTest() {
+        BloomFilterSpec optimal = BloomFilterSpec.forProbability(0.001, 1000000);
+        BloomFilterSpec cheap = BloomFilterSpec.forProbability(0.001, 1000000, 4);
+        Assert.assertEquals(4, cheap.getNumberOfHash());
+        Assert.assertTrue(cheap.getProbabilityOfFalsePositives() <= 0.001);
+        Assert.assertTrue(cheap.getSize() > optimal.getSize());
+        Assert.assertTrue(cheap.getSize() < 1.5 * optimal.getSize());
+        Assert.assertTrue(cheap.getExpectedNumberOfProbes() < optimal.getExpectedNumberOfProbes());
+    }
+
+    @Test
+    public void forSizeTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forSize(1900, 1000);
+        Assert.assertEquals(1, spec.getNumberOfHash());
+        spec = BloomFilterSpec.forSize(10000, 1000);
+        Assert.assertEquals(7, spec.getNumberOfHash());
+        double probability = spec.getProbabilityOfFalsePositives();
+        Assert.assertTrue(probability <= BloomFilterSpec.of(10000, 1000, 6).getProbabilityOfFalsePositives());
+        Assert.assertTrue(probability <= BloomFilterSpec.of(10000, 1000, 8).getProbabilityOfFalsePositives());
+    }
+
+    @Test
+    public void expectedNumberOfProbesTest() {
+        BloomFilterSpec spec = BloomFilterSpec.of(10000, 1000, 7);
+        double fillRatio = 1 - Math.exp(-7 * 1000 / 10000.0);
+        double expected = 0;
+        for (int i = 0; i < 7; i++) {
+            expected += Math.pow(fillRatio, i);
+        }
+        Assert.assertEquals(expected, spec.getExpectedNumberOfProbes(), EPSILON);
+    }
+
+    @Test
+    public void numberOfHashIsNotTruncatedTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(1900, 1000);
+        Assert.assertEquals(1, filter.getNumberOfHash());
+        filter = new DoubleHashBloomFilter<String>(2900, 1000);
+        Assert.assertEquals(2, filter.getNumberOfHash());
+        filter = new DoubleHashBloomFilter<String>(500, 1000);
+        Assert.assertEquals(1, filter.getNumberOfHash());
+    }
+
+    @Test
+    public void bitsPerElementIsNotTruncatedTest() throws Exception {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(1000, 100);
+        for (int i = 0; i < 3; i++) {
+            filter.add(i);
+        }
+        Assert.assertEquals(1000 / 3.0, filter.getBitsPerElement(), EPSILON);
+    }
+
+    @Test
+    public void filterFromSpecTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forProbability(0.001, 1000, 3);
+        TripleHashBloomFilter<Integer> filter = new TripleHashBloomFilter<Integer>(spec);
+        Assert.assertEquals(spec.getSize(), filter.getSize());
+        Assert.assertEquals(3, filter.getNumberOfHash());
+        Assert.assertEquals(spec.getProbabilityOfFalsePositives(), filter.getExpectedProbabilityOfFalsePositives(), EPSILON);
+    }
+}
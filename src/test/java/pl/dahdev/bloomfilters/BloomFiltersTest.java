@@ -0,0 +1,85 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BloomFiltersTest {
+
+    @Test
+    public void buildParallelFromStreamTest() {
+        BloomFilterSpec spec = BloomFilterSpec.forProbability(0.01, 100000);
+        AbstractBloomFilter<Integer> filter = BloomFilters.buildParallel(IntStream.range(0, 100000).boxed(), spec);
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(filter.mightContains(i));
+        }
+        assertEquals(100000, filter.getNumberOfElements());
+        assertEquals(filter.getBitArray().cardinality(), filter.getNumberOfSetBits());
+    }
+
+    @Test
+    public void buildParallelSetsTheSameBitsAsSerialInsertionTest() {
+        List<String> elements = new ArrayList<String>();
+        for (int i = 0; i < 50000; i++) {
+            elements.add("Element" + i);
+        }
+        TripleHashBloomFilter<String> serial = new TripleHashBloomFilter<String>(0.001, 50000);
+        serial.setPartitioned(true);
+        serial.addAll(elements);
+        TripleHashBloomFilter<String> parallel = new TripleHashBloomFilter<String>(0.001, 50000);
+        parallel.setPartitioned(true);
+        BloomFilters.buildParallel(elements.spliterator(), parallel);
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    public void buildParallelKeepsExistingElementsTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 1000);
+        filter.add("Existing");
+        BloomFilters.buildParallel(Stream.of("First", "Second"), filter);
+        assertTrue(filter.mightContains("Existing"));
+        assertTrue(filter.mightContains("First"));
+        assertTrue(filter.mightContains("Second"));
+        assertEquals(3, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void buildParallelFromEmptyStreamTest() {
+        AbstractBloomFilter<String> filter = BloomFilters.buildParallel(Stream.<String>empty(),
+                BloomFilterSpec.forProbability(0.01, 10));
+        assertTrue(filter.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullBloomFilterTest() {
+        BloomFilters.buildParallel(Stream.of("Test"), (AbstractBloomFilter<String>) null);
+    }
+}
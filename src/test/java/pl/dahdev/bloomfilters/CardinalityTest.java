@@ -0,0 +1,95 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * @author Damian Stygar
+ */
+public class CardinalityTest {
+
+    @Test
+    public void numberOfSetBitsIsUpdatedTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 1000);
+        for (int i = 0; i < 500; i++) {
+            filter.add(i);
+        }
+        filter.addBatch(new long[]{1L, 2L, 3L});
+        Assert.assertEquals(filter.getBitArray().cardinality(), filter.getNumberOfSetBits());
+        filter.clear();
+        Assert.assertEquals(0, filter.getNumberOfSetBits());
+    }
+
+    @Test
+    public void duplicatesAreNotCountedTest() {
+        TripleHashBloomFilter<Integer> filter = new TripleHashBloomFilter<Integer>(0.01, 1000);
+        for (int repeat = 0; repeat < 10; repeat++) {
+            for (int i = 0; i < 800; i++) {
+                filter.add(i);
+            }
+        }
+        Assert.assertEquals(8000, filter.getNumberOfElements());
+        Assert.assertEquals(800, filter.getEstimatedNumberOfElements(), 40);
+        Assert.assertTrue(filter.getEstimatedProbabilityOfFalsePositives() < 0.02);
+    }
+
+    @Test
+    public void unionAndIntersectionEstimatesTest() {
+        EnhancedDoubleHashBloomFilter<Integer> first = new EnhancedDoubleHashBloomFilter<Integer>(0.01, 4000);
+        EnhancedDoubleHashBloomFilter<Integer> second = new EnhancedDoubleHashBloomFilter<Integer>(0.01, 4000);
+        for (int i = 0; i < 2000; i++) {
+            first.add(i);
+            second.add(i + 1000);
+        }
+        Assert.assertEquals(3000, first.getEstimatedNumberOfElementsOfUnion(second), 150);
+        Assert.assertEquals(1000, first.getEstimatedNumberOfElementsOfIntersection(second), 150);
+    }
+
+    @Test
+    public void numberOfSetBitsAfterReadingTest() throws IOException {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 1000);
+        for (int i = 0; i < 500; i++) {
+            filter.add(i);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        filter.writeTo(outputStream);
+        AbstractBloomFilter<Integer> readFilter =
+                AbstractBloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assert.assertEquals(filter.getNumberOfSetBits(), readFilter.getNumberOfSetBits());
+        Assert.assertEquals(filter.getEstimatedNumberOfElements(), readFilter.getEstimatedNumberOfElements(), 0);
+    }
+
+    @Test
+    public void emptyFilterTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 1000);
+        Assert.assertEquals(0, filter.getEstimatedNumberOfElements(), 0);
+        Assert.assertEquals(0, filter.getEstimatedProbabilityOfFalsePositives(), 0);
+    }
+}
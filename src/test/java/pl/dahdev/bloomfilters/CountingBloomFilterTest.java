@@ -0,0 +1,125 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Damian Stygar
+ */
+public class CountingBloomFilterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongCounterWidthTest() {
+        new CountingBloomFilter<String>(1000, 10, 3, HashingMethod.DOUBLE, new Murmur3HashStrategy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashingMethodTest() {
+        new CountingBloomFilter<String>(1000, 10, 4, null, new Murmur3HashStrategy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashStrategyTest() {
+        new CountingBloomFilter<String>(1000, 10, 4, HashingMethod.DOUBLE, null);
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        for (HashingMethod hashingMethod : HashingMethod.values()) {
+            CountingBloomFilter<String> filter = new CountingBloomFilter<String>(0.01, 100, 4,
+                    hashingMethod, new Murmur3HashStrategy());
+            filter.add("Test");
+            filter.add("Other");
+            Assert.assertTrue(filter.mightContains("Test"));
+            Assert.assertTrue(filter.remove("Test"));
+            Assert.assertFalse(filter.mightContains("Test"));
+            Assert.assertTrue(filter.mightContains("Other"));
+            Assert.assertEquals(1, filter.getNumberOfElements());
+            Assert.assertTrue(filter.remove("Other"));
+            Assert.assertTrue(filter.isEmpty());
+        }
+    }
+
+    @Test
+    public void removeOfMissingElementTest() {
+        CountingBloomFilter<String> filter = new CountingBloomFilter<String>(0.01, 100);
+        filter.add("Test");
+        Assert.assertFalse(filter.remove("Missing"));
+        Assert.assertEquals(1, filter.getNumberOfElements());
+        Assert.assertTrue(filter.mightContains("Test"));
+    }
+
+    @Test
+    public void noFalseNegativesAfterRemovingTest() {
+        CountingBloomFilter<Integer> filter = new CountingBloomFilter<Integer>(0.01, 1000);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            Assert.assertTrue(filter.remove(i));
+        }
+        for (int i = 1; i < 1000; i += 2) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        Assert.assertEquals(500, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void saturatedCounterTest() {
+        CountingBloomFilter<String> filter = new CountingBloomFilter<String>(100, 10, 2,
+                HashingMethod.DOUBLE, new Murmur3HashStrategy());
+        for (int i = 0; i < 4; i++) {
+            filter.add("Test");
+        }
+        Assert.assertTrue(filter.hasOverflowed());
+        for (int i = 0; i < 4; i++) {
+            filter.remove("Test");
+        }
+        Assert.assertTrue(filter.mightContains("Test"));
+    }
+
+    @Test
+    public void countersArePackedTest() {
+        CountingBloomFilter<String> filter = new CountingBloomFilter<String>(1000, 100, 4,
+                HashingMethod.DOUBLE, new Murmur3HashStrategy());
+        filter.add("Test");
+        int sum = 0;
+        for (int i = 0; i < filter.getSize(); i++) {
+            sum += filter.getCounter(i);
+        }
+        Assert.assertEquals(filter.getNumberOfHash(), sum);
+    }
+
+    @Test
+    public void clearTest() {
+        CountingBloomFilter<String> filter = new CountingBloomFilter<String>(0.01, 100);
+        filter.add("Test");
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains("Test"));
+        Assert.assertFalse(filter.hasOverflowed());
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Damian Stygar
+ */
+public class CuckooFilterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongProbabilityTest() {
+        new CuckooFilter<String>(1.5, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongNumberOfElementsTest() {
+        new CuckooFilter<String>(0.01, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithTooShortFingerprintForSemiSortingTest() {
+        new CuckooFilter<String>(4, 100, true, new Murmur3HashStrategy());
+    }
+
+    @Test
+    public void fingerprintBitsTest() {
+        Assert.assertEquals(13, new CuckooFilter<String>(0.001, 100).getFingerprintBits());
+        Assert.assertEquals(10, new CuckooFilter<String>(0.01, 100).getFingerprintBits());
+    }
+
+    @Test
+    public void longestFingerprintTest() {
+        CuckooFilter<Integer> filter = new CuckooFilter<Integer>(32, 10000, false, new Murmur3HashStrategy());
+        double probability = filter.getExpectedProbabilityOfFalsePositives();
+        Assert.assertTrue(probability > 0);
+        Assert.assertTrue(probability < 1e-8);
+        checkAddAndRemove(filter);
+        checkAddAndRemove(new CuckooFilter<Integer>(32, 10000, true, new Murmur3HashStrategy()));
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        checkAddAndRemove(new CuckooFilter<Integer>(0.001, 10000));
+    }
+
+    @Test
+    public void addAndRemoveWithSemiSortingTest() {
+        checkAddAndRemove(new CuckooFilter<Integer>(0.001, 10000, true, new Murmur3HashStrategy()));
+    }
+
+    @Test
+    public void addAndRemoveWithWideFingerprintTest() {
+        checkAddAndRemove(new CuckooFilter<Integer>(32, 10000, true, new Murmur3HashStrategy()));
+    }
+
+    private void checkAddAndRemove(CuckooFilter<Integer> filter) {
+        for (int i = 0; i < 10000; i++) {
+            filter.add(i);
+        }
+        Assert.assertEquals(10000, filter.getNumberOfElements());
+        Assert.assertFalse(filter.isFull());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            Assert.assertTrue(filter.remove(i));
+        }
+        Assert.assertEquals(5000, filter.getNumberOfElements());
+        for (int i = 1; i < 10000; i += 2) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i += 2) {
+            if (filter.mightContains(i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < 50);
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains(1));
+    }
+
+    @Test
+    public void removeNotInsertedTest() {
+        CuckooFilter<String> filter = new CuckooFilter<String>(0.001, 100);
+        filter.add("Test");
+        Assert.assertFalse(filter.remove("Other"));
+        Assert.assertEquals(1, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void probabilityOfFalsePositivesTest() {
+        CuckooFilter<Integer> filter = new CuckooFilter<Integer>(0.01, 100000);
+        for (int i = 0; i < 100000; i++) {
+            filter.add(i);
+        }
+        Assert.assertTrue(filter.getCurrentProbabilityOfFalsePositives() <= 0.01);
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContains(-1 - i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertEquals(filter.getCurrentProbabilityOfFalsePositives(), falsePositives / 100000.0, 0.003);
+    }
+
+    @Test
+    public void lessMemoryThanBloomFilterTest() {
+        CuckooFilter<Integer> filter = new CuckooFilter<Integer>(0.0001, 100000);
+        CuckooFilter<Integer> semiSortedFilter = new CuckooFilter<Integer>(0.0001, 100000, true, new Murmur3HashStrategy());
+        DoubleHashBloomFilter<Integer> bloomFilter = new DoubleHashBloomFilter<Integer>(0.0001, 100000);
+        Assert.assertTrue(filter.getSize() < bloomFilter.getSize());
+        Assert.assertTrue(semiSortedFilter.getSize() < filter.getSize());
+    }
+
+    @Test
+    public void fullFilterTest() {
+        CuckooFilter<Integer> filter = new CuckooFilter<Integer>(0.01, 100);
+        int inserted = 0;
+        try {
+            while (true) {
+                filter.add(inserted);
+                inserted++;
+            }
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(filter.isFull());
+        }
+        Assert.assertTrue(inserted >= 100);
+        for (int i = 0; i < inserted; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(filter.remove(i));
+        }
+        Assert.assertFalse(filter.isFull());
+        filter.add(inserted);
+        for (int i = 10; i <= inserted; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -157,4 +158,57 @@ public class DoubleHashBloomFilterTest {
         new DoubleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, null, hashFunction);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashStrategyTest() {
+        new DoubleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, (HashStrategy) null);
+    }
+
+    @Test
+    public void mightContainsWithEachHashStrategyTest() {
+        for (HashStrategy hashStrategy : new HashStrategy[]{
+                new Murmur3HashStrategy(), new XxHash64HashStrategy(), new CityHashStrategy()}) {
+            BloomFilter<String> filter =
+                    new DoubleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, hashStrategy);
+            filter.add(FIRST_ELEMENT);
+            filter.add(SECOND_ELEMENT);
+            Assert.assertTrue(filter.mightContains(FIRST_ELEMENT));
+            Assert.assertTrue(filter.mightContains(SECOND_ELEMENT));
+        }
+    }
+
+    @Test
+    public void legacyIndexMappingKeepsPositionsOfMessageDigestTest() throws NoSuchAlgorithmException {
+        DoubleHashBloomFilter<String> legacyFilter = new DoubleHashBloomFilter<String>(SIZE_OF_BLOOM_FILTER,
+                EXPECTED_NUMBER_OF_ELEMENTS, MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5"));
+        legacyFilter.setIndexMapping(IndexMapping.LEGACY_MODULO);
+        byte[] bytes = FIRST_ELEMENT.getBytes();
+        int valueA = Math.abs(new BigInteger(MessageDigest.getInstance("SHA-1").digest(bytes))
+                .mod(BigInteger.valueOf(SIZE_OF_BLOOM_FILTER)).intValue());
+        int valueB = Math.abs(new BigInteger(MessageDigest.getInstance("MD5").digest(bytes))
+                .mod(BigInteger.valueOf(SIZE_OF_BLOOM_FILTER)).intValue());
+        int[] hashes = legacyFilter.createHashes(bytes, legacyFilter.getNumberOfHash());
+        for (int i = 0; i < hashes.length; i++) {
+            valueA = (valueA + valueB) % SIZE_OF_BLOOM_FILTER;
+            Assert.assertEquals(valueA, hashes[i]);
+        }
+    }
+
+    @Test
+    public void maskIndexMappingTest() {
+        DoubleHashBloomFilter<String> maskFilter = new DoubleHashBloomFilter<String>(1024, EXPECTED_NUMBER_OF_ELEMENTS);
+        maskFilter.setIndexMapping(IndexMapping.MASK);
+        maskFilter.add(FIRST_ELEMENT);
+        Assert.assertTrue(maskFilter.mightContains(FIRST_ELEMENT));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maskIndexMappingWithoutPowerOfTwoSizeTest() {
+        new DoubleHashBloomFilter<String>(SIZE_OF_BLOOM_FILTER, EXPECTED_NUMBER_OF_ELEMENTS)
+                .setIndexMapping(IndexMapping.MASK);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setIndexMappingWhenFilterIsNotEmptyTest() {
+        ((AbstractBloomFilter<String>) filter).setIndexMapping(IndexMapping.LEGACY_MODULO);
+    }
 }
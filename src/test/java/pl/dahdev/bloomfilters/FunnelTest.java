@@ -0,0 +1,143 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * @author Damian Stygar
+ */
+public class FunnelTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void putStringIsEqualToUtf8BytesTest() {
+        String[] values = {"", "Test", "za\u017c\u00f3\u0142\u0107 g\u0119\u015bl\u0105 ja\u017a\u0144", "\u20ac\u0800\uffff", "\ud83d\ude00 emoji", "\ud800 unpaired \udc00"};
+        for (String value : values) {
+            Assert.assertArrayEquals(value.getBytes(UTF_8), new ByteSink().putString(value).toByteArray());
+        }
+    }
+
+    @Test
+    public void putNumbersInLittleEndianTest() {
+        Assert.assertArrayEquals(new byte[]{0x04, 0x03, 0x02, 0x01}, new ByteSink().putInt(0x01020304).toByteArray());
+        Assert.assertArrayEquals(new byte[]{0x08, 0x07, 0x06, 0x05, 0x04, 0x03, 0x02, 0x01},
+                new ByteSink().putLong(0x0102030405060708L).toByteArray());
+    }
+
+    @Test
+    public void sinkGrowsTest() {
+        ByteSink sink = new ByteSink();
+        for (int i = 0; i < 1000; i++) {
+            sink.putLong(i);
+        }
+        Assert.assertEquals(8000, sink.size());
+        Assert.assertEquals(0, sink.reset().size());
+    }
+
+    @Test
+    public void boxedAndPrimitiveValuesAreEqualTest() {
+        DoubleHashBloomFilter<Long> longFilter = new DoubleHashBloomFilter<Long>(0.01, 100);
+        longFilter.addAll(Arrays.asList(1L, 2L, 3L));
+        Assert.assertTrue(longFilter.mightContains(1L));
+        Assert.assertTrue(longFilter.mightContains((Long) 2L));
+        Assert.assertTrue(longFilter.mightContains(Long.valueOf(3L)));
+
+        TripleHashBloomFilter<Integer> intFilter = new TripleHashBloomFilter<Integer>(0.01, 100);
+        intFilter.add(7);
+        Assert.assertTrue(intFilter.mightContains(Integer.valueOf(7)));
+    }
+
+    @Test
+    public void bytesOverloadsAreEqualTest() {
+        EnhancedDoubleHashBloomFilter<String> filter = new EnhancedDoubleHashBloomFilter<String>(0.01, 100);
+        byte[] data = "xxTestxx".getBytes(UTF_8);
+        filter.add(data, 2, 4);
+        Assert.assertTrue(filter.mightContains("Test"));
+        Assert.assertTrue(filter.mightContains((CharSequence) new StringBuilder("Test")));
+        Assert.assertTrue(filter.mightContains("Test".getBytes(UTF_8)));
+
+        ByteBuffer heapBuffer = ByteBuffer.wrap(data, 2, 4);
+        Assert.assertTrue(filter.mightContains(heapBuffer));
+        Assert.assertEquals(2, heapBuffer.position());
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(4);
+        directBuffer.put("Test".getBytes(UTF_8)).flip();
+        Assert.assertTrue(filter.mightContains(directBuffer));
+        Assert.assertEquals(0, directBuffer.position());
+    }
+
+    @Test
+    public void customFunnelTest() {
+        DoubleHashBloomFilter<int[]> filter = new DoubleHashBloomFilter<int[]>(0.01, 100);
+        filter.setFunnel(new Funnel<int[]>() {
+            @Override
+            public void funnel(int[] element, ByteSink sink) {
+                for (int value : element) {
+                    sink.putInt(value);
+                }
+            }
+        });
+        filter.add(new int[]{1, 2, 3});
+        Assert.assertTrue(filter.mightContains(new int[]{1, 2, 3}));
+    }
+
+    @Test
+    public void stringFunnelTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        filter.setFunnel(Funnels.stringFunnel());
+        filter.add(Integer.valueOf(12));
+        Assert.assertTrue(filter.mightContains("12"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setNullFunnelTest() {
+        new DoubleHashBloomFilter<String>(0.01, 100).setFunnel(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setFunnelWhenNotEmptyTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.add("Test");
+        filter.setFunnel(Funnels.<String>stringFunnel());
+    }
+
+    @Test
+    public void threadHashesAreReusedTest() {
+        int[] hashes = ByteSink.threadHashes(7);
+        Assert.assertTrue(hashes.length >= 7);
+        Assert.assertSame(hashes, ByteSink.threadHashes(3));
+        DoubleHashBloomFilter<Long> filter = new DoubleHashBloomFilter<Long>(0.01, 100);
+        filter.add(42L);
+        Assert.assertTrue(filter.mightContains(42L));
+        Assert.assertTrue(ByteSink.threadHashes(filter.getNumberOfHash()).length >= filter.getNumberOfHash());
+        Assert.assertTrue(ByteSink.threadHashes(100).length >= 100);
+    }
+}
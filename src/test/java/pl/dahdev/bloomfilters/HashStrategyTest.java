@@ -0,0 +1,145 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * @author Damian Stygar
+ */
+public class HashStrategyTest {
+
+    private static final byte[] QUICK_BROWN_FOX =
+            "The quick brown fox jumps over the lazy dog".getBytes(Charset.forName("UTF-8"));
+
+    @Test
+    public void murmur3KnownValueTest() {
+        Assert.assertEquals(0xe34bbc7bbc071b6cL,
+                new Murmur3HashStrategy().hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0));
+    }
+
+    @Test
+    public void xxHash64KnownValuesTest() {
+        HashStrategy hashStrategy = new XxHash64HashStrategy();
+        Assert.assertEquals(0xef46db3751d8e999L, hashStrategy.hash(new byte[0], 0, 0, 0));
+        Assert.assertEquals(0xd24ec4f1a98c6e5bL, hashStrategy.hash(new byte[]{'a'}, 0, 1, 0));
+        Assert.assertEquals(0x44bc2cf5ad770999L, hashStrategy.hash(new byte[]{'a', 'b', 'c'}, 0, 3, 0));
+    }
+
+    @Test
+    public void hashOfRangeIsEqualToHashOfCopyTest() {
+        byte[] data = new byte[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        for (HashStrategy hashStrategy : new HashStrategy[]{
+                new Murmur3HashStrategy(), new XxHash64HashStrategy(), new CityHashStrategy()}) {
+            for (int length = 0; length < 200; length++) {
+                byte[] copy = new byte[length];
+                System.arraycopy(data, 7, copy, 0, length);
+                Assert.assertEquals(hashStrategy.hash(copy, 0, length, 42), hashStrategy.hash(data, 7, length, 42));
+            }
+        }
+    }
+
+    @Test
+    public void differentSeedsGiveDifferentHashesTest() {
+        for (HashStrategy hashStrategy : new HashStrategy[]{
+                new Murmur3HashStrategy(), new XxHash64HashStrategy(), new CityHashStrategy()}) {
+            Assert.assertNotEquals(hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0),
+                    hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 1));
+        }
+    }
+
+    @Test
+    public void messageDigestHashIsPrefixOfDigestTest() throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(QUICK_BROWN_FOX);
+        long expected = 0;
+        for (int i = 0; i < 8; i++) {
+            expected = (expected << 8) | (digest[i] & 0xFF);
+        }
+        Assert.assertEquals(expected, new MessageDigestHashStrategy(messageDigest)
+                .hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0));
+    }
+
+    @Test
+    public void messageDigestHashDependsOnSeedTest() throws NoSuchAlgorithmException {
+        MessageDigestHashStrategy hashStrategy = new MessageDigestHashStrategy(MessageDigest.getInstance("MD5"));
+        Assert.assertNotEquals(hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0),
+                hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 1));
+        Assert.assertEquals(hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 1),
+                hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 1));
+    }
+
+    @Test
+    public void messageDigestFalsePositivesWithSingleStrategyTest() throws NoSuchAlgorithmException {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 10000,
+                new MessageDigestHashStrategy(MessageDigest.getInstance("MD5")));
+        for (int i = 0; i < 10000; i++) {
+            filter.add("Element " + i);
+        }
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filter.mightContains("Element " + i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives / 100000.0 < 0.015);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void messageDigestHashStrategyWithNullTest() {
+        new MessageDigestHashStrategy(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void messageDigestSerializationTest() throws Exception {
+        MessageDigestHashStrategy hashStrategy = new MessageDigestHashStrategy(MessageDigest.getInstance("SHA-256"));
+        ScalableBloomFilter<String> filter = new ScalableBloomFilter<String>(0.01, 100, 2, 0.5, hashStrategy);
+        filter.add("Test");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(bytes);
+        outputStream.writeObject(hashStrategy);
+        outputStream.writeObject(filter);
+        outputStream.close();
+        ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        HashStrategy readHashStrategy = (HashStrategy) inputStream.readObject();
+        ScalableBloomFilter<String> readFilter = (ScalableBloomFilter<String>) inputStream.readObject();
+        Assert.assertEquals(hashStrategy, readHashStrategy);
+        Assert.assertEquals(hashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0),
+                readHashStrategy.hash(QUICK_BROWN_FOX, 0, QUICK_BROWN_FOX.length, 0));
+        Assert.assertTrue(readFilter.mightContains("Test"));
+    }
+}
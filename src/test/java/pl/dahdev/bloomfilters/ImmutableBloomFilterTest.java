@@ -0,0 +1,168 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ImmutableBloomFilterTest {
+
+    @Test
+    public void freezeContainsTheSameElementsTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 1000);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(i);
+        }
+        ImmutableBloomFilter<Integer> frozen = filter.freeze();
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(filter.mightContains(i), frozen.mightContains(i));
+            assertEquals(filter.mightContains((long) i), frozen.mightContains((long) i));
+        }
+        assertEquals(filter.getNumberOfElements(), frozen.getNumberOfElements());
+        assertEquals(filter.getNumberOfSetBits(), frozen.getNumberOfSetBits());
+        assertEquals(filter.getCurrentProbabilityOfFalsePositives(), frozen.getCurrentProbabilityOfFalsePositives(), 0);
+    }
+
+    @Test
+    public void changesOfSourceAreNotVisibleTest() {
+        TripleHashBloomFilter<String> filter = new TripleHashBloomFilter<String>(0.001, 100);
+        filter.add("First");
+        ImmutableBloomFilter<String> frozen = filter.freeze();
+        filter.add("Second");
+        assertTrue(frozen.mightContains("First"));
+        assertFalse(frozen.mightContains("Second"));
+        filter.clear();
+        assertTrue(frozen.mightContains("First"));
+    }
+
+    @Test
+    public void freezePartitionedFilterTest() {
+        EnhancedDoubleHashBloomFilter<String> filter = new EnhancedDoubleHashBloomFilter<String>(0.001, 100);
+        filter.setPartitioned(true);
+        filter.setSeed(7);
+        filter.add("Test");
+        ImmutableBloomFilter<String> frozen = filter.freeze();
+        assertTrue(frozen.mightContains("Test"));
+        assertEquals(filter, frozen.toBloomFilter());
+    }
+
+    @Test
+    public void copySubclassOfBloomFilterTest() {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100) {
+            @Override
+            protected void createHashes(byte[] bytes, int offset, int length, int numberOfHash, int[] hashes,
+                                        int hashesOffset) {
+                super.createHashes(bytes, offset, length, numberOfHash, hashes, hashesOffset);
+                hashes[hashesOffset] = 0;
+            }
+        };
+        filter.add("Test");
+        try {
+            filter.freeze();
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            filter.union(filter);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            SynchronizedBloomFilters.striped(filter, 4).snapshot();
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void concurrentReadsTest() throws Exception {
+        final DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 10000,
+                MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5"));
+        for (int i = 0; i < 10000; i++) {
+            filter.add(i);
+        }
+        final ImmutableBloomFilter<Integer> frozen = filter.freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        for (int i = 0; i < 10000; i++) {
+                            if (!frozen.mightContains(i)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void serializationTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.add("Test");
+        ImmutableBloomFilter<String> frozen = filter.freeze();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(bytes);
+        outputStream.writeObject(frozen);
+        outputStream.close();
+        ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        @SuppressWarnings("unchecked")
+        ImmutableBloomFilter<String> read = (ImmutableBloomFilter<String>) inputStream.readObject();
+        assertEquals(frozen, read);
+        assertTrue(read.mightContains("Test"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addIsNotSupportedTest() {
+        new DoubleHashBloomFilter<String>(0.01, 100).freeze().add("Test");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void clearIsNotSupportedTest() {
+        new DoubleHashBloomFilter<String>(0.01, 100).freeze().clear();
+    }
+}
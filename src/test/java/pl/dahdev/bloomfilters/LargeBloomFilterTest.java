@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * @author Damian Stygar
+ */
+public class LargeBloomFilterTest {
+
+    private static final double PROBABILITY_OF_FALSE_POSITIVES = 0.001;
+    private static final int EXPECTED_NUMBER_OF_ELEMENTS = 10;
+    private static final int SIZE_OF_BLOOM_FILTER = 100;
+    private static final double EPSILON = 0.001;
+    private static final String FIRST_ELEMENT = "First element";
+    private static final String SECOND_ELEMENT = "Second element";
+    private static final String THIRD_ELEMENT = "Third element";
+
+    private BloomFilter<String> filter;
+
+    @Before
+    public void initBloomFilterWithTreeElements() {
+        this.filter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS);
+        filter.add(FIRST_ELEMENT);
+        filter.add(SECOND_ELEMENT);
+        filter.add(THIRD_ELEMENT);
+    }
+
+    @Test
+    public void clearMethodTest() {
+        filter.clear();
+        Assert.assertEquals(0, filter.getNumberOfElements());
+    }
+
+    @Test(expected = Exception.class)
+    public void getBitsPerElementWhenFilterIsEmpty() throws Exception {
+        filter.clear();
+        filter.getBitsPerElement();
+    }
+
+    @Test
+    public void getBitsPerElementMethodTest() throws Exception {
+        Assert.assertEquals(filter.getSize() / (double) filter.getNumberOfElements(), filter.getBitsPerElement(), EPSILON);
+    }
+
+    @Test
+    public void getExpectedBitsPerElementMethodTest() throws Exception {
+        Assert.assertEquals(filter.getSize() / (double) filter.getExpectedNumberOfElements(),
+                filter.getExpectedBitsPerElement(), EPSILON);
+    }
+
+    @Test
+    public void mightContainsMethodTest() {
+        Assert.assertTrue(filter.mightContains(FIRST_ELEMENT));
+        Assert.assertTrue(filter.mightContains(SECOND_ELEMENT));
+        Assert.assertTrue(filter.mightContains(THIRD_ELEMENT));
+    }
+
+    @Test
+    public void mightContainsAllMethodTest() {
+        List<String> elementList = new ArrayList<String>();
+        elementList.add(FIRST_ELEMENT);
+        elementList.add(SECOND_ELEMENT);
+        elementList.add(THIRD_ELEMENT);
+        Assert.assertTrue(filter.mightContainsAll(elementList));
+    }
+
+    @Test
+    public void addMethodTest() {
+        int elementsInFilter = filter.getNumberOfElements();
+        filter.add("New element.");
+        Assert.assertEquals(elementsInFilter + 1, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void addMethodAllTest() {
+        int elementsInFilter = filter.getNumberOfElements();
+        List<String> elementList = new ArrayList<String>();
+        elementList.add("First new element.");
+        elementList.add("Second new element.");
+        filter.addAll(elementList);
+        Assert.assertEquals(elementsInFilter + elementList.size(), filter.getNumberOfElements());
+    }
+
+    @Test
+    public void getExpectedProbabilityOfFalsePositivesMethodTest() throws Exception {
+        double expectedProbabilityOfFalsePositives =
+                Math.pow((1 - Math.exp(-(filter.getNumberOfHash() * filter.getExpectedNumberOfElements())
+                        / (double) filter.getSize())), filter.getNumberOfHash());
+        Assert.assertEquals(expectedProbabilityOfFalsePositives, filter.getExpectedProbabilityOfFalsePositives(), EPSILON);
+    }
+
+    @Test
+    public void getCurrentProbabilityOfFalsePositivesMethodTest() throws Exception {
+        double currentProbabilityOfFalsePositives =
+                Math.pow((1 - Math.exp(-(filter.getNumberOfHash() * filter.getNumberOfElements())
+                        / (double) filter.getSize())), filter.getNumberOfHash());
+        Assert.assertEquals(currentProbabilityOfFalsePositives, filter.getCurrentProbabilityOfFalsePositives(), EPSILON);
+    }
+
+    @Test
+    public void isEmptyMethodTest() {
+        Assert.assertFalse(filter.isEmpty());
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroSizeTest() {
+        new LargeBloomFilter<Integer>(0, EXPECTED_NUMBER_OF_ELEMENTS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithZeroExpectedElementsTest() {
+        new LargeBloomFilter<Integer>(SIZE_OF_BLOOM_FILTER, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashStrategyTest() {
+        new LargeBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, null);
+    }
+
+    @Test
+    public void longCountersTest() {
+        LargeBloomFilter<String> largeFilter = (LargeBloomFilter<String>) filter;
+        Assert.assertEquals(3L, largeFilter.getLongNumberOfElements());
+        Assert.assertEquals(EXPECTED_NUMBER_OF_ELEMENTS, largeFilter.getLongExpectedNumberOfElements());
+        Assert.assertEquals(filter.getSize(), largeFilter.getLongSize());
+    }
+
+    @Test
+    public void multiplyHighUnsignedTest() {
+        Random random = new Random(7);
+        BigInteger twoPower64 = BigInteger.ONE.shiftLeft(64);
+        for (int i = 0; i < 1000; i++) {
+            long x = random.nextLong();
+            long y = random.nextLong();
+            BigInteger unsignedX = BigInteger.valueOf(x).mod(twoPower64);
+            BigInteger unsignedY = BigInteger.valueOf(y).mod(twoPower64);
+            Assert.assertEquals(unsignedX.multiply(unsignedY).shiftRight(64).longValue(),
+                    LargeBloomFilter.multiplyHighUnsigned(x, y));
+        }
+    }
+
+    @Test
+    public void indexBeyondIntegerRangeTest() {
+        LargeBloomFilter<String> largeFilter = (LargeBloomFilter<String>) filter;
+        Assert.assertTrue(largeFilter.getIndex(-1L) < largeFilter.getLongSize());
+        Assert.assertEquals(1L << 40, LargeBloomFilter.multiplyHighUnsigned(1L << 63, 1L << 41));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serializationOfOffHeapBitArrayTest() throws Exception {
+        LargeBloomFilter<String> largeFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        largeFilter.setBitArray(ByteBufferBitArray.allocateDirect(largeFilter.getLongSize()));
+        for (int i = 0; i < 1000; i++) {
+            largeFilter.add("Element " + i);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(largeFilter);
+        objectOutputStream.close();
+        Assert.assertTrue(outputStream.size() < largeFilter.getLongSize() / 8 + 1024);
+        ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        LargeBloomFilter<String> readFilter = (LargeBloomFilter<String>) inputStream.readObject();
+        Assert.assertTrue(readFilter.getBitArray() instanceof SegmentedLongArrayBitArray);
+        Assert.assertEquals(largeFilter.getLongSize(), readFilter.getLongSize());
+        Assert.assertEquals(1000, readFilter.getLongNumberOfElements());
+        Assert.assertEquals(largeFilter.getNumberOfHash(), readFilter.getNumberOfHash());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(readFilter.mightContains("Element " + i));
+        }
+    }
+
+    @Test
+    public void setPopulatedBitArrayTest() {
+        LargeBloomFilter<String> largeFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        for (int i = 0; i < 500; i++) {
+            largeFilter.add("Element " + i);
+        }
+        LargeBloomFilter<String> openedFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        openedFilter.setBitArray(largeFilter.getBitArray());
+        Assert.assertFalse(openedFilter.isEmpty());
+        Assert.assertEquals(largeFilter.getNumberOfSetBits(), openedFilter.getNumberOfSetBits());
+        Assert.assertEquals(500, openedFilter.getLongNumberOfElements(), 25);
+        Assert.assertTrue(openedFilter.getCurrentProbabilityOfFalsePositives() > 0);
+        Assert.assertTrue(openedFilter.mightContains("Element 0"));
+        LargeBloomFilter<String> countedFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        countedFilter.setBitArray(largeFilter.getBitArray(), 500);
+        Assert.assertEquals(500, countedFilter.getLongNumberOfElements());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setBitArrayAfterPopulatedBitArrayTest() {
+        LargeBloomFilter<String> largeFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        largeFilter.add("Element");
+        LargeBloomFilter<String> openedFilter = new LargeBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        openedFilter.setBitArray(largeFilter.getBitArray(), 0);
+        openedFilter.setBitArray(new SegmentedLongArrayBitArray(openedFilter.getLongSize()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTooLargeBitArrayTest() {
+        LargeBloomFilter<String> largeFilter = new LargeBloomFilter<String>(959, 100);
+        largeFilter.setBitArray(ByteBufferBitArray.allocateDirect(1959));
+    }
+}
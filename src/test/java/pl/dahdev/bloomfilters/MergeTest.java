@@ -0,0 +1,144 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * @author Damian Stygar
+ */
+public class MergeTest {
+
+    @Test
+    public void unionTest() {
+        DoubleHashBloomFilter<Integer> first = new DoubleHashBloomFilter<Integer>(0.01, 2000);
+        DoubleHashBloomFilter<Integer> second = new DoubleHashBloomFilter<Integer>(0.01, 2000);
+        DoubleHashBloomFilter<Integer> all = new DoubleHashBloomFilter<Integer>(0.01, 2000);
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+            second.add(i + 1000);
+            all.add(i);
+            all.add(i + 1000);
+        }
+        AbstractBloomFilter<Integer> union = first.union(second);
+        Assert.assertEquals(all.getBitArray().cardinality(), union.getBitArray().cardinality());
+        for (int i = 0; i < 2000; i++) {
+            Assert.assertTrue(union.mightContains(i));
+        }
+        Assert.assertEquals(2000, union.getNumberOfElements(), 100);
+        Assert.assertEquals(1000, first.getNumberOfElements());
+    }
+
+    @Test
+    public void mergeFromTest() {
+        TripleHashBloomFilter<Integer> first = new TripleHashBloomFilter<Integer>(0.01, 2000);
+        TripleHashBloomFilter<Integer> second = new TripleHashBloomFilter<Integer>(0.01, 2000);
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+        first.mergeFrom(second);
+        for (int i = 0; i < 1500; i++) {
+            Assert.assertTrue(first.mightContains(i));
+        }
+        Assert.assertEquals(1500, first.getNumberOfElements(), 75);
+    }
+
+    @Test
+    public void intersectTest() {
+        EnhancedDoubleHashBloomFilter<Integer> first = new EnhancedDoubleHashBloomFilter<Integer>(0.001, 2000);
+        EnhancedDoubleHashBloomFilter<Integer> second = new EnhancedDoubleHashBloomFilter<Integer>(0.001, 2000);
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+        AbstractBloomFilter<Integer> intersection = first.intersect(second);
+        for (int i = 500; i < 1000; i++) {
+            Assert.assertTrue(intersection.mightContains(i));
+        }
+        int falsePositives = 0;
+        for (int i = 1000; i < 1500; i++) {
+            if (intersection.mightContains(i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < 25);
+    }
+
+    @Test
+    public void mergeOfManyLargeFiltersTest() {
+        DoubleHashBloomFilter<Integer>[] filters = createFilters(4, 1 << 22, 10000);
+        for (int i = 0; i < 40000; i++) {
+            filters[i % 4].add(i);
+        }
+        AbstractBloomFilter<Integer> merged = AbstractBloomFilter.merge(filters);
+        for (int i = 0; i < 40000; i++) {
+            Assert.assertTrue(merged.mightContains(i));
+        }
+        Assert.assertEquals(merged, AbstractBloomFilter.merge(Arrays.asList(filters)));
+        Assert.assertEquals(40000, merged.getNumberOfElements(), 400);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DoubleHashBloomFilter<Integer>[] createFilters(int number, int size, int expectedNumberOfElements) {
+        DoubleHashBloomFilter<Integer>[] filters = new DoubleHashBloomFilter[number];
+        for (int i = 0; i < number; i++) {
+            filters[i] = new DoubleHashBloomFilter<Integer>(size, expectedNumberOfElements);
+        }
+        return filters;
+    }
+
+    @Test
+    public void compatibilityTest() throws NoSuchAlgorithmException {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(1000, 100);
+        Assert.assertTrue(filter.isCompatible(new DoubleHashBloomFilter<String>(1000, 100)));
+        Assert.assertFalse(filter.isCompatible(new DoubleHashBloomFilter<String>(1001, 100)));
+        Assert.assertFalse(filter.isCompatible(new TripleHashBloomFilter<String>(1000, 100)));
+        Assert.assertFalse(filter.isCompatible(new DoubleHashBloomFilter<String>(1000, 100, new XxHash64HashStrategy())));
+        DoubleHashBloomFilter<String> seeded = new DoubleHashBloomFilter<String>(1000, 100);
+        seeded.setSeed(7);
+        Assert.assertFalse(filter.isCompatible(seeded));
+        Assert.assertFalse(filter.isCompatible(null));
+
+        DoubleHashBloomFilter<String> digestFilter = new DoubleHashBloomFilter<String>(1000, 100,
+                MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5"));
+        Assert.assertTrue(digestFilter.isCompatible(new DoubleHashBloomFilter<String>(1000, 100,
+                MessageDigest.getInstance("SHA-1"), MessageDigest.getInstance("MD5"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unionOfIncompatibleFiltersTest() {
+        new DoubleHashBloomFilter<String>(1000, 100).union(new DoubleHashBloomFilter<String>(2000, 100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeOfNoFiltersTest() {
+        AbstractBloomFilter.merge(Arrays.<AbstractBloomFilter<String>>asList());
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Damian Stygar
+ */
+public class PartitionedBloomFilterTest {
+
+    private List<AbstractBloomFilter<Integer>> createFilters() {
+        List<AbstractBloomFilter<Integer>> filters = Arrays.<AbstractBloomFilter<Integer>>asList(
+                new DoubleHashBloomFilter<Integer>(0.01, 10000),
+                new TripleHashBloomFilter<Integer>(0.01, 10000),
+                new EnhancedDoubleHashBloomFilter<Integer>(0.01, 10000));
+        for (AbstractBloomFilter<Integer> filter : filters) {
+            filter.setPartitioned(true);
+        }
+        return filters;
+    }
+
+    @Test
+    public void eachHashFunctionSetsBitInItsPartitionTest() {
+        for (AbstractBloomFilter<Integer> filter : createFilters()) {
+            Assert.assertTrue(filter.isPartitioned());
+            int range = filter.getSize() / filter.getNumberOfHash();
+            for (int element = 0; element < 100; element++) {
+                int[] hashes = filter.createHashes(new byte[]{(byte) element, 1, 2, 3}, filter.getNumberOfHash());
+                for (int i = 0; i < hashes.length; i++) {
+                    Assert.assertTrue(hashes[i] >= i * range);
+                    Assert.assertTrue(hashes[i] < (i + 1) * range);
+                }
+            }
+            filter.add(42);
+            Assert.assertEquals(filter.getNumberOfHash(), filter.getNumberOfSetBits());
+        }
+    }
+
+    @Test
+    public void noFalseNegativesTest() {
+        for (AbstractBloomFilter<Integer> filter : createFilters()) {
+            for (int i = 0; i < 10000; i++) {
+                filter.add(i);
+            }
+            for (int i = 0; i < 10000; i++) {
+                Assert.assertTrue(filter.mightContains(i));
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < 100000; i++) {
+                if (filter.mightContains(-1 - i)) {
+                    falsePositives++;
+                }
+            }
+            Assert.assertEquals(filter.getCurrentProbabilityOfFalsePositives(), falsePositives / 100000.0, 0.003);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setPartitionedWhenNotEmptyTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        filter.add(1);
+        filter.setPartitioned(true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maskMappingWithoutPowerOfTwoPartitionTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(1024, 100);
+        filter.setIndexMapping(IndexMapping.MASK);
+        filter.setPartitioned(true);
+    }
+
+    @Test
+    public void notCompatibleWithSharedLayoutTest() {
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        DoubleHashBloomFilter<Integer> partitionedFilter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        partitionedFilter.setPartitioned(true);
+        Assert.assertFalse(filter.isCompatible(partitionedFilter));
+        Assert.assertTrue(partitionedFilter.isCompatible(partitionedFilter.union(partitionedFilter)));
+    }
+
+    @Test
+    public void writeToAndReadFromTest() throws Exception {
+        for (AbstractBloomFilter<Integer> filter : createFilters()) {
+            for (int i = 0; i < 1000; i++) {
+                filter.add(i);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            filter.writeTo(outputStream);
+            AbstractBloomFilter<Integer> readFilter =
+                    AbstractBloomFilter.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+            Assert.assertTrue(readFilter.isPartitioned());
+            Assert.assertEquals(filter, readFilter);
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertTrue(readFilter.mightContains(i));
+            }
+        }
+    }
+}
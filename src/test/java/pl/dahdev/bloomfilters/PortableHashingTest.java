@@ -0,0 +1,243 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class PortableHashingTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void murmur3IsStableTest() {
+        byte[] bytes = "hello".getBytes(UTF_8);
+        assertEquals(0xcbd8a7b341bd9b02L, new Murmur3HashStrategy().hash(bytes, 0, bytes.length, 0));
+        long[] hashPair = new long[2];
+        new Murmur3HashStrategy().hashPair(bytes, 0, bytes.length, 0, hashPair);
+        assertEquals(0xcbd8a7b341bd9b02L, hashPair[0]);
+        assertEquals(0x5b1e906a48ae1d19L, hashPair[1]);
+    }
+
+    @Test
+    public void doubleHashingPositionsTest() throws Exception {
+        checkPositions(new DoubleHashBloomFilter<String>(0.01, 1000), false, true);
+        checkPositions(new DoubleHashBloomFilter<String>(0.01, 1000), true, true);
+        checkPositions(new DoubleHashBloomFilter<String>(0.01, 1000), false, false);
+        checkPositions(new DoubleHashBloomFilter<String>(0.01, 1000), true, false);
+    }
+
+    @Test
+    public void tripleHashingPositionsTest() throws Exception {
+        checkPositions(new TripleHashBloomFilter<String>(0.01, 1000), false, true);
+        checkPositions(new TripleHashBloomFilter<String>(0.01, 1000), true, true);
+        checkPositions(new TripleHashBloomFilter<String>(0.01, 1000), false, false);
+        checkPositions(new TripleHashBloomFilter<String>(0.01, 1000), true, false);
+    }
+
+    @Test
+    public void enhancedDoubleHashingPositionsTest() throws Exception {
+        checkPositions(new EnhancedDoubleHashBloomFilter<String>(0.01, 1000), false, true);
+        checkPositions(new EnhancedDoubleHashBloomFilter<String>(0.01, 1000), true, true);
+        checkPositions(new EnhancedDoubleHashBloomFilter<String>(0.01, 1000), false, false);
+        checkPositions(new EnhancedDoubleHashBloomFilter<String>(0.01, 1000), true, false);
+    }
+
+    @Test
+    public void encodingOfElementsIsSavedTest() throws Exception {
+        DoubleHashBloomFilter<Object> filter = new DoubleHashBloomFilter<Object>(0.01, 100);
+        filter.setFunnel(Funnels.stringFunnel());
+        filter.add(42);
+        AbstractBloomFilter<Object> read = AbstractBloomFilter.readFrom(new ByteArrayInputStream(write(filter)));
+        assertSame(Funnels.stringFunnel(), read.getFunnel());
+        assertTrue(read.mightContains(42));
+    }
+
+    @Test
+    public void ownFunnelIsPassedToReadFromTest() throws Exception {
+        Funnel<Integer> funnel = new Funnel<Integer>() {
+            @Override
+            public void funnel(Integer element, ByteSink sink) {
+                sink.putLong(element * 31L);
+            }
+        };
+        DoubleHashBloomFilter<Integer> filter = new DoubleHashBloomFilter<Integer>(0.01, 100);
+        filter.setFunnel(funnel);
+        filter.add(7);
+        AbstractBloomFilter<Integer> read = AbstractBloomFilter.readFrom(ByteBuffer.wrap(write(filter)), funnel);
+        assertTrue(read.mightContains(7));
+        assertEquals(filter, read);
+    }
+
+    @Test(expected = IOException.class)
+    public void ownFunnelIsRequiredByReadFromTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.setFunnel(new ReversedFunnel());
+        filter.add("Hello");
+        AbstractBloomFilter.readFrom(new ByteArrayInputStream(write(filter)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ownFunnelIsSerializedTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.setFunnel(new ReversedFunnel());
+        filter.add("Hello");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(bytes);
+        outputStream.writeObject(filter);
+        outputStream.writeObject(filter.freeze());
+        outputStream.close();
+        ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        AbstractBloomFilter<String> read = (AbstractBloomFilter<String>) inputStream.readObject();
+        ImmutableBloomFilter<String> frozen = (ImmutableBloomFilter<String>) inputStream.readObject();
+        assertTrue(read.getFunnel() instanceof ReversedFunnel);
+        assertTrue(read.mightContains("Hello"));
+        assertTrue(frozen.mightContains("Hello"));
+    }
+
+    @Test
+    public void readFirstVersionTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.setSeed(5);
+        filter.pairedHashValues = false;
+        filter.add("Test");
+        byte[] bytes = write(filter);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int headerLength = buffer.getInt(5);
+        byte[] firstVersion = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, firstVersion, 0, headerLength - 1);
+        System.arraycopy(bytes, headerLength, firstVersion, headerLength - 1, bytes.length - headerLength);
+        ByteBuffer firstVersionBuffer = ByteBuffer.wrap(firstVersion).order(ByteOrder.LITTLE_ENDIAN);
+        firstVersionBuffer.put(4, (byte) 1);
+        firstVersionBuffer.putInt(5, headerLength - 1);
+
+        AbstractBloomFilter<String> read = AbstractBloomFilter.readFrom(new ByteArrayInputStream(firstVersion));
+        assertEquals(filter, read);
+        assertTrue(read.mightContains("Test"));
+        assertEquals(filter, AbstractBloomFilter.readFrom(ByteBuffer.wrap(firstVersion)));
+    }
+
+    @Test
+    public void readSecondVersionTest() throws Exception {
+        DoubleHashBloomFilter<String> filter = new DoubleHashBloomFilter<String>(0.01, 100);
+        filter.pairedHashValues = false;
+        filter.add("Test");
+        byte[] bytes = write(filter);
+        bytes[4] = 2;
+        AbstractBloomFilter<String> read = AbstractBloomFilter.readFrom(new ByteArrayInputStream(bytes));
+        assertFalse(read.pairedHashValues);
+        assertEquals(filter, read);
+        assertTrue(read.mightContains("Test"));
+        assertTrue(new DoubleHashBloomFilter<String>(0.01, 100).pairedHashValues);
+    }
+
+    private static void checkPositions(AbstractBloomFilter<String> filter, boolean partitioned,
+                                       boolean pairedHashValues) throws Exception {
+        filter.setPartitioned(partitioned);
+        filter.pairedHashValues = pairedHashValues;
+        filter.setSeed(123456789L);
+        HashingMethod method = filter instanceof TripleHashBloomFilter ? HashingMethod.TRIPLE
+                : filter instanceof EnhancedDoubleHashBloomFilter ? HashingMethod.ENHANCED_DOUBLE : HashingMethod.DOUBLE;
+        for (int element = 0; element < 100; element++) {
+            String value = "Element" + element;
+            filter.clear();
+            filter.add(value);
+            int[] positions = positions(value.getBytes(UTF_8), filter.getSize(), filter.getNumberOfHash(),
+                    filter.getSeed(), method, partitioned, pairedHashValues);
+            AbstractBloomFilter<String> read = AbstractBloomFilter.readFrom(new ByteArrayInputStream(write(filter)));
+            for (int position : positions) {
+                assertTrue(filter.getBitArray().get(position));
+                assertTrue(read.getBitArray().get(position));
+            }
+            assertTrue(read.mightContains(value));
+        }
+    }
+
+    /**
+     * Positions of bits computed as described in documentation of binary format.
+     */
+    private static int[] positions(byte[] bytes, int size, int numberOfHash, long seed, HashingMethod method,
+                                   boolean partitioned, boolean pairedHashValues) {
+        Murmur3HashStrategy hashStrategy = new Murmur3HashStrategy();
+        long range = partitioned ? size / numberOfHash : size;
+        long[] hashes = new long[3];
+        for (int i = 0; i < 3; i++) {
+            hashes[i] = hashStrategy.hash(bytes, 0, bytes.length, seed + i);
+        }
+        if (pairedHashValues) {
+            long[] hashPair = new long[2];
+            hashStrategy.hashPair(bytes, 0, bytes.length, seed, hashPair);
+            hashes[0] = hashPair[0];
+            hashes[1] = hashPair[1];
+        }
+        long[] values = new long[3];
+        for (int i = 0; i < 3; i++) {
+            values[i] = ((hashes[i] >>> 32) * range) >>> 32;
+        }
+        long a = values[0];
+        long b = values[1];
+        long c = values[2];
+        int[] positions = new int[numberOfHash];
+        for (int j = 0; j < numberOfHash; j++) {
+            a = (a + b) % range;
+            if (method == HashingMethod.TRIPLE) {
+                b = (b + c) % range;
+            } else if (method == HashingMethod.ENHANCED_DOUBLE) {
+                b = (b + j) % range;
+            }
+            positions[j] = (int) (a + (partitioned ? j * range : 0));
+        }
+        return positions;
+    }
+
+    private static byte[] write(AbstractBloomFilter<?> filter) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        filter.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Funnel, which writes characters of string in reversed order.
+     */
+    private static final class ReversedFunnel implements Funnel<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void funnel(String element, ByteSink sink) {
+            sink.putString(new StringBuilder(element).reverse());
+        }
+    }
+}
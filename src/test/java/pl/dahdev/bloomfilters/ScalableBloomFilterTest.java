@@ -0,0 +1,115 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Damian Stygar
+ */
+public class ScalableBloomFilterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongProbabilityTest() {
+        new ScalableBloomFilter<String>(1.5, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongGrowthFactorTest() {
+        new ScalableBloomFilter<String>(0.01, 100, 0, 0.9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongTighteningRatioTest() {
+        new ScalableBloomFilter<String>(0.01, 100, 2, 1);
+    }
+
+    @Test
+    public void growsWhenFullTest() {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<Integer>(0.01, 100);
+        for (int i = 0; i < 100; i++) {
+            filter.add(i);
+        }
+        Assert.assertEquals(1, filter.getNumberOfFilters());
+        filter.add(100);
+        Assert.assertEquals(2, filter.getNumberOfFilters());
+        for (int i = 101; i < 700; i++) {
+            filter.add(i);
+        }
+        Assert.assertEquals(3, filter.getNumberOfFilters());
+        Assert.assertEquals(700, filter.getNumberOfElements());
+        for (int i = 0; i < 700; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+    }
+
+    @Test
+    public void probabilityIsBoundedTest() {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<Integer>(0.01, 100);
+        for (int i = 0; i < 100000; i++) {
+            filter.add(i);
+        }
+        Assert.assertTrue(filter.getCurrentProbabilityOfFalsePositives() <= 0.01);
+        Assert.assertTrue(filter.getProbabilityOfFalsePositives(1000000) <= 0.01);
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContains(-1 - i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives / 100000.0 <= 0.015);
+    }
+
+    @Test
+    public void clearTest() {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<Integer>(0.01, 10);
+        for (int i = 0; i < 100; i++) {
+            filter.add(i);
+        }
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertEquals(1, filter.getNumberOfFilters());
+        Assert.assertFalse(filter.mightContains(1));
+    }
+
+    @Test
+    public void filtersStopGrowingAtMaximalSizeTest() {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<Integer>(0.01, 1000, 1000000, 0.5);
+        long previousCapacity = 0;
+        for (int index = 0; index < 40; index++) {
+            double probability = filter.getProbabilityOfFilter(index);
+            int capacity = filter.getCapacityOfFilter(index);
+            long size = BloomFilterSpec.getOptimalSize(probability, capacity);
+            Assert.assertTrue(size <= Integer.MAX_VALUE);
+            BloomFilterSpec spec = BloomFilterSpec.forSize(size, capacity);
+            Assert.assertTrue(spec.getProbabilityOfFalsePositives() <= probability * 1.05);
+            if (index > 2) {
+                Assert.assertTrue(capacity <= previousCapacity);
+            }
+            previousCapacity = capacity;
+        }
+        Assert.assertTrue(filter.getProbabilityOfFalsePositives(Integer.MAX_VALUE) <= 0.01);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Damian Stygar
+ */
+public class SlidingWindowBloomFilterTest {
+
+    private static class ManualClock extends Clock {
+
+        private long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            millis += unit.toMillis(duration);
+        }
+    }
+
+    private SlidingWindowBloomFilter<Integer> createFilter(ManualClock clock) {
+        return new SlidingWindowBloomFilter<Integer>(0.01, 1000, 10, 1, TimeUnit.MINUTES,
+                new Murmur3HashStrategy(), clock);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithWrongProbabilityTest() {
+        new SlidingWindowBloomFilter<String>(1.5, 100, 10, 1, TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithGranularityLongerThanWindowTest() {
+        new SlidingWindowBloomFilter<String>(0.01, 100, 1, 10, TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullClockTest() {
+        new SlidingWindowBloomFilter<String>(0.01, 100, 10, 1, TimeUnit.MINUTES, new Murmur3HashStrategy(), null);
+    }
+
+    @Test
+    public void numberOfBucketsTest() {
+        SlidingWindowBloomFilter<Integer> filter = createFilter(new ManualClock());
+        Assert.assertEquals(11, filter.getNumberOfBuckets());
+        Assert.assertEquals(10, filter.getWindow(TimeUnit.MINUTES));
+        Assert.assertEquals(60, filter.getGranularity(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void elementsExpireAfterWindowTest() {
+        ManualClock clock = new ManualClock();
+        SlidingWindowBloomFilter<Integer> filter = createFilter(clock);
+        Assert.assertTrue(filter.isEmpty());
+        filter.add(1);
+        clock.advance(5, TimeUnit.MINUTES);
+        filter.add(2);
+        clock.advance(5, TimeUnit.MINUTES);
+        Assert.assertTrue(filter.mightContains(1));
+        Assert.assertTrue(filter.mightContains(2));
+        Assert.assertEquals(2, filter.getNumberOfElements());
+        clock.advance(1, TimeUnit.MINUTES);
+        Assert.assertFalse(filter.mightContains(1));
+        Assert.assertTrue(filter.mightContains(2));
+        Assert.assertEquals(1, filter.getNumberOfElements());
+        clock.advance(10, TimeUnit.MINUTES);
+        Assert.assertFalse(filter.mightContains(2));
+        Assert.assertTrue(filter.isEmpty());
+    }
+
+    @Test
+    public void oldestBucketIsReusedTest() {
+        ManualClock clock = new ManualClock();
+        SlidingWindowBloomFilter<Integer> filter = createFilter(clock);
+        filter.add(1);
+        clock.advance(11, TimeUnit.MINUTES);
+        filter.add(2);
+        Assert.assertFalse(filter.mightContains(1));
+        Assert.assertTrue(filter.mightContains(2));
+        Assert.assertEquals(1, filter.getNumberOfElements());
+    }
+
+    @Test
+    public void clearTest() {
+        ManualClock clock = new ManualClock();
+        SlidingWindowBloomFilter<Integer> filter = createFilter(clock);
+        filter.add(1);
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains(1));
+    }
+
+    @Test
+    public void probabilityOverWindowTest() {
+        ManualClock clock = new ManualClock();
+        SlidingWindowBloomFilter<Integer> filter = createFilter(clock);
+        Assert.assertEquals(0, filter.getCurrentProbabilityOfFalsePositives(), 0);
+        int element = 0;
+        for (int minute = 0; minute < 10; minute++) {
+            for (int i = 0; i < 100; i++) {
+                filter.add(element++);
+            }
+            clock.advance(1, TimeUnit.MINUTES);
+        }
+        for (int i = 0; i < element; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+        }
+        double probability = filter.getCurrentProbabilityOfFalsePositives();
+        Assert.assertTrue(probability > 0 && probability <= 0.01);
+        Assert.assertEquals(filter.getProbabilityOfFalsePositives(1000), probability, 0.002);
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContains(-1 - i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives / 100000.0 < 0.015);
+    }
+}
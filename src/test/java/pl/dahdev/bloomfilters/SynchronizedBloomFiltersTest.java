@@ -0,0 +1,142 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017 Damian Stygar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package pl.dahdev.bloomfilters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Damian Stygar
+ */
+public class SynchronizedBloomFiltersTest {
+
+    private static final double PROBABILITY_OF_FALSE_POSITIVES = 0.001;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stripedWithNullFilterTest() {
+        SynchronizedBloomFilters.striped(null, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stripedWithZeroStripesTest() {
+        SynchronizedBloomFilters.striped(new DoubleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, 10), 0);
+    }
+
+    @Test
+    public void numberOfStripesIsLimitedByWordsTest() {
+        SynchronizedBloomFilters.StripedBloomFilter<Integer> filter =
+                SynchronizedBloomFilters.striped(new DoubleHashBloomFilter<Integer>(128, 10), 16);
+        Assert.assertEquals(2, filter.getNumberOfStripes());
+    }
+
+    @Test
+    public void sameBitsAsWrappedFilterTest() {
+        DoubleHashBloomFilter<Integer> expected = new DoubleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, 1000);
+        SynchronizedBloomFilters.StripedBloomFilter<Integer> filter = SynchronizedBloomFilters.striped(
+                new DoubleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, 1000), 8);
+        for (int i = 0; i < 1000; i++) {
+            expected.add(i);
+            filter.add(i);
+        }
+        AbstractBloomFilter<Integer> snapshot = filter.snapshot();
+        Assert.assertEquals(expected, snapshot);
+        Assert.assertEquals(expected.getNumberOfSetBits(), filter.getNumberOfSetBits());
+        Assert.assertEquals(1000, filter.getNumberOfElements());
+        filter.add(1000);
+        Assert.assertEquals(1000, snapshot.getNumberOfElements());
+        filter.clear();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContains(1));
+        Assert.assertTrue(snapshot.mightContains(1));
+    }
+
+    @Test
+    public void addAndCheckFromManyThreadsTest() throws Exception {
+        final int numberOfThreads = 8;
+        final int elementsPerThread = 2000;
+        final SynchronizedBloomFilters.StripedBloomFilter<Integer> filter = SynchronizedBloomFilters.striped(
+                new TripleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, numberOfThreads * elementsPerThread), 16);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < numberOfThreads; thread++) {
+                final int first = thread * elementsPerThread;
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = first; i < first + elementsPerThread; i++) {
+                            filter.add(i);
+                            if (!filter.mightContains(i)) {
+                                throw new AssertionError("Inserted element is not found: " + i);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < 10; i++) {
+                AbstractBloomFilter<Integer> snapshot = filter.snapshot();
+                Assert.assertTrue(snapshot.getNumberOfElements() <= numberOfThreads * elementsPerThread);
+                Assert.assertEquals(snapshot.bitArray.cardinality(), snapshot.getNumberOfSetBits());
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(numberOfThreads * elementsPerThread, filter.getNumberOfElements());
+        AbstractBloomFilter<Integer> snapshot = filter.snapshot();
+        for (int i = 0; i < numberOfThreads * elementsPerThread; i++) {
+            Assert.assertTrue(filter.mightContains(i));
+            Assert.assertTrue(snapshot.mightContains(i));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serializedAsSnapshotTest() throws Exception {
+        SynchronizedBloomFilters.StripedBloomFilter<String> filter = SynchronizedBloomFilters.striped(
+                new EnhancedDoubleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, 10), 4);
+        filter.add("Test");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(filter);
+        objectOutputStream.close();
+        BloomFilter<String> readFilter = (BloomFilter<String>) new ObjectInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray())).readObject();
+        Assert.assertTrue(readFilter instanceof EnhancedDoubleHashBloomFilter);
+        Assert.assertTrue(readFilter.mightContains("Test"));
+        Assert.assertEquals(1, readFilter.getNumberOfElements());
+    }
+}
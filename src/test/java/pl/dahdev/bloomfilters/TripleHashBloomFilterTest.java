@@ -158,4 +158,22 @@ public class TripleHashBloomFilterTest {
         new TripleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS,
                 firstHashFunction, secondHashFunction, null);
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorWithNullOfHashStrategyTest() {
+        new TripleHashBloomFilter<Integer>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, (HashStrategy) null);
+    }
+
+    @Test
+    public void mightContainsWithEachHashStrategyTest() {
+        for (HashStrategy hashStrategy : new HashStrategy[]{
+                new Murmur3HashStrategy(), new XxHash64HashStrategy(), new CityHashStrategy()}) {
+            BloomFilter<String> filter =
+                    new TripleHashBloomFilter<String>(PROBABILITY_OF_FALSE_POSITIVES, EXPECTED_NUMBER_OF_ELEMENTS, hashStrategy);
+            filter.add(FIRST_ELEMENT);
+            filter.add(SECOND_ELEMENT);
+            Assert.assertTrue(filter.mightContains(FIRST_ELEMENT));
+            Assert.assertTrue(filter.mightContains(SECOND_ELEMENT));
+        }
+    }
 }